@@ -0,0 +1,129 @@
+package sh.fyz.fiber.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import sh.fyz.fiber.annotations.dto.IgnoreDTO;
+import sh.fyz.fiber.core.dto.DTOConvertible;
+import sh.fyz.fiber.util.FiberObjectMapper;
+
+import java.lang.reflect.Field;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DTO conversion of a 20-field entity graph (no HTTP, no database).
+ *
+ * <p>{@code reflectiveAsDTO} reproduces the previous {@code asDTO()} which read every
+ * field with {@link Field#get}; {@code asDTO} uses the generated accessors and
+ * {@code serialize} is the response path (object → JSON bytes through
+ * {@code DTOSerializer}).
+ *
+ * <p>Add the {@code gc} profiler to compare allocation rates as well as throughput.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DtoBenchmark {
+
+    public static class Address extends DTOConvertible {
+        private String street = "1 rue de la Paix";
+        private String city = "Paris";
+        private String zip = "75002";
+        private String country = "FR";
+    }
+
+    public static class Account extends DTOConvertible {
+        private long id = 42;
+        private String username = "ada";
+        private String email = "ada@example.com";
+        @IgnoreDTO private String password = "$2a$12$hash";
+        private String firstName = "Ada";
+        private String lastName = "Lovelace";
+        private String role = "admin";
+        private int age = 36;
+        private boolean active = true;
+        private boolean verified = true;
+        private double balance = 1234.5;
+        private long createdAt = 1_700_000_000_000L;
+        private long updatedAt = 1_700_000_500_000L;
+        private Instant lastLogin = Instant.parse("2024-01-01T00:00:00Z");
+        private String locale = "fr_FR";
+        private String timezone = "Europe/Paris";
+        private String avatar = "https://cdn.example.com/a.png";
+        private String bio;
+        private Address address = new Address();
+        private List<Address> previousAddresses = List.of(new Address(), new Address());
+        private Map<String, Object> settings = Map.of("theme", "dark", "notifications", true);
+    }
+
+    private Account account;
+    private List<Account> page;
+    private FiberObjectMapper mapper;
+
+    @Setup
+    public void setup() {
+        account = new Account();
+        page = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            page.add(new Account());
+        }
+        mapper = new FiberObjectMapper();
+        DTOConvertible.getCachedAccessors(Account.class);
+        DTOConvertible.getCachedAccessors(Address.class);
+    }
+
+    @Benchmark
+    public Map<String, Object> reflectiveAsDTO() {
+        return reflective(account);
+    }
+
+    @Benchmark
+    public Map<String, Object> asDTO() {
+        return account.asDTO();
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return mapper.writeValueAsBytes(account);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public byte[] serializePage() throws Exception {
+        return mapper.writeValueAsBytes(page);
+    }
+
+    //  Field.get baseline 
+
+    private static Map<String, Object> reflective(DTOConvertible source) {
+        source.transform();
+        Map<String, Object> dto = new HashMap<>();
+        for (Field field : DTOConvertible.getCachedFields(source.getClass())) {
+            try {
+                Object value = field.get(source);
+                if (value == null) continue;
+                if (value instanceof DTOConvertible convertible) {
+                    dto.put(field.getName(), reflective(convertible));
+                } else if (value instanceof List<?> list) {
+                    List<Object> copy = new ArrayList<>(list.size());
+                    for (Object o : list) {
+                        copy.add(o instanceof DTOConvertible inner ? reflective(inner) : o);
+                    }
+                    dto.put(field.getName(), copy);
+                } else if (value instanceof Map<?, ?> map) {
+                    dto.put(field.getName(), new HashMap<>(map));
+                } else {
+                    dto.put(field.getName(), value);
+                }
+            } catch (IllegalAccessException ignored) {
+            }
+        }
+        return dto;
+    }
+}
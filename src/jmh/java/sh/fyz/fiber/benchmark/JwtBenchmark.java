@@ -0,0 +1,92 @@
+package sh.fyz.fiber.benchmark;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import sh.fyz.fiber.core.FastJwt;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Access-token generation and validation in isolation (no HTTP, no database).
+ *
+ * <p>{@code jjwt*} is the general-purpose path {@code JwtUtil} used for every token
+ * (builder from a claims map, full parser); {@code fast*} is {@link FastJwt}, which
+ * {@code JwtUtil} now uses for its own fixed-shape tokens. Both produce and accept the
+ * same tokens.
+ *
+ * <p>Add the {@code gc} profiler to compare allocation rates as well as throughput.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-0123456789-abcdefghijklmnop";
+    private static final String IP = "203.0.113.42";
+    private static final String UA = "Mozilla/5.0 (X11; Linux x86_64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/124.0 Safari/537.36";
+    private static final String SESSION = "6f1c2d3e-4a5b-6c7d-8e9f-0a1b2c3d4e5f";
+    private static final long VALIDITY = 3_600_000;
+
+    private SecretKey key;
+    private JwtParser parser;
+    private FastJwt fastJwt;
+    private String token;
+
+    @Setup
+    public void setup() {
+        key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser().verifyWith(key).build();
+        fastJwt = new FastJwt(key.getEncoded());
+        token = fastJwt.encode(42L, IP, UA, "access", SESSION, System.currentTimeMillis(), VALIDITY);
+    }
+
+    @Benchmark
+    public String jjwtGenerate() {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("id", 42L);
+        claims.put("ip", IP);
+        claims.put("userAgent", UA);
+        claims.put("type", "access");
+        claims.put("sessionId", SESSION);
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .claims(claims)
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + VALIDITY))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    @Benchmark
+    public String fastGenerate() {
+        return fastJwt.encode(42L, IP, UA, "access", SESSION, System.currentTimeMillis(), VALIDITY);
+    }
+
+    @Benchmark
+    public Claims jjwtValidate() {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
+    @Benchmark
+    public FastJwt.Token fastValidate() {
+        return fastJwt.decode(token);
+    }
+
+    /** What {@code JwtUtil} returns on a cache miss: decode plus the {@link Claims} view. */
+    @Benchmark
+    public Claims fastValidateToClaims() {
+        return fastJwt.decode(token).toClaims();
+    }
+}
@@ -0,0 +1,146 @@
+package sh.fyz.fiber.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import sh.fyz.fiber.core.PathTrie;
+import sh.fyz.fiber.core.RouteTable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dynamic route lookup in isolation (no HTTP, no database).
+ *
+ * <p>{@code splitLookup} reproduces the previous trie: {@code String.split("/")} per
+ * request and {@code HashMap} lookups for both literal children and the HTTP method.
+ * {@code offsetLookup} is the router's current path through {@link PathTrie}.
+ *
+ * <p>Add the {@code gc} profiler to compare allocation rates as well as throughput.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PathTrieBenchmark {
+
+    @Param({"10", "500", "5000"})
+    public int routes;
+
+    private PathTrie<String> trie;
+    private SplitTrie splitTrie;
+    private String[] requests;
+    private int[] offsets;
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        trie = new PathTrie<>();
+        splitTrie = new SplitTrie();
+        for (int i = 0; i < routes; i++) {
+            // Mix of shapes: shared prefixes, params at several depths, one wildcard family.
+            String path = switch (i % 4) {
+                case 0 -> "/api/v1/resource" + i + "/{id}";
+                case 1 -> "/api/v1/resource" + i + "/{id}/items/{itemId}";
+                case 2 -> "/org" + i + "/{org}/repos/{repo}/settings";
+                default -> "/static" + i + "/*";
+            };
+            trie.add(path, "GET", path);
+            splitTrie.add(path, "GET", path);
+        }
+        offsets = new int[trie.getMaxParams() * 2];
+
+        requests = new String[Math.min(routes, 256)];
+        for (int i = 0; i < requests.length; i++) {
+            int route = (int) ((long) i * routes / requests.length);
+            requests[i] = switch (route % 4) {
+                case 0 -> "/api/v1/resource" + route + "/42";
+                case 1 -> "/api/v1/resource" + route + "/42/items/7";
+                case 2 -> "/org" + route + "/fyz/repos/fiber/settings";
+                default -> "/static" + route + "/css/app.css";
+            };
+        }
+    }
+
+    private String nextRequest() {
+        String request = requests[cursor];
+        cursor = (cursor + 1) % requests.length;
+        return request;
+    }
+
+    @Benchmark
+    public void offsetLookup(Blackhole bh) {
+        bh.consume(trie.find(nextRequest(), RouteTable.methodIndex("GET"), offsets));
+    }
+
+    @Benchmark
+    public void splitLookup(Blackhole bh) {
+        bh.consume(splitTrie.find(nextRequest(), "GET"));
+    }
+
+    /** The pre-offset trie, kept here only as a baseline. */
+    private static final class SplitTrie {
+        private static final class Node {
+            Map<String, Node> literalChildren;
+            Node paramChild;
+            Node wildcardChild;
+            Map<String, String> values;
+        }
+
+        private final Node root = new Node();
+
+        void add(String path, String httpMethod, String value) {
+            Node node = root;
+            for (String segment : split(path)) {
+                if (segment.equals("*")) {
+                    if (node.wildcardChild == null) node.wildcardChild = new Node();
+                    node = node.wildcardChild;
+                } else if (segment.startsWith("{") && segment.endsWith("}")) {
+                    if (node.paramChild == null) node.paramChild = new Node();
+                    node = node.paramChild;
+                } else {
+                    if (node.literalChildren == null) node.literalChildren = new HashMap<>();
+                    node = node.literalChildren.computeIfAbsent(segment, k -> new Node());
+                }
+            }
+            if (node.values == null) node.values = new HashMap<>();
+            node.values.put(httpMethod, value);
+        }
+
+        String find(String path, String httpMethod) {
+            return find(root, split(path), 0, httpMethod);
+        }
+
+        private String find(Node node, String[] segments, int idx, String httpMethod) {
+            if (idx == segments.length) {
+                return node.values != null ? node.values.get(httpMethod) : null;
+            }
+            String segment = segments[idx];
+            if (node.literalChildren != null) {
+                Node child = node.literalChildren.get(segment);
+                if (child != null) {
+                    String hit = find(child, segments, idx + 1, httpMethod);
+                    if (hit != null) return hit;
+                }
+            }
+            if (node.paramChild != null) {
+                String hit = find(node.paramChild, segments, idx + 1, httpMethod);
+                if (hit != null) return hit;
+            }
+            if (node.wildcardChild != null && node.wildcardChild.values != null) {
+                return node.wildcardChild.values.get(httpMethod);
+            }
+            return null;
+        }
+
+        private static String[] split(String path) {
+            if (path == null || path.isEmpty() || path.equals("/")) return new String[0];
+            String stripped = path.startsWith("/") ? path.substring(1) : path;
+            if (stripped.endsWith("/")) stripped = stripped.substring(0, stripped.length() - 1);
+            if (stripped.isEmpty()) return new String[0];
+            return stripped.split("/");
+        }
+    }
+}
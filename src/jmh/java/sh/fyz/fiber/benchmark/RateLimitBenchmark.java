@@ -0,0 +1,142 @@
+package sh.fyz.fiber.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import sh.fyz.fiber.core.security.annotations.RateLimit;
+import sh.fyz.fiber.core.security.exceptions.RateLimitExceededException;
+import sh.fyz.fiber.core.security.interceptors.RateLimitInterceptor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate-limit checks in isolation (no HTTP), 64 threads at once.
+ *
+ * <p>{@code *SameKey} has every thread hit one key, which is the contention case: the
+ * sliding log ({@code slidingWindow = true}) serialises on the key's monitor and keeps one
+ * timestamp per admitted request, while the counter, token bucket and GCRA do a CAS on one
+ * long. {@code *DistinctKeys} spreads the threads over 100k keys, which measures cache
+ * lookups and per-key footprint rather than contention.
+ *
+ * <p>The limit is one million per second, so the same-key runs mix admissions and
+ * rejections (each rejection throws, as in the router). Add the {@code gc} profiler to
+ * compare allocation rates as well as throughput.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(64)
+@State(Scope.Benchmark)
+public class RateLimitBenchmark {
+
+    private static final int DISTINCT_KEYS = 100_000;
+
+    @RateLimit(attempts = 1_000_000, timeout = 1, unit = TimeUnit.SECONDS, slidingWindow = true)
+    public void slidingLog() {}
+
+    @RateLimit(attempts = 1_000_000, timeout = 1, unit = TimeUnit.SECONDS,
+            algorithm = RateLimit.Algorithm.SLIDING_COUNTER)
+    public void slidingCounter() {}
+
+    @RateLimit(attempts = 1_000_000, timeout = 1, unit = TimeUnit.SECONDS,
+            algorithm = RateLimit.Algorithm.TOKEN_BUCKET)
+    public void tokenBucket() {}
+
+    @RateLimit(attempts = 1_000_000, timeout = 1, unit = TimeUnit.SECONDS,
+            algorithm = RateLimit.Algorithm.GCRA)
+    public void gcra() {}
+
+    private RateLimit logLimit;
+    private RateLimit counterLimit;
+    private RateLimit bucketLimit;
+    private RateLimit gcraLimit;
+    private String sharedKey;
+    private String[] keys;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+
+        @Setup
+        public void setup() {
+            next = (int) (Thread.currentThread().threadId() * 7919 % DISTINCT_KEYS);
+        }
+
+        int advance() {
+            int i = next;
+            next = i + 1 == DISTINCT_KEYS ? 0 : i + 1;
+            return i;
+        }
+    }
+
+    @Setup
+    public void setup() throws Exception {
+        logLimit = annotation("slidingLog");
+        counterLimit = annotation("slidingCounter");
+        bucketLimit = annotation("tokenBucket");
+        gcraLimit = annotation("gcra");
+        sharedKey = RateLimitInterceptor.buildCacheKey("203.0.113.42", "bench");
+        keys = new String[DISTINCT_KEYS];
+        for (int i = 0; i < DISTINCT_KEYS; i++) {
+            keys[i] = RateLimitInterceptor.buildCacheKey("10." + (i >> 16) + "." + ((i >> 8) & 255) + "." + (i & 255), "bench");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        RateLimitInterceptor.clearAll();
+    }
+
+    private static RateLimit annotation(String method) throws NoSuchMethodException {
+        return RateLimitBenchmark.class.getMethod(method).getAnnotation(RateLimit.class);
+    }
+
+    private static void check(RateLimit rateLimit, String key, Blackhole bh) {
+        try {
+            bh.consume(RateLimitInterceptor.checkRateLimit(rateLimit, key));
+        } catch (RateLimitExceededException e) {
+            bh.consume(e);
+        }
+    }
+
+    @Benchmark
+    public void slidingLogSameKey(Blackhole bh) {
+        check(logLimit, sharedKey, bh);
+    }
+
+    @Benchmark
+    public void slidingCounterSameKey(Blackhole bh) {
+        check(counterLimit, sharedKey, bh);
+    }
+
+    @Benchmark
+    public void tokenBucketSameKey(Blackhole bh) {
+        check(bucketLimit, sharedKey, bh);
+    }
+
+    @Benchmark
+    public void gcraSameKey(Blackhole bh) {
+        check(gcraLimit, sharedKey, bh);
+    }
+
+    @Benchmark
+    public void slidingLogDistinctKeys(Cursor cursor, Blackhole bh) {
+        check(logLimit, keys[cursor.advance()], bh);
+    }
+
+    @Benchmark
+    public void slidingCounterDistinctKeys(Cursor cursor, Blackhole bh) {
+        check(counterLimit, keys[cursor.advance()], bh);
+    }
+
+    @Benchmark
+    public void tokenBucketDistinctKeys(Cursor cursor, Blackhole bh) {
+        check(bucketLimit, keys[cursor.advance()], bh);
+    }
+
+    @Benchmark
+    public void gcraDistinctKeys(Cursor cursor, Blackhole bh) {
+        check(gcraLimit, keys[cursor.advance()], bh);
+    }
+}
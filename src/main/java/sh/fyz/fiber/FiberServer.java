@@ -30,12 +30,20 @@ import sh.fyz.fiber.handler.RouterServlet;
 import sh.fyz.fiber.core.security.filters.SecurityHeadersFilter;
 import sh.fyz.fiber.core.authentication.oauth2.OAuth2AuthenticationService;
 import sh.fyz.fiber.handler.parameter.ParameterHandlerRegistry;
+import sh.fyz.fiber.handler.parameter.RequestBodyParameterHandler;
 import sh.fyz.fiber.core.authentication.RoleRegistry;
 import sh.fyz.fiber.core.authentication.AuthResolver;
 import sh.fyz.fiber.core.authentication.impl.BasicAuthenticator;
+import sh.fyz.fiber.core.JwtUtil;
+import sh.fyz.fiber.core.invalidation.InvalidationBus;
+import sh.fyz.fiber.core.revocation.TokenRevocationStore;
+import sh.fyz.fiber.core.security.interceptors.RateLimitInterceptor;
+import sh.fyz.fiber.core.security.ratelimit.RateLimitStore;
+import sh.fyz.fiber.core.overload.AdaptiveConcurrencyLimiter;
 import sh.fyz.fiber.core.session.SessionService;
 import sh.fyz.fiber.handler.EndpointHandler;
 import sh.fyz.fiber.util.HttpUtil;
+import sh.fyz.fiber.util.FiberObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -49,6 +57,7 @@ import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 public class FiberServer {
 
@@ -76,11 +85,16 @@ public class FiberServer {
     private CorsService corsService;
     private final BasicAuthenticator basicAuthenticator;
     private SessionService sessionService;
+    private InvalidationBus invalidationBus;
+    private TokenRevocationStore tokenRevocationStore;
+    private RateLimitStore rateLimitStore;
+    private volatile AdaptiveConcurrencyLimiter concurrencyLimiter;
     private UserOAuth2TokenService userOAuth2TokenService;
     private boolean challengeControllerRegistered = false;
     private long maxFileSize = 50_000_000;
     private long maxRequestSize = 100_000_000;
     private int fileSizeThreshold = 1_000_000;
+    private volatile boolean streamingResponses = false;
     private boolean started = false;
     private final ScheduledExecutorService sharedExecutor;
 
@@ -140,13 +154,18 @@ public class FiberServer {
         this.isDev = true;
     }
 
+    /**
+     * Resolve the fields and generate the getters of every {@link DTOConvertible} on the
+     * classpath now, so the first response of each type does not pay for it.
+     */
     public void preloadDto() {
         try (ScanResult scanResult = new ClassGraph()
                 .enableAnnotationInfo()
                 .scan()) {
 
-            scanResult.getClassesImplementing(DTOConvertible.class.getName()).forEach(classInfo -> {
-                DTOConvertible.getCachedFields(classInfo.loadClass());
+            // DTOConvertible is an abstract class, not an interface: look for subclasses.
+            scanResult.getSubclasses(DTOConvertible.class.getName()).forEach(classInfo -> {
+                DTOConvertible.getCachedAccessors(classInfo.loadClass());
             });
         }
     }
@@ -202,6 +221,9 @@ public class FiberServer {
 
     public void setAuthService(AuthenticationService<?> authService) {
         this.authService = authService;
+        if (authService != null && invalidationBus != null) {
+            authService.setInvalidationBus(invalidationBus);
+        }
     }
 
     public AuthenticationService<?> getAuthService() {
@@ -369,6 +391,7 @@ public class FiberServer {
             }
         }
 
+        endpointRegistry.compileRoutes();
         ServletHolder holder = new ServletHolder(new RouterServlet(endpointRegistry));
         holder.getRegistration().setMultipartConfig(
                 new jakarta.servlet.MultipartConfigElement(
@@ -392,6 +415,19 @@ public class FiberServer {
         if (oauthClientService != null) {
             oauthClientService.shutdown();
         }
+        if (sessionService != null) {
+            sessionService.flushTouches();
+        }
+        if (invalidationBus != null) {
+            invalidationBus.close();
+        }
+        if (tokenRevocationStore != null) {
+            tokenRevocationStore.close();
+        }
+        if (rateLimitStore != null) {
+            rateLimitStore.close();
+            RateLimitInterceptor.setStore(null);
+        }
         sharedExecutor.shutdown();
         try {
             if (!sharedExecutor.awaitTermination(10, TimeUnit.SECONDS)) {
@@ -427,6 +463,9 @@ public class FiberServer {
 
     public void setSessionService(SessionService sessionService) {
         this.sessionService = sessionService;
+        if (sessionService != null && invalidationBus != null) {
+            sessionService.setInvalidationBus(invalidationBus);
+        }
     }
 
     public SessionService getSessionService() {
@@ -435,6 +474,9 @@ public class FiberServer {
 
     public void setUserOAuth2TokenService(UserOAuth2TokenService userOAuth2TokenService) {
         this.userOAuth2TokenService = userOAuth2TokenService;
+        if (userOAuth2TokenService != null && invalidationBus != null) {
+            userOAuth2TokenService.setInvalidationBus(invalidationBus);
+        }
     }
 
     public UserOAuth2TokenService getUserOAuth2TokenService() {
@@ -456,6 +498,102 @@ public class FiberServer {
         return this;
     }
 
+    /**
+     * Customize the JSON mapper shared by request bodies, responses and {@code JsonUtil}
+     * (modules, features, naming strategy). Call it during setup, before serving traffic.
+     */
+    public FiberServer configureObjectMapper(Consumer<? super FiberObjectMapper> customizer) {
+        FiberObjectMapper.configureShared(customizer);
+        return this;
+    }
+
+    /**
+     * Share cache invalidations (revoked sessions, evicted users, OAuth2 provider tokens)
+     * with other nodes, e.g. through a {@link sh.fyz.fiber.core.invalidation.PostgresInvalidationBus}.
+     * The session, auth and OAuth2 token services set before or after this call are wired
+     * to it; the bus is closed by {@link #stop()}.
+     */
+    public FiberServer setInvalidationBus(InvalidationBus bus) {
+        this.invalidationBus = bus;
+        if (bus != null) {
+            if (sessionService != null) {
+                sessionService.setInvalidationBus(bus);
+            }
+            if (authService != null) {
+                authService.setInvalidationBus(bus);
+            }
+            if (userOAuth2TokenService != null) {
+                userOAuth2TokenService.setInvalidationBus(bus);
+            }
+        }
+        return this;
+    }
+
+    public InvalidationBus getInvalidationBus() {
+        return invalidationBus;
+    }
+
+    /**
+     * Where revoked refresh tokens are recorded (default: in memory, this node only).
+     * Use a {@link sh.fyz.fiber.core.revocation.RepositoryTokenRevocationStore} when several nodes share sessions.
+     * Closed by {@link #stop()}.
+     */
+    public FiberServer setTokenRevocationStore(TokenRevocationStore store) {
+        this.tokenRevocationStore = store;
+        JwtUtil.setRevocationStore(store);
+        return this;
+    }
+
+    /**
+     * Where {@code @RateLimit} counters live (default: in memory, so each node grants the full
+     * quota). Use a {@link sh.fyz.fiber.core.security.ratelimit.PostgresRateLimitStore}, or its
+     * {@code batched(n)} hybrid mode, to share limits between nodes. Closed by {@link #stop()}.
+     */
+    public FiberServer setRateLimitStore(RateLimitStore store) {
+        this.rateLimitStore = store;
+        RateLimitInterceptor.setStore(store);
+        return this;
+    }
+
+    /**
+     * Cap concurrent requests with a limit that adapts to latency (default: none). Requests over
+     * the limit are answered {@code 503} with {@code Retry-After} before any work is done;
+     * {@code @LoadPriority} decides which endpoints are shed first.
+     *
+     * @param limiter e.g. {@code new AdaptiveConcurrencyLimiter()}, or {@code null} to disable
+     */
+    public FiberServer setConcurrencyLimiter(AdaptiveConcurrencyLimiter limiter) {
+        this.concurrencyLimiter = limiter;
+        return this;
+    }
+
+    public AdaptiveConcurrencyLimiter getConcurrencyLimiter() {
+        return concurrencyLimiter;
+    }
+
+    /**
+     * Largest {@code @RequestBody} JSON payload accepted, in bytes (default 10 MB).
+     * Larger bodies are rejected with 413 while streaming, before they are buffered.
+     */
+    public FiberServer setMaxJsonBodySize(long maxJsonBodySize) {
+        RequestBodyParameterHandler.setMaxBodySize(maxJsonBodySize);
+        return this;
+    }
+
+    /**
+     * Stream JSON bodies straight onto the response (chunked, no {@code Content-Length})
+     * instead of buffering them. Off by default; endpoints can opt in or out with
+     * {@link sh.fyz.fiber.annotations.request.StreamingResponse}.
+     */
+    public FiberServer setStreamingResponses(boolean streamingResponses) {
+        this.streamingResponses = streamingResponses;
+        return this;
+    }
+
+    public boolean isStreamingResponses() {
+        return streamingResponses;
+    }
+
     /**
      * Shared {@link ScheduledExecutorService} backed by virtual threads. Components that
      * need background scheduling (session expiration, OAuth code cleanup, upload purge)
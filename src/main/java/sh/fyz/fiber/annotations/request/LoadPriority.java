@@ -0,0 +1,43 @@
+package sh.fyz.fiber.annotations.request;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares how early an endpoint is shed when the server's concurrency limiter
+ * ({@code FiberServer#setConcurrencyLimiter}) is saturated.
+ *
+ * <p>Each level may use a share of the current limit: lower levels are turned away with
+ * 503 first, which keeps headroom for health checks and authentication. Endpoints without
+ * the annotation are {@link Level#NORMAL}. A method-level annotation wins over one placed
+ * on the controller.</p>
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface LoadPriority {
+    Level value();
+
+    enum Level {
+        /** Batch jobs, exports, anything that can be retried later: up to half the limit. */
+        LOW(0.5),
+        /** Regular traffic: up to 80% of the limit. */
+        NORMAL(0.8),
+        /** Important user-facing calls: up to 90% of the limit. */
+        HIGH(0.9),
+        /** Health checks, login, token refresh: the whole limit. */
+        CRITICAL(1.0);
+
+        private final double share;
+
+        Level(double share) {
+            this.share = share;
+        }
+
+        /** Fraction of the concurrency limit requests of this level may occupy. */
+        public double share() {
+            return share;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package sh.fyz.fiber.annotations.request;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Chooses how the JSON body of an endpoint is written, overriding
+ * {@code FiberServer#setStreamingResponses(boolean)}.
+ *
+ * <p>{@code true} serializes straight onto the servlet output stream (chunked, no
+ * {@code Content-Length}); {@code false} forces the buffered mode. A method-level
+ * annotation wins over one placed on the controller.</p>
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface StreamingResponse {
+    boolean value() default true;
+}
@@ -0,0 +1,132 @@
+package sh.fyz.fiber.core;
+
+import sh.fyz.fiber.annotations.request.LoadPriority;
+import sh.fyz.fiber.annotations.request.StreamingResponse;
+import sh.fyz.fiber.annotations.security.NoCSRF;
+import sh.fyz.fiber.annotations.security.NoCors;
+import sh.fyz.fiber.annotations.security.Permission;
+import sh.fyz.fiber.annotations.security.RequireRole;
+import sh.fyz.fiber.core.security.annotations.AuditLog;
+import sh.fyz.fiber.core.security.annotations.RateLimit;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Annotation metadata of one endpoint, resolved once at registration.
+ *
+ * <p>Method-level annotations win over the same annotation on the controller class for
+ * {@link RateLimit}, {@link RequireRole}, {@link Permission}, {@link StreamingResponse} and
+ * {@link LoadPriority}. Role and permission requirements are kept as immutable sets;
+ * {@code null} means "no such annotation", an empty set means "annotated with no value"
+ * (which denies everyone, as before).</p>
+ *
+ * <p>Consumed by {@code SecurityPipeline}, {@code RouterServlet} and the rate-limit,
+ * permission and audit processors so none of them reflect on the request path.</p>
+ */
+public final class EndpointDescriptor {
+
+    private final Method method;
+    private final RateLimit rateLimit;
+    private final String rateLimitBucket;
+    private final AuditLog auditLog;
+    private final Set<String> requiredRoles;
+    private final Set<String> requiredPermissions;
+    private final boolean noCors;
+    private final boolean noCsrf;
+    private final Boolean streaming;
+    private final LoadPriority.Level loadPriority;
+
+    private EndpointDescriptor(Method method) {
+        this.method = method;
+        Class<?> controller = method.getDeclaringClass();
+
+        RateLimit rl = method.getAnnotation(RateLimit.class);
+        this.rateLimit = rl != null ? rl : controller.getAnnotation(RateLimit.class);
+        this.rateLimitBucket = rateLimit == null ? null
+                : rateLimit.key().isEmpty() ? controller.getName() + ":" + method.getName() : rateLimit.key();
+
+        this.auditLog = method.getAnnotation(AuditLog.class);
+
+        RequireRole requireRole = method.getAnnotation(RequireRole.class);
+        if (requireRole == null) {
+            requireRole = controller.getAnnotation(RequireRole.class);
+        }
+        this.requiredRoles = requireRole != null ? Set.copyOf(Arrays.asList(requireRole.value())) : null;
+
+        Permission permission = method.getAnnotation(Permission.class);
+        if (permission == null) {
+            permission = controller.getAnnotation(Permission.class);
+        }
+        this.requiredPermissions = permission != null ? Set.copyOf(Arrays.asList(permission.value())) : null;
+
+        this.noCors = method.isAnnotationPresent(NoCors.class);
+        this.noCsrf = method.isAnnotationPresent(NoCSRF.class);
+
+        StreamingResponse streamingResponse = method.getAnnotation(StreamingResponse.class);
+        if (streamingResponse == null) {
+            streamingResponse = controller.getAnnotation(StreamingResponse.class);
+        }
+        this.streaming = streamingResponse != null ? streamingResponse.value() : null;
+
+        LoadPriority priority = method.getAnnotation(LoadPriority.class);
+        if (priority == null) {
+            priority = controller.getAnnotation(LoadPriority.class);
+        }
+        this.loadPriority = priority != null ? priority.value() : LoadPriority.Level.NORMAL;
+    }
+
+    public static EndpointDescriptor of(Method method) {
+        return new EndpointDescriptor(method);
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    /** @return the effective {@code @RateLimit} (method, else class), or {@code null}. */
+    public RateLimit getRateLimit() {
+        return rateLimit;
+    }
+
+    /** @return the bucket part of the rate-limit cache key ({@code key()} or {@code Class:method}). */
+    public String getRateLimitBucket() {
+        return rateLimitBucket;
+    }
+
+    public AuditLog getAuditLog() {
+        return auditLog;
+    }
+
+    /** @return the roles of the effective {@code @RequireRole}, or {@code null} if none applies. */
+    public Set<String> getRequiredRoles() {
+        return requiredRoles;
+    }
+
+    /** @return the permissions of the effective {@code @Permission}, or {@code null} if none applies. */
+    public Set<String> getRequiredPermissions() {
+        return requiredPermissions;
+    }
+
+    public boolean isNoCors() {
+        return noCors;
+    }
+
+    public boolean isNoCsrf() {
+        return noCsrf;
+    }
+
+    /** @return the effective {@code @LoadPriority} level, {@code NORMAL} if none applies. */
+    public LoadPriority.Level getLoadPriority() {
+        return loadPriority;
+    }
+
+    /**
+     * @param serverDefault the server-wide mode, used when no {@code @StreamingResponse} applies
+     * @return whether the JSON body should be streamed rather than buffered
+     */
+    public boolean isStreaming(boolean serverDefault) {
+        return streaming != null ? streaming : serverDefault;
+    }
+}
@@ -10,6 +10,7 @@ import sh.fyz.fiber.handler.EndpointHandler;
 import sh.fyz.fiber.middleware.Middleware;
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -21,14 +22,15 @@ public class EndpointRegistry {
 
     private final Map<String, EndpointHandler> endpoints;
     private final List<Middleware> globalMiddleware;
-    private final PathTrie<EndpointHandler> dynamicTrie;
+    private final List<RouteTable.Route> routes;
+    private volatile RouteTable routeTable;
     private String[] defaultRoles;
 
     public EndpointRegistry(List<Middleware> globalMiddleware) {
         this.endpoints = new ConcurrentHashMap<>();
         this.globalMiddleware = globalMiddleware;
         this.defaultRoles = new String[0];
-        this.dynamicTrie = new PathTrie<>();
+        this.routes = new ArrayList<>();
     }
 
     public void setDefaultRoles(String[] roles) {
@@ -63,15 +65,19 @@ public class EndpointRegistry {
         String[] requiredRoles = methodRole != null ? methodRole.value() : defaultRoles;
 
         String key = path + ":" + httpMethod;
-        EndpointHandler handler = new EndpointHandler(controllerInstance, method, globalMiddleware, requiredRoles);
-        EndpointHandler previous = endpoints.putIfAbsent(key, handler);
-        if (previous != null) {
-            logger.warn("Duplicate endpoint registration ignored: {} {}", httpMethod, path);
-            return;
-        }
-
-        if (path.contains("{") || path.contains("*")) {
-            dynamicTrie.add(path, httpMethod.name(), handler);
+        EndpointHandler handler = new EndpointHandler(controllerInstance, method, path, globalMiddleware, requiredRoles);
+        synchronized (routes) {
+            EndpointHandler previous = endpoints.putIfAbsent(key, handler);
+            if (previous != null) {
+                logger.warn("Duplicate endpoint registration ignored: {} {}", httpMethod, path);
+                return;
+            }
+            routes.add(new RouteTable.Route(path, httpMethod, handler));
+            // Late registrations (e.g. the challenge controller added on first use) must
+            // become visible to the running router, so republish the table.
+            if (routeTable != null) {
+                routeTable = new RouteTable(routes);
+            }
         }
 
         // Warn at registration if the endpoint is open (no role/permission/default roles).
@@ -89,8 +95,20 @@ public class EndpointRegistry {
         return Collections.unmodifiableMap(endpoints);
     }
 
-    /** Internal — accessor for the router's lookup. */
-    public PathTrie<EndpointHandler> getDynamicTrie() {
-        return dynamicTrie;
+    /**
+     * Build the immutable {@link RouteTable} from everything registered so far. Called by
+     * {@code FiberServer.start()}; endpoints registered afterwards trigger a rebuild.
+     */
+    public RouteTable compileRoutes() {
+        synchronized (routes) {
+            routeTable = new RouteTable(routes);
+            return routeTable;
+        }
+    }
+
+    /** Internal — accessor for the router's lookup. Compiles the table on first use. */
+    public RouteTable getRouteTable() {
+        RouteTable table = routeTable;
+        return table != null ? table : compileRoutes();
     }
 }
@@ -10,7 +10,7 @@ public class ErrorResponse {
     private final String uri;
     private final int status;
     private final String message;
-    private static final FiberObjectMapper objectMapper = new FiberObjectMapper();
+    private static final FiberObjectMapper objectMapper = FiberObjectMapper.shared();
 
     public ErrorResponse(String uri, int status, String message) {
         this.uri = uri;
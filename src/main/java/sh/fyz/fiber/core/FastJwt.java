@@ -0,0 +1,216 @@
+package sh.fyz.fiber.core;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.SignatureException;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * HS256 encoder/decoder specialised for Fiber's own access and refresh tokens
+ * ({@code id}, {@code ip}, {@code userAgent}, {@code type}, {@code sessionId}, {@code iat},
+ * {@code exp}).
+ *
+ * <p>Tokens are standard compact JWS with the header {@code {"alg":"HS256"}}, so jjwt
+ * parses them as well. Decoding compares the header segment to that constant, checks the
+ * HMAC with a per-thread {@link Mac}, and streams the payload straight into a {@link Token}
+ * with no intermediate map. Anything that does not have exactly that header and claim set
+ * is reported as foreign ({@code null}) and left to jjwt.</p>
+ */
+public final class FastJwt {
+
+    /** Claim set of a Fiber token; times are epoch milliseconds (JWT stores seconds). */
+    public record Token(Object id, String ip, String userAgent, String type, String sessionId,
+                        long issuedAtMillis, long expiresAtMillis) {
+
+        public boolean isExpired(long nowMillis) {
+            return nowMillis >= expiresAtMillis;
+        }
+
+        /** The same claims as jjwt would have produced for this token. */
+        public Claims toClaims() {
+            return Jwts.claims()
+                    .add("id", id)
+                    .add("ip", ip)
+                    .add("userAgent", userAgent)
+                    .add("type", type)
+                    .add("sessionId", sessionId)
+                    .issuedAt(new Date(issuedAtMillis))
+                    .expiration(new Date(expiresAtMillis))
+                    .build();
+        }
+    }
+
+    private static final String HEADER = Base64.getUrlEncoder().withoutPadding()
+            .encodeToString("{\"alg\":\"HS256\"}".getBytes(StandardCharsets.US_ASCII));
+    private static final int SIGNATURE_LENGTH = 32;
+
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final ThreadLocal<Mac> mac;
+
+    public FastJwt(byte[] key) {
+        SecretKeySpec spec = new SecretKeySpec(key, "HmacSHA256");
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac m = Mac.getInstance("HmacSHA256");
+                m.init(spec);
+                return m;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HmacSHA256 not available", e);
+            }
+        });
+    }
+
+    /** Whether {@link #encode} can represent {@code id} (otherwise use jjwt). */
+    public static boolean supportsId(Object id) {
+        return id instanceof Integer || id instanceof Long || id instanceof Short || id instanceof Byte
+                || id instanceof BigInteger || id instanceof String || id instanceof UUID;
+    }
+
+    /**
+     * @param id must satisfy {@link #supportsId}
+     */
+    public String encode(Object id, String ip, String userAgent, String type, String sessionId,
+                         long issuedAtMillis, long validityMillis) {
+        ByteArrayOutputStream json = new ByteArrayOutputStream(256);
+        try (JsonGenerator gen = JSON.createGenerator(json)) {
+            gen.writeStartObject();
+            if (id instanceof BigInteger big) {
+                gen.writeNumberField("id", big);
+            } else if (id instanceof Number number) {
+                gen.writeNumberField("id", number.longValue());
+            } else if (id != null) {
+                gen.writeStringField("id", id.toString());
+            }
+            writeOptional(gen, "ip", ip);
+            writeOptional(gen, "userAgent", userAgent);
+            writeOptional(gen, "type", type);
+            writeOptional(gen, "sessionId", sessionId);
+            gen.writeNumberField("iat", issuedAtMillis / 1000);
+            gen.writeNumberField("exp", (issuedAtMillis + validityMillis) / 1000);
+            gen.writeEndObject();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not encode JWT payload", e);
+        }
+
+        String signingInput = HEADER + '.' + ENCODER.encodeToString(json.toByteArray());
+        byte[] signature = mac.get().doFinal(signingInput.getBytes(StandardCharsets.US_ASCII));
+        return signingInput + '.' + ENCODER.encodeToString(signature);
+    }
+
+    private static void writeOptional(JsonGenerator gen, String name, String value) throws IOException {
+        if (value != null) {
+            gen.writeStringField(name, value);
+        }
+    }
+
+    /**
+     * Verify and decode a token produced by {@link #encode}.
+     *
+     * @return the claims, or {@code null} if the token is not in Fiber's fixed shape
+     *         (the caller should then use the general-purpose parser)
+     * @throws SignatureException if the token has Fiber's header but a wrong signature
+     */
+    public Token decode(String token) {
+        int firstDot = token.indexOf('.');
+        int secondDot = firstDot < 0 ? -1 : token.indexOf('.', firstDot + 1);
+        if (firstDot != HEADER.length() || secondDot < 0 || token.indexOf('.', secondDot + 1) >= 0
+                || !token.startsWith(HEADER)) {
+            return null;
+        }
+
+        byte[] signature = DECODER.decode(token.substring(secondDot + 1));
+        byte[] expected = mac.get().doFinal(token.substring(0, secondDot).getBytes(StandardCharsets.US_ASCII));
+        if (signature.length != SIGNATURE_LENGTH || !MessageDigest.isEqual(signature, expected)) {
+            throw new SignatureException("JWT signature does not match locally computed signature");
+        }
+
+        byte[] payload = DECODER.decode(token.substring(firstDot + 1, secondDot));
+        try {
+            return parsePayload(payload);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static Token parsePayload(byte[] payload) throws IOException {
+        Object id = null;
+        String ip = null;
+        String userAgent = null;
+        String type = null;
+        String sessionId = null;
+        long issuedAt = -1;
+        long expiresAt = -1;
+
+        try (JsonParser parser = JSON.createParser(payload)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "id" -> {
+                        if (value == JsonToken.VALUE_STRING) {
+                            id = parser.getText();
+                        } else if (value == JsonToken.VALUE_NUMBER_INT) {
+                            id = parser.getNumberValue();
+                        } else {
+                            return null;
+                        }
+                    }
+                    case "ip" -> ip = stringValue(parser, value);
+                    case "userAgent" -> userAgent = stringValue(parser, value);
+                    case "type" -> type = stringValue(parser, value);
+                    case "sessionId" -> sessionId = stringValue(parser, value);
+                    case "iat" -> issuedAt = secondsValue(parser, value);
+                    case "exp" -> expiresAt = secondsValue(parser, value);
+                    default -> {
+                        return null;
+                    }
+                }
+            }
+            if (parser.currentToken() != JsonToken.END_OBJECT || parser.nextToken() != null) {
+                return null;
+            }
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+
+        if (expiresAt < 0 || issuedAt < 0) {
+            return null;
+        }
+        return new Token(id, ip, userAgent, type, sessionId, issuedAt * 1000, expiresAt * 1000);
+    }
+
+    private static String stringValue(JsonParser parser, JsonToken value) throws IOException {
+        if (value != JsonToken.VALUE_STRING) {
+            throw new IllegalArgumentException("Unexpected claim type");
+        }
+        return parser.getText();
+    }
+
+    private static long secondsValue(JsonParser parser, JsonToken value) throws IOException {
+        if (value != JsonToken.VALUE_NUMBER_INT) {
+            throw new IllegalArgumentException("Unexpected claim type");
+        }
+        return parser.getLongValue();
+    }
+}
@@ -1,6 +1,7 @@
 package sh.fyz.fiber.core;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.SignatureAlgorithm;
@@ -9,6 +10,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import sh.fyz.fiber.FiberServer;
 import sh.fyz.fiber.core.authentication.entities.UserAuth;
+import sh.fyz.fiber.core.revocation.InMemoryTokenRevocationStore;
+import sh.fyz.fiber.core.revocation.TokenRevocationStore;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
@@ -16,7 +19,6 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 
@@ -30,9 +32,12 @@ public class JwtUtil {
 
     private static final AtomicReference<State> STATE = new AtomicReference<>();
 
-    private static final Set<String> REVOKED_REFRESH_TOKENS = java.util.concurrent.ConcurrentHashMap.newKeySet();
+    private static volatile TokenRevocationStore revocationStore = new InMemoryTokenRevocationStore();
 
-    private record State(SecretKey key, JwtParser parser, long tokenValidity, long refreshTokenValidity) {}
+    /** Access tokens already verified, so repeat requests skip signature checks and parsing. */
+    private static final VerifiedTokenCache VERIFIED_ACCESS_TOKENS = new VerifiedTokenCache(100_000);
+
+    private record State(SecretKey key, JwtParser parser, FastJwt fastJwt, long tokenValidity, long refreshTokenValidity) {}
 
     private static State ensureInitialized() {
         State existing = STATE.get();
@@ -51,7 +56,7 @@ public class JwtUtil {
             long refreshValidity = System.getenv("FIBER_REFRESH_TOKEN_VALIDITY") != null
                     ? Long.parseLong(System.getenv("FIBER_REFRESH_TOKEN_VALIDITY"))
                     : FiberServer.get().getConfig().getJwtRefreshTokenValidity();
-            State s = new State(key, parser, tokenValidity, refreshValidity);
+            State s = new State(key, parser, new FastJwt(key.getEncoded()), tokenValidity, refreshValidity);
             STATE.set(s);
             return s;
         }
@@ -63,6 +68,10 @@ public class JwtUtil {
 
     public static String generateToken(UserAuth userAuth, String ipAddress, String userAgent, String sessionId) {
         State s = ensureInitialized();
+        if (FastJwt.supportsId(userAuth.getId())) {
+            return s.fastJwt.encode(userAuth.getId(), ipAddress, userAgent, "access", sessionId,
+                    System.currentTimeMillis(), s.tokenValidity);
+        }
         Map<String, Object> claims = new HashMap<>();
         claims.put("id", userAuth.getId());
         claims.put("ip", ipAddress);
@@ -80,6 +89,10 @@ public class JwtUtil {
 
     public static String generateRefreshToken(UserAuth userAuth, String ipAddress, String userAgent, String sessionId) {
         State s = ensureInitialized();
+        if (FastJwt.supportsId(userAuth.getId())) {
+            return s.fastJwt.encode(userAuth.getId(), ipAddress, userAgent, "refresh", sessionId,
+                    System.currentTimeMillis(), s.refreshTokenValidity);
+        }
         Map<String, Object> claims = new HashMap<>();
         claims.put("id", userAuth.getId());
         claims.put("ip", ipAddress);
@@ -91,6 +104,11 @@ public class JwtUtil {
         return createToken(claims, s.refreshTokenValidity);
     }
 
+    /** Lifetime of access tokens in milliseconds. */
+    public static long getAccessTokenValidity() {
+        return ensureInitialized().tokenValidity;
+    }
+
     public static String createToken(Map<String, Object> claims, long validity) {
         State s = ensureInitialized();
         return Jwts.builder()
@@ -103,37 +121,55 @@ public class JwtUtil {
 
     public static Claims validateToken(String token, String ipAddress, String userAgent) {
         try {
-            Claims claims = extractAllClaims(token);
-            String tokenIp = claims.get("ip", String.class);
-            String tokenUserAgent = claims.get("userAgent", String.class);
-            String tokenType = claims.get("type", String.class);
+            VerifiedTokenCache.Entry verified = VERIFIED_ACCESS_TOKENS.get(token);
+            if (verified == null) {
+                Claims claims = extractAllClaims(token);
+                if (!"access".equals(claims.get("type", String.class))) {
+                    return null;
+                }
+                verified = VERIFIED_ACCESS_TOKENS.put(token, claims);
+            }
 
-            if (!"access".equals(tokenType) || isTokenExpired(claims)) {
+            if (verified.isExpired(System.currentTimeMillis())) {
                 return null;
             }
 
-            if (!Objects.equals(tokenUserAgent, userAgent)) {
+            // The binding checks run on every request, cached or not.
+            if (!Objects.equals(verified.userAgent(), userAgent)) {
                 return null;
             }
 
             // IP binding is strict in production, relaxed in development mode to support
             // local NAT / mobile networks where the client IP legitimately changes.
-            if (!isDevMode() && !Objects.equals(tokenIp, ipAddress)) {
+            if (!isDevMode() && !Objects.equals(verified.ip(), ipAddress)) {
                 return null;
             }
 
-            return claims;
+            return verified.claims();
         } catch (Exception e) {
             return null;
         }
     }
 
+    /**
+     * Forget cached verifications of access tokens bound to {@code sessionId}; called when
+     * the session is revoked so its tokens are fully re-checked on their next use.
+     */
+    public static void evictSessionTokens(String sessionId) {
+        VERIFIED_ACCESS_TOKENS.invalidateSession(sessionId);
+    }
+
+    /** Visible for testing. */
+    public static void clearVerifiedTokens() {
+        VERIFIED_ACCESS_TOKENS.invalidateAll();
+    }
+
     public static boolean validateRefreshToken(String token, String ipAddress, String userAgent) {
         try {
-            if (REVOKED_REFRESH_TOKENS.contains(token)) {
+            Claims claims = extractAllClaims(token);
+            if (revocationStore.isRevoked(tokenId(token, claims))) {
                 return false;
             }
-            Claims claims = extractAllClaims(token);
             String tokenIp = claims.get("ip", String.class);
             String tokenUserAgent = claims.get("userAgent", String.class);
             String tokenType = claims.get("type", String.class);
@@ -159,21 +195,56 @@ public class JwtUtil {
     /**
      * Mark a refresh token as revoked. Subsequent calls to
      * {@link #validateRefreshToken(String, String, String)} will return {@code false}.
-     * The in-memory set is bounded by the refresh TTL — callers may prune periodically.
+     * The revocation is kept until the token's own expiry; tokens that are already invalid
+     * or expired are ignored since they can no longer be used.
      */
     public static void revokeRefreshToken(String token) {
-        if (token != null && !token.isBlank()) {
-            REVOKED_REFRESH_TOKENS.add(token);
+        if (token == null || token.isBlank()) {
+            return;
         }
+        Claims claims;
+        try {
+            claims = extractAllClaims(token);
+        } catch (Exception e) {
+            return;
+        }
+        revocationStore.revoke(tokenId(token, claims), claims.getExpiration().getTime());
     }
 
     /** Visible for testing. */
     public static void clearRevokedRefreshTokens() {
-        REVOKED_REFRESH_TOKENS.clear();
+        revocationStore.clear();
+    }
+
+    public static void setRevocationStore(TokenRevocationStore store) {
+        revocationStore = Objects.requireNonNull(store, "store");
     }
 
+    public static TokenRevocationStore getRevocationStore() {
+        return revocationStore;
+    }
+
+    /** {@code jti} when the token has one, otherwise a digest of the token. */
+    private static String tokenId(String token, Claims claims) {
+        String jti = claims.getId();
+        return jti != null ? jti : TokenRevocationStore.digest(token);
+    }
+
+    /**
+     * Fiber-issued tokens go through {@link FastJwt}; anything else (custom claims from
+     * {@link #createToken}, other issuers' shapes) through jjwt. Both reject bad signatures
+     * and expired tokens by throwing.
+     */
     private static Claims extractAllClaims(String token) {
         State s = ensureInitialized();
+        FastJwt.Token fast = s.fastJwt.decode(token);
+        if (fast != null) {
+            Claims claims = fast.toClaims();
+            if (fast.isExpired(System.currentTimeMillis())) {
+                throw new ExpiredJwtException(null, claims, "JWT expired");
+            }
+            return claims;
+        }
         return s.parser.parseSignedClaims(token).getPayload();
     }
 
@@ -1,7 +1,6 @@
 package sh.fyz.fiber.core;
 
-import java.util.HashMap;
-import java.util.Map;
+import sh.fyz.fiber.annotations.request.RequestMapping;
 
 /**
  * Path-segment trie used by the router for dynamic routes (those containing
@@ -15,29 +14,126 @@ import java.util.Map;
  *     <li><b>wildcard</b> — {@code *} matches the rest of the path (greedy)</li>
  * </ul>
  *
- * <p>The trie stores values keyed by HTTP method, so lookup is method-aware.
- * Static routes (no {@code {} or *}) should be kept in the existing flat
- * {@code ConcurrentHashMap} for O(1) lookup; only dynamic routes are added here.
+ * <p>The trie stores values per HTTP method in an array indexed by
+ * {@link RequestMapping.Method} ordinal, so lookup is
+ * method-aware without hashing the method string.
+ *
+ * <p>Lookup walks the raw request path by character offsets: segments are never
+ * materialised as strings, literal children are found through a small open-addressing
+ * table keyed by a {@link String#hashCode()}-compatible hash of the path region and
+ * confirmed with {@link String#regionMatches(int, String, int, int)}, and parameter
+ * captures are reported as offsets. Static routes (no {@code {} or *}) should be kept in
+ * the {@link RouteTable}'s flat map for O(1) lookup; only dynamic routes are added here.
+ *
+ * <p>{@link #add} is synchronized, but lookups are not: build the trie fully before
+ * publishing it to request threads (as {@link RouteTable} does).
  */
 public class PathTrie<V> {
 
+    private static final int METHOD_COUNT = RequestMapping.Method.values().length;
+
     private static final class Node<V> {
-        Map<String, Node<V>> literalChildren;
+        LiteralTable<V> literalChildren;
         Node<V> paramChild;
         String paramName;
         Node<V> wildcardChild;
-        Map<String, V> values;
+        Object[] values;
+        /** Bit {@code i} set when {@code values[i]} is non-null. */
+        int methodMask;
+
+        @SuppressWarnings("unchecked")
+        V value(int methodIndex) {
+            return values == null ? null : (V) values[methodIndex];
+        }
+    }
+
+    /**
+     * Open-addressing map from literal segment to child node. Tries are tiny and
+     * read-mostly, so linear probing at &le; 50% load beats {@code HashMap} and, more
+     * importantly, can be probed with a region of the request path instead of a key.
+     */
+    private static final class LiteralTable<V> {
+        String[] keys = new String[4];
+        int[] hashes = new int[4];
+        Object[] children = new Object[4];
+        int size;
+
+        @SuppressWarnings("unchecked")
+        Node<V> get(String path, int start, int length, int hash) {
+            int mask = keys.length - 1;
+            for (int i = spread(hash) & mask; ; i = (i + 1) & mask) {
+                String key = keys[i];
+                if (key == null) {
+                    return null;
+                }
+                if (hashes[i] == hash && key.length() == length && path.regionMatches(start, key, 0, length)) {
+                    return (Node<V>) children[i];
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        Node<V> getOrCreate(String key) {
+            Node<V> existing = get(key, 0, key.length(), key.hashCode());
+            if (existing != null) {
+                return existing;
+            }
+            if ((size + 1) * 2 > keys.length) {
+                resize();
+            }
+            Node<V> node = new Node<>();
+            insert(key, key.hashCode(), node);
+            size++;
+            return node;
+        }
+
+        private void insert(String key, int hash, Object child) {
+            int mask = keys.length - 1;
+            int i = spread(hash) & mask;
+            while (keys[i] != null) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            hashes[i] = hash;
+            children[i] = child;
+        }
+
+        private void resize() {
+            String[] oldKeys = keys;
+            int[] oldHashes = hashes;
+            Object[] oldChildren = children;
+            keys = new String[oldKeys.length * 2];
+            hashes = new int[oldKeys.length * 2];
+            children = new Object[oldKeys.length * 2];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != null) {
+                    insert(oldKeys[i], oldHashes[i], oldChildren[i]);
+                }
+            }
+        }
+
+        private static int spread(int h) {
+            return h ^ (h >>> 16);
+        }
     }
 
     private final Node<V> root = new Node<>();
+    private int maxParams;
 
     /**
      * Add a route. {@code path} is the registered pattern (with leading "/"), and
      * {@code httpMethod} is e.g. {@code "GET"}. Existing entries with the same key
      * are silently replaced.
+     *
+     * @throws IllegalArgumentException if {@code httpMethod} is not a routable method
      */
     public synchronized void add(String path, String httpMethod, V value) {
+        int methodIndex = RouteTable.methodIndex(httpMethod);
+        if (methodIndex < 0) {
+            throw new IllegalArgumentException("Unsupported HTTP method: " + httpMethod);
+        }
         Node<V> node = root;
+        int params = 0;
         for (String segment : split(path)) {
             if (segment.equals("*")) {
                 if (node.wildcardChild == null) {
@@ -50,17 +146,28 @@ public class PathTrie<V> {
                     node.paramName = segment.substring(1, segment.length() - 1);
                 }
                 node = node.paramChild;
+                params++;
             } else {
                 if (node.literalChildren == null) {
-                    node.literalChildren = new HashMap<>();
+                    node.literalChildren = new LiteralTable<>();
                 }
-                node = node.literalChildren.computeIfAbsent(segment, k -> new Node<>());
+                node = node.literalChildren.getOrCreate(segment);
             }
         }
         if (node.values == null) {
-            node.values = new HashMap<>();
+            node.values = new Object[METHOD_COUNT];
         }
-        node.values.put(httpMethod, value);
+        node.values[methodIndex] = value;
+        node.methodMask |= 1 << methodIndex;
+        maxParams = Math.max(maxParams, params);
+    }
+
+    /**
+     * @return the largest number of {@code {param}} segments of any registered route,
+     *         i.e. the number of capture slots {@link #find(String, int, int[])} may fill.
+     */
+    public int getMaxParams() {
+        return maxParams;
     }
 
     /**
@@ -69,36 +176,136 @@ public class PathTrie<V> {
      * matches.
      */
     public V find(String path, String httpMethod) {
-        return find(root, split(path), 0, httpMethod);
+        return find(path, httpMethod, new String[maxParams]);
     }
 
-    private V find(Node<V> node, String[] segments, int idx, String httpMethod) {
-        if (idx == segments.length) {
-            if (node.values != null) {
-                return node.values.get(httpMethod);
+    /**
+     * Same as {@link #find(String, String)}, but also records the segments matched by
+     * {@code {param}} nodes into {@code captures}, in path order. {@code captures} must be
+     * at least {@link #getMaxParams()} long; slots past the matched route's parameter
+     * count are left in an unspecified state.
+     */
+    public V find(String path, String httpMethod, String[] captures) {
+        int[] offsets = new int[captures.length * 2];
+        V hit = find(path, RouteTable.methodIndex(httpMethod), offsets);
+        if (hit != null) {
+            for (int i = 0; i < captures.length; i++) {
+                if (offsets[2 * i + 1] > offsets[2 * i]) {
+                    captures[i] = path.substring(offsets[2 * i], offsets[2 * i + 1]);
+                }
             }
+        }
+        return hit;
+    }
+
+    /**
+     * Allocation-free lookup used by the router.
+     *
+     * @param methodIndex    {@code RequestMapping.Method} ordinal, see {@link RouteTable#methodIndex(String)}
+     * @param captureOffsets receives {@code [start, end)} offsets into {@code path} for each
+     *                       captured {@code {param}} segment, in path order; must be at least
+     *                       {@code 2 * getMaxParams()} long
+     * @return the value, or {@code null} if nothing matches
+     */
+    public V find(String path, int methodIndex, int[] captureOffsets) {
+        if (methodIndex < 0 || path == null) {
             return null;
         }
-        String segment = segments[idx];
+        int start = path.startsWith("/") ? 1 : 0;
+        int end = path.length();
+        if (end > start && path.charAt(end - 1) == '/') {
+            end--;
+        }
+        // pos == end + 1 means "every segment consumed"; an empty path has no segments.
+        int pos = start >= end ? end + 1 : start;
+        return find(root, path, pos, end, 0, methodIndex, captureOffsets);
+    }
+
+    private V find(Node<V> node, String path, int pos, int end, int paramIdx, int methodIndex, int[] captures) {
+        if (pos > end) {
+            return node.value(methodIndex);
+        }
+
+        int hash = 0;
+        int segEnd = pos;
+        while (segEnd < end) {
+            char c = path.charAt(segEnd);
+            if (c == '/') break;
+            hash = 31 * hash + c;
+            segEnd++;
+        }
+        int next = segEnd + 1;
 
         if (node.literalChildren != null) {
-            Node<V> child = node.literalChildren.get(segment);
+            Node<V> child = node.literalChildren.get(path, pos, segEnd - pos, hash);
             if (child != null) {
-                V hit = find(child, segments, idx + 1, httpMethod);
+                V hit = find(child, path, next, end, paramIdx, methodIndex, captures);
                 if (hit != null) return hit;
             }
         }
-        if (node.paramChild != null) {
-            V hit = find(node.paramChild, segments, idx + 1, httpMethod);
+        if (node.paramChild != null && segEnd > pos) {
+            captures[2 * paramIdx] = pos;
+            captures[2 * paramIdx + 1] = segEnd;
+            V hit = find(node.paramChild, path, next, end, paramIdx + 1, methodIndex, captures);
             if (hit != null) return hit;
         }
-        if (node.wildcardChild != null && node.wildcardChild.values != null) {
-            V hit = node.wildcardChild.values.get(httpMethod);
+        if (node.wildcardChild != null) {
+            V hit = node.wildcardChild.value(methodIndex);
             if (hit != null) return hit;
         }
         return null;
     }
 
+    /**
+     * Methods registered for any route matching {@code path}, as a bitmask of
+     * {@link RequestMapping.Method} ordinals. Unlike {@link #find}, every matching branch is
+     * visited, so this is meant for the miss path (405 detection), not per-request use.
+     *
+     * @return {@code 0} if no route matches {@code path} whatever the method
+     */
+    public int allowedMethods(String path) {
+        if (path == null) {
+            return 0;
+        }
+        int start = path.startsWith("/") ? 1 : 0;
+        int end = path.length();
+        if (end > start && path.charAt(end - 1) == '/') {
+            end--;
+        }
+        int pos = start >= end ? end + 1 : start;
+        return allowedMethods(root, path, pos, end);
+    }
+
+    private int allowedMethods(Node<V> node, String path, int pos, int end) {
+        if (pos > end) {
+            return node.methodMask;
+        }
+        int hash = 0;
+        int segEnd = pos;
+        while (segEnd < end) {
+            char c = path.charAt(segEnd);
+            if (c == '/') break;
+            hash = 31 * hash + c;
+            segEnd++;
+        }
+        int next = segEnd + 1;
+
+        int mask = 0;
+        if (node.literalChildren != null) {
+            Node<V> child = node.literalChildren.get(path, pos, segEnd - pos, hash);
+            if (child != null) {
+                mask |= allowedMethods(child, path, next, end);
+            }
+        }
+        if (node.paramChild != null && segEnd > pos) {
+            mask |= allowedMethods(node.paramChild, path, next, end);
+        }
+        if (node.wildcardChild != null) {
+            mask |= node.wildcardChild.methodMask;
+        }
+        return mask;
+    }
+
     private static String[] split(String path) {
         if (path == null || path.isEmpty() || path.equals("/")) return new String[0];
         String stripped = path.startsWith("/") ? path.substring(1) : path;
@@ -106,6 +313,6 @@ public class PathTrie<V> {
             stripped = stripped.substring(0, stripped.length() - 1);
         }
         if (stripped.isEmpty()) return new String[0];
-        return stripped.split("/");
+        return stripped.split("/", -1);
     }
 }
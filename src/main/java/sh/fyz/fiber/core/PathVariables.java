@@ -0,0 +1,79 @@
+package sh.fyz.fiber.core;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Path variables captured by the router for a single request.
+ *
+ * <p>Names come from the matched route pattern (shared, computed once at registration)
+ * and values are the raw URI segments captured during route resolution, in declaration
+ * order. Lookup by name is a linear scan — routes rarely declare more than a handful of
+ * variables, so this beats hashing.</p>
+ */
+public final class PathVariables {
+
+    private static final String[] EMPTY_VALUES = new String[0];
+
+    public static final PathVariables EMPTY = new PathVariables(EMPTY_VALUES, EMPTY_VALUES);
+
+    private final String[] names;
+    private final String[] values;
+
+    /**
+     * @param names  variable names of the matched route, in declaration order
+     * @param values captured values; must be at least {@code names.length} long
+     */
+    public PathVariables(String[] names, String[] values) {
+        this.names = names;
+        this.values = values;
+    }
+
+    /** @return the captured value for {@code name}, or {@code null} if the route does not declare it. */
+    public String get(String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return values[i];
+            }
+        }
+        return null;
+    }
+
+    public boolean contains(String name) {
+        for (String n : names) {
+            if (n.equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    public String getName(int index) {
+        return names[index];
+    }
+
+    public String getValue(int index) {
+        return values[index];
+    }
+
+    public Map<String, String> asMap() {
+        if (names.length == 0) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> map = new LinkedHashMap<>(names.length * 2);
+        for (int i = 0; i < names.length; i++) {
+            map.put(names[i], values[i]);
+        }
+        return map;
+    }
+
+    @Override
+    public String toString() {
+        return asMap().toString();
+    }
+}
@@ -4,13 +4,15 @@ import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import sh.fyz.fiber.core.dto.DTOConvertible;
 import sh.fyz.fiber.util.FiberObjectMapper;
+import sh.fyz.fiber.util.JsonBodyWriter;
+import sh.fyz.fiber.util.JsonCodec;
 import sh.fyz.fiber.util.JsonUtil;
 
 import java.io.IOException;
 import java.util.*;
 
 public class ResponseEntity<T> {
-    private static final FiberObjectMapper MAPPER = new FiberObjectMapper();
+    private static final FiberObjectMapper MAPPER = FiberObjectMapper.shared();
 
     private final T body;
     private final Map<String, String> headers;
@@ -104,6 +106,24 @@ public class ResponseEntity<T> {
     }
 
     public void write(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        write(request, response, false);
+    }
+
+    /**
+     * @param streaming write the JSON body through a generator on the output stream
+     *                  (chunked) instead of buffering it; raw {@code byte[]} bodies are
+     *                  always written as-is
+     */
+    public void write(HttpServletRequest request, HttpServletResponse response, boolean streaming) throws IOException {
+        write(request, response, streaming, JsonCodec.UNTYPED);
+    }
+
+    /**
+     * @param codec prebuilt writers for the endpoint's declared body type; bodies of
+     *              another type (e.g. wrapped {@code String} messages) fall back to
+     *              runtime typing
+     */
+    public void write(HttpServletRequest request, HttpServletResponse response, boolean streaming, JsonCodec codec) throws IOException {
         if (response.isCommitted()) {
             return;
         }
@@ -131,12 +151,10 @@ public class ResponseEntity<T> {
                 responseBody.put("message", body);
                 serializable = responseBody;
             } else {
-                serializable = prepareForSerialization(body);
+                // DTOConvertible values are handled by FiberObjectMapper's DTOSerializer.
+                serializable = body;
             }
-            byte[] json = MAPPER.writeValueAsBytes(serializable);
-            response.setContentLength(json.length);
-            response.getOutputStream().write(json);
-            response.getOutputStream().flush();
+            JsonBodyWriter.write(response, serializable, streaming, codec);
         } catch (Exception e) {
             if (!response.isCommitted()) {
                 response.setStatus(500);
@@ -152,6 +170,11 @@ public class ResponseEntity<T> {
         }
     }
 
+    /**
+     * Eagerly converts {@link DTOConvertible} values (recursively through maps, collections
+     * and arrays) into plain maps. Responses no longer need this: {@link FiberObjectMapper}
+     * serializes {@code DTOConvertible} directly. Kept for callers using other mappers.
+     */
     @SuppressWarnings("unchecked")
     public static Object prepareForSerialization(Object value) {
         if (value == null) return null;
@@ -0,0 +1,212 @@
+package sh.fyz.fiber.core;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import sh.fyz.fiber.annotations.request.RequestMapping;
+import sh.fyz.fiber.handler.EndpointHandler;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Immutable, precompiled view of every registered route, built by
+ * {@link EndpointRegistry#compileRoutes()} when the server starts.
+ *
+ * <p>Resolution is a single pass with no {@code java.util.regex} involvement and no
+ * per-request key building:
+ * <ul>
+ *     <li><b>static routes</b> — one {@code HashMap} lookup on the raw request URI, then an
+ *     array index by {@link RequestMapping.Method} ordinal;</li>
+ *     <li><b>dynamic routes</b> — an allocation-free {@link PathTrie} walk that records
+ *     {@code {param}} segment offsets while it descends.</li>
+ * </ul>
+ * Captured values are handed to the endpoint as {@link PathVariables}.</p>
+ *
+ * <p>Misses are classified as {@link Status#NOT_FOUND} or, when the path is routed for
+ * other methods, {@link Status#METHOD_NOT_ALLOWED} with a ready-made {@code Allow} header.
+ * Missed URIs are remembered in a bounded negative cache, checked before the trie, so
+ * repeated probes (scanners, bots) skip both trie walks entirely.</p>
+ */
+public final class RouteTable {
+
+    private static final int METHOD_COUNT = RequestMapping.Method.values().length;
+    private static final int[] NO_OFFSETS = new int[0];
+
+    /** Misses remembered per table; bounded so random URIs cannot grow it without limit. */
+    private static final int MISS_CACHE_SIZE = 10_000;
+    /** Longer URIs are resolved but never cached, keeping the negative cache's footprint small. */
+    private static final int MAX_CACHED_URI_LENGTH = 512;
+
+    /** {@code Allow} header value for every possible method bitmask, computed once. */
+    private static final String[] ALLOW_HEADERS = buildAllowHeaders();
+
+    private static final Match NOT_FOUND = new Match(Status.NOT_FOUND, null, PathVariables.EMPTY, null);
+
+    private final Map<String, StaticRoute> staticRoutes;
+    private final PathTrie<EndpointHandler> dynamicRoutes;
+    private final int maxPathVariables;
+    private final Cache<String, Integer> misses;
+
+    public enum Status {
+        FOUND,
+        METHOD_NOT_ALLOWED,
+        NOT_FOUND
+    }
+
+    /**
+     * Outcome of {@link #resolve}. {@code handler} and {@code pathVariables} are only
+     * meaningful for {@link Status#FOUND}; {@code allow} only for
+     * {@link Status#METHOD_NOT_ALLOWED}.
+     */
+    public record Match(Status status, EndpointHandler handler, PathVariables pathVariables, String allow) {
+        public boolean found() {
+            return status == Status.FOUND;
+        }
+    }
+
+    /** One registered route as seen by the registry. */
+    public record Route(String path, RequestMapping.Method method, EndpointHandler handler) {}
+
+    /** Handlers of one static path by method ordinal, plus every method routable for that path. */
+    private record StaticRoute(EndpointHandler[] handlers, int allowMask) {}
+
+    public RouteTable(List<Route> routes) {
+        Map<String, EndpointHandler[]> statics = new HashMap<>();
+        PathTrie<EndpointHandler> trie = new PathTrie<>();
+        for (Route route : routes) {
+            if (isDynamic(route.path())) {
+                trie.add(route.path(), route.method().name(), route.handler());
+            } else {
+                EndpointHandler[] byMethod = statics.computeIfAbsent(route.path(), k -> new EndpointHandler[METHOD_COUNT]);
+                if (byMethod[route.method().ordinal()] == null) {
+                    byMethod[route.method().ordinal()] = route.handler();
+                }
+            }
+        }
+
+        // A static path may also be served by dynamic routes for other methods
+        // (GET /users/me next to DELETE /users/{id}); fold those into its Allow set now.
+        Map<String, StaticRoute> compiled = new HashMap<>();
+        statics.forEach((path, byMethod) -> {
+            int mask = trie.allowedMethods(path);
+            for (int i = 0; i < byMethod.length; i++) {
+                if (byMethod[i] != null) {
+                    mask |= 1 << i;
+                }
+            }
+            compiled.put(path, new StaticRoute(byMethod, mask));
+        });
+
+        this.staticRoutes = Map.copyOf(compiled);
+        this.dynamicRoutes = trie;
+        this.maxPathVariables = trie.getMaxParams();
+        this.misses = Caffeine.newBuilder()
+                .maximumSize(MISS_CACHE_SIZE)
+                .build();
+    }
+
+    public static boolean isDynamic(String path) {
+        return path.indexOf('{') >= 0 || path.indexOf('*') >= 0;
+    }
+
+    /**
+     * Resolve {@code requestUri} + {@code httpMethod}. Static routes win over dynamic ones,
+     * mirroring {@link PathTrie}'s literal-over-parameter preference.
+     *
+     * @return the match; never {@code null}, check {@link Match#status()}.
+     */
+    public Match resolve(String requestUri, String httpMethod) {
+        int methodIndex = methodIndex(httpMethod);
+
+        StaticRoute staticRoute = staticRoutes.get(requestUri);
+        if (staticRoute != null && methodIndex >= 0 && staticRoute.handlers()[methodIndex] != null) {
+            return new Match(Status.FOUND, staticRoute.handlers()[methodIndex], PathVariables.EMPTY, null);
+        }
+
+        // URIs too long to be cached cannot be known misses; skip the lookup for them.
+        boolean cacheable = requestUri.length() <= MAX_CACHED_URI_LENGTH;
+        if (cacheable) {
+            Integer knownMiss = misses.getIfPresent(requestUri);
+            if (knownMiss != null && (methodIndex < 0 || (knownMiss & (1 << methodIndex)) == 0)) {
+                return miss(knownMiss);
+            }
+        }
+
+        if (methodIndex >= 0) {
+            int[] offsets = maxPathVariables == 0 ? NO_OFFSETS : new int[maxPathVariables * 2];
+            EndpointHandler handler = dynamicRoutes.find(requestUri, methodIndex, offsets);
+            if (handler != null) {
+                return new Match(Status.FOUND, handler, pathVariables(handler, requestUri, offsets), null);
+            }
+        }
+
+        int allowMask = staticRoute != null ? staticRoute.allowMask() : dynamicRoutes.allowedMethods(requestUri);
+        if (cacheable) {
+            misses.put(requestUri, allowMask);
+        }
+        return miss(allowMask);
+    }
+
+    private static PathVariables pathVariables(EndpointHandler handler, String requestUri, int[] offsets) {
+        String[] names = handler.getPathVariableNames();
+        if (names.length == 0) {
+            return PathVariables.EMPTY;
+        }
+        // Only the matched route's variables are materialised, once, after the walk.
+        String[] values = new String[names.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = requestUri.substring(offsets[2 * i], offsets[2 * i + 1]);
+        }
+        return new PathVariables(names, values);
+    }
+
+    private static Match miss(int allowMask) {
+        if (allowMask == 0) {
+            return NOT_FOUND;
+        }
+        return new Match(Status.METHOD_NOT_ALLOWED, null, PathVariables.EMPTY, ALLOW_HEADERS[allowMask]);
+    }
+
+    private static String[] buildAllowHeaders() {
+        RequestMapping.Method[] methods = RequestMapping.Method.values();
+        String[] headers = new String[1 << methods.length];
+        for (int mask = 1; mask < headers.length; mask++) {
+            StringJoiner joiner = new StringJoiner(", ");
+            for (RequestMapping.Method method : methods) {
+                if ((mask & (1 << method.ordinal())) != 0) {
+                    joiner.add(method.name());
+                }
+            }
+            // Preflight is answered by the router for every path, registered or not.
+            if ((mask & (1 << RequestMapping.Method.OPTIONS.ordinal())) == 0) {
+                joiner.add(RequestMapping.Method.OPTIONS.name());
+            }
+            headers[mask] = joiner.toString();
+        }
+        return headers;
+    }
+
+    /**
+     * Map an HTTP method token to its {@link RequestMapping.Method} ordinal without
+     * going through {@code Enum.valueOf} (which throws on unknown verbs).
+     *
+     * @return the ordinal, or {@code -1} for methods Fiber cannot route (TRACE, CONNECT, ...).
+     */
+    public static int methodIndex(String httpMethod) {
+        if (httpMethod == null) {
+            return -1;
+        }
+        return switch (httpMethod) {
+            case "GET" -> RequestMapping.Method.GET.ordinal();
+            case "POST" -> RequestMapping.Method.POST.ordinal();
+            case "PUT" -> RequestMapping.Method.PUT.ordinal();
+            case "DELETE" -> RequestMapping.Method.DELETE.ordinal();
+            case "PATCH" -> RequestMapping.Method.PATCH.ordinal();
+            case "HEAD" -> RequestMapping.Method.HEAD.ordinal();
+            case "OPTIONS" -> RequestMapping.Method.OPTIONS.ordinal();
+            default -> -1;
+        };
+    }
+}
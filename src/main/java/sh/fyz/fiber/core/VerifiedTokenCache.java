@@ -0,0 +1,153 @@
+package sh.fyz.fiber.core;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.jsonwebtoken.Claims;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded cache of access tokens whose signature has already been verified, so repeated
+ * requests with the same token skip HMAC verification and claims parsing.
+ *
+ * <p>Entries are keyed by a 128-bit prefix of the token's SHA-256 (the token string itself
+ * is not retained) and expire at the token's own {@code exp}. Only verification is cached:
+ * callers still check the IP / User-Agent binding against the entry on every hit. Entries
+ * of a revoked session are dropped through {@link #invalidateSession(String)}, which looks
+ * them up in a session id index maintained alongside the cache.</p>
+ */
+public final class VerifiedTokenCache {
+
+    /** Claims of a verified token, with the fields checked on every request pulled out once. */
+    public record Entry(Claims claims, String ip, String userAgent, String sessionId, long expiresAtMillis) {
+        public boolean isExpired(long nowMillis) {
+            return nowMillis >= expiresAtMillis;
+        }
+    }
+
+    private record TokenKey(long high, long low) {}
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private final Cache<TokenKey, Entry> cache;
+    // Session id -> keys of its cached tokens. The sets are only touched inside compute /
+    // remove on their session id, so they need no locking of their own.
+    private final Map<String, Set<TokenKey>> bySession = new ConcurrentHashMap<>();
+
+    public VerifiedTokenCache(long maximumSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<TokenKey, Entry>() {
+                    @Override
+                    public long expireAfterCreate(TokenKey key, Entry entry, long currentTime) {
+                        long remaining = entry.expiresAtMillis() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remaining));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(TokenKey key, Entry entry, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, entry, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(TokenKey key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .evictionListener((TokenKey key, Entry entry, RemovalCause cause) -> {
+                    if (key != null && entry != null) {
+                        unindex(entry.sessionId(), key);
+                    }
+                })
+                .build();
+    }
+
+    /** @return the verified entry for {@code token}, or {@code null} if it must be parsed. */
+    public Entry get(String token) {
+        Entry entry = cache.getIfPresent(key(token));
+        if (entry != null && entry.isExpired(System.currentTimeMillis())) {
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * Remember {@code claims} as the verified content of {@code token}. Only call this
+     * after the signature has been checked. Tokens without {@code exp} are not cached.
+     *
+     * @return the entry describing {@code claims}
+     */
+    public Entry put(String token, Claims claims) {
+        Date expiration = claims.getExpiration();
+        Entry entry = new Entry(claims,
+                claims.get("ip", String.class),
+                claims.get("userAgent", String.class),
+                claims.get("sessionId", String.class),
+                expiration != null ? expiration.getTime() : Long.MIN_VALUE);
+        if (expiration != null && !entry.isExpired(System.currentTimeMillis())) {
+            TokenKey key = key(token);
+            cache.put(key, entry);
+            if (entry.sessionId() != null) {
+                bySession.compute(entry.sessionId(), (id, keys) -> {
+                    Set<TokenKey> set = keys != null ? keys : new HashSet<>();
+                    set.add(key);
+                    return set;
+                });
+            }
+        }
+        return entry;
+    }
+
+    /** Drop every cached token bound to {@code sessionId}; proportional to that session's tokens. */
+    public void invalidateSession(String sessionId) {
+        if (sessionId == null) {
+            return;
+        }
+        Set<TokenKey> keys = bySession.remove(sessionId);
+        if (keys != null) {
+            cache.invalidateAll(keys);
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+        bySession.clear();
+    }
+
+    private void unindex(String sessionId, TokenKey key) {
+        if (sessionId == null) {
+            return;
+        }
+        bySession.computeIfPresent(sessionId, (id, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    private static TokenKey key(String token) {
+        byte[] digest = SHA_256.get().digest(token.getBytes(StandardCharsets.UTF_8));
+        ByteBuffer buffer = ByteBuffer.wrap(digest);
+        return new TokenKey(buffer.getLong(), buffer.getLong());
+    }
+}
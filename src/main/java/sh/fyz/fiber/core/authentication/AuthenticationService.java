@@ -1,5 +1,7 @@
 package sh.fyz.fiber.core.authentication;
 
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import jakarta.servlet.http.HttpServletRequest;
@@ -10,22 +12,40 @@ import sh.fyz.fiber.core.JwtUtil;
 import sh.fyz.fiber.core.authentication.entities.UserAuth;
 import java.util.EnumSet;
 import sh.fyz.fiber.core.authentication.entities.UserFieldUtil;
+import sh.fyz.fiber.core.invalidation.InvalidationBus;
 import sh.fyz.fiber.core.session.FiberSession;
 import sh.fyz.fiber.core.session.SessionContext;
 import sh.fyz.fiber.core.session.SessionService;
 import sh.fyz.fiber.middleware.impl.CsrfMiddleware;
 import sh.fyz.fiber.util.HttpUtil;
 
+import java.math.BigInteger;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public abstract class AuthenticationService<T extends UserAuth> {
 
+    /** Runs user loads and background refreshes; they block on the database. */
+    private static final ExecutorService USER_LOADER_EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
     private final GenericRepository<T> userRepository;
     private String refreshTokenPath = "/auth";
     private final AuthCookieConfig cookieConfig;
 
-    private final Cache<Object, T> userCache;
+    private final AsyncLoadingCache<Object, T> userCache;
+    private final Cache<String, Object> identifierIndex;
+    private volatile InvalidationBus invalidationBus;
+    // Set once a cache key of a type keysFor() cannot rebuild from a string has been seen.
+    private volatile boolean unusualKeyTypes;
 
     public AuthenticationService(GenericRepository<T> userRepository, String authEndpoint) {
         this.userRepository = userRepository;
@@ -33,29 +53,88 @@ public abstract class AuthenticationService<T extends UserAuth> {
         this.cookieConfig = new AuthCookieConfig()
                 .setSameSite(FiberServer.get().isDev() ? SameSitePolicy.LAX : SameSitePolicy.STRICT)
                 .setSecure(!FiberServer.get().isDev());
-        this.userCache = buildDefaultCache();
+        this.userCache = buildUserCache();
+        this.identifierIndex = buildIdentifierIndex();
     }
 
     public AuthenticationService(GenericRepository<T> userRepository, String authEndpoint, AuthCookieConfig cookieConfig) {
         this.userRepository = userRepository;
         this.refreshTokenPath = authEndpoint;
         this.cookieConfig = cookieConfig;
-        this.userCache = buildDefaultCache();
+        this.userCache = buildUserCache();
+        this.identifierIndex = buildIdentifierIndex();
     }
 
-    private Cache<Object, T> buildDefaultCache() {
+    /**
+     * Override to customize the user cache (TTL, size, refresh, batching).
+     * Return null to disable caching entirely.
+     *
+     * <p>The default refreshes entries older than 30 seconds in the background while still
+     * serving the cached user, drops them after 5 minutes without a refresh, and loads misses
+     * through {@link #userLoader()}. Called from the constructor.</p>
+     */
+    protected AsyncLoadingCache<Object, T> buildUserCache() {
         return Caffeine.newBuilder()
                 .maximumSize(10_000)
-                .expireAfterWrite(Duration.ofSeconds(30))
-                .build();
+                .refreshAfterWrite(Duration.ofSeconds(30))
+                .expireAfterWrite(Duration.ofMinutes(5))
+                .executor(USER_LOADER_EXECUTOR)
+                .buildAsync(userLoader());
     }
 
     /**
-     * Override to customize the user cache (TTL, size, etc.).
-     * Return null to disable caching entirely.
+     * Loader for {@link #buildUserCache()} overrides. When {@link #findUsersByIds(Set)} is
+     * overridden, concurrent misses (up to 100 ids, 2 ms apart at most) are gathered into one
+     * call to it; otherwise each miss is loaded on its own with {@code findById}, concurrently
+     * with the others, since batching one-by-one lookups would only serialise them.
      */
-    protected Cache<Object, T> buildUserCache() {
-        return buildDefaultCache();
+    protected final AsyncCacheLoader<Object, T> userLoader() {
+        if (!overridesFindUsersByIds()) {
+            return (id, executor) -> CompletableFuture.supplyAsync(() -> userRepository.findById(id), USER_LOADER_EXECUTOR);
+        }
+        return new CoalescingBulkLoader<>(this::findUsersByIds, 100, Duration.ofMillis(2), USER_LOADER_EXECUTOR);
+    }
+
+    private boolean overridesFindUsersByIds() {
+        for (Class<?> type = getClass(); type != AuthenticationService.class; type = type.getSuperclass()) {
+            try {
+                type.getDeclaredMethod("findUsersByIds", Set.class);
+                return true;
+            } catch (NoSuchMethodException ignored) {
+                // not declared here, look further up
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Override to keep an identifier &rarr; user id index in memory, so logins and
+     * uniqueness checks for a known identifier go through the user cache instead of the
+     * database. Disabled by default (returns {@code null}).
+     *
+     * <p>Hits are re-checked against the loaded user's identifiers, so an outdated entry
+     * only costs the regular query. {@link #evictUser(Object)} also drops the entries of
+     * the evicted user when that user is cached.</p>
+     */
+    protected Cache<String, Object> buildIdentifierIndex() {
+        return null;
+    }
+
+    /**
+     * Load several users at once; ids with no user are simply left out of the map.
+     * The default issues one {@code findById} per id. Override it with a single
+     * {@code WHERE id IN (...)} query when the repository offers one: cache misses are
+     * only batched into this method once it is overridden.
+     */
+    protected Map<Object, T> findUsersByIds(Set<Object> ids) {
+        Map<Object, T> users = new HashMap<>();
+        for (Object id : ids) {
+            T user = userRepository.findById(id);
+            if (user != null) {
+                users.put(id, user);
+            }
+        }
+        return users;
     }
 
     public Class<T> getUserClass() {
@@ -66,23 +145,121 @@ public abstract class AuthenticationService<T extends UserAuth> {
         if (userCache == null) {
             return userRepository.findById(id);
         }
-        return userCache.get(id, k -> userRepository.findById(k));
+        if (!unusualKeyTypes && !(id instanceof String || id instanceof Long || id instanceof Integer || id instanceof UUID
+                || id instanceof Short || id instanceof Byte || id instanceof BigInteger)) {
+            unusualKeyTypes = true;
+        }
+        try {
+            return userCache.get(id).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
     }
 
     /**
      * Evict a user from cache. Call this after any user mutation (save, update, delete).
      */
     public void evictUser(Object id) {
+        evictUserLocally(id);
+        InvalidationBus bus = invalidationBus;
+        if (bus != null) {
+            bus.publish(InvalidationBus.USER, String.valueOf(id));
+        }
+    }
+
+    private void evictUserLocally(Object id) {
         if (userCache != null) {
-            userCache.invalidate(id);
+            if (identifierIndex != null) {
+                T cached = userCache.synchronous().getIfPresent(id);
+                if (cached != null) {
+                    identifierIndex.invalidateAll(UserFieldUtil.getIdentifiers(cached).values());
+                }
+            }
+            userCache.synchronous().invalidate(id);
         }
     }
 
     /** Evict all cached users. */
     public void evictAllUsers() {
+        evictAllUsersLocally();
+        InvalidationBus bus = invalidationBus;
+        if (bus != null) {
+            bus.publish(InvalidationBus.USER, InvalidationBus.ALL);
+        }
+    }
+
+    private void evictAllUsersLocally() {
         if (userCache != null) {
-            userCache.invalidateAll();
+            userCache.synchronous().invalidateAll();
+        }
+        if (identifierIndex != null) {
+            identifierIndex.invalidateAll();
+        }
+    }
+
+    /**
+     * Publish {@link #evictUser} / {@link #evictAllUsers} on {@code bus} and apply the
+     * evictions other nodes publish. Wired by {@code FiberServer.setInvalidationBus}.
+     */
+    public void setInvalidationBus(InvalidationBus bus) {
+        if (bus == null || bus == invalidationBus) {
+            return;
+        }
+        this.invalidationBus = bus;
+        bus.subscribe(InvalidationBus.USER, this::onUserInvalidated);
+    }
+
+    private void onUserInvalidated(String key) {
+        if (InvalidationBus.ALL.equals(key)) {
+            evictAllUsersLocally();
+        } else if (userCache != null) {
+            // Ids travel as strings; cache keys are whatever type the token or caller used.
+            for (Object id : keysFor(key)) {
+                evictUserLocally(id);
+            }
+            if (unusualKeyTypes) {
+                for (Object id : userCache.synchronous().asMap().keySet()) {
+                    if (key.equals(String.valueOf(id))) {
+                        evictUserLocally(id);
+                    }
+                }
+            }
+        }
+    }
+
+    /** Every String, integral Number or UUID key whose {@code String.valueOf} is {@code key}. */
+    private static List<Object> keysFor(String key) {
+        List<Object> keys = new ArrayList<>(6);
+        keys.add(key);
+        try {
+            BigInteger big = new BigInteger(key);
+            if (big.toString().equals(key)) {
+                keys.add(big);
+                if (big.bitLength() < 64) {
+                    long value = big.longValue();
+                    keys.add(value);
+                    if (value == (int) value) keys.add((int) value);
+                    if (value == (short) value) keys.add((short) value);
+                    if (value == (byte) value) keys.add((byte) value);
+                }
+            }
+        } catch (NumberFormatException ignored) {
+            // not an integer id
+        }
+        if (key.length() == 36) {
+            try {
+                UUID uuid = UUID.fromString(key);
+                if (uuid.toString().equals(key)) {
+                    keys.add(uuid);
+                }
+            } catch (IllegalArgumentException ignored) {
+                // not a UUID id
+            }
         }
+        return keys;
     }
 
     public boolean validateCredentials(UserAuth user, String password) {
@@ -90,15 +267,42 @@ public abstract class AuthenticationService<T extends UserAuth> {
     }
 
     /**
-     * Override this method to provide an efficient database query for user lookup by identifier.
-     * The default implementation loads all users in memory (not suitable for production).
+     * Look up a user by any of its {@code @IdentifierField} values. The default issues one
+     * equality query per identifier field (see {@link #findByIdentifier(String)}); override
+     * it for a single combined query or case-insensitive matching.
      */
     public UserAuth findUserByIdentifer(String identifier) {
         return findByIdentifier(identifier);
     }
 
     protected UserAuth findByIdentifier(String identifier) {
-        return UserFieldUtil.findUserByIdentifier(identifier, userRepository.all());
+        if (identifier == null) {
+            return null;
+        }
+        if (identifierIndex != null) {
+            Object id = identifierIndex.getIfPresent(identifier);
+            if (id != null) {
+                T user = getUserById(id);
+                if (user != null && UserFieldUtil.getIdentifiers(user).containsValue(identifier)) {
+                    return user;
+                }
+                identifierIndex.invalidate(identifier);
+            }
+        }
+        for (String field : UserFieldUtil.getIdentifierFieldNames(getUserClass())) {
+            T user = userRepository.query().where(field, identifier).findFirst();
+            if (user != null) {
+                if (identifierIndex != null) {
+                    for (String value : UserFieldUtil.getIdentifiers(user).values()) {
+                        if (value != null) {
+                            identifierIndex.put(value, user.getId());
+                        }
+                    }
+                }
+                return user;
+            }
+        }
+        return null;
     }
 
     public boolean doesIdentifiersAlreadyExists(UserAuth user) {
@@ -293,9 +497,9 @@ public abstract class AuthenticationService<T extends UserAuth> {
 
         SessionService sessionService = FiberServer.get().getSessionService();
         if (sessionService != null) {
-            FiberSession currentSession = SessionContext.current();
-            if (currentSession != null) {
-                sessionService.invalidate(currentSession.getSessionId());
+            String currentSessionId = SessionContext.currentId();
+            if (currentSessionId != null) {
+                sessionService.invalidate(currentSessionId);
             }
         }
 
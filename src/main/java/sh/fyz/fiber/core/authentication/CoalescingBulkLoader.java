@@ -0,0 +1,106 @@
+package sh.fyz.fiber.core.authentication;
+
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Cache loader that turns concurrent single-key misses into bulk loads.
+ *
+ * <p>Each miss is parked until either {@code maxBatchSize} keys are waiting or
+ * {@code maxDelay} has passed since the first of them; the whole batch is then loaded with
+ * one call to the bulk function. Keys absent from the returned map load as {@code null}
+ * (nothing is cached). If the bulk call throws, every future of the batch fails with it.</p>
+ *
+ * <p>Caffeine already coalesces concurrent loads of the <em>same</em> key, so duplicate
+ * keys never reach a batch twice.</p>
+ */
+public final class CoalescingBulkLoader<K, V> implements AsyncCacheLoader<K, V> {
+
+    private final Function<Set<K>, Map<K, V>> bulkLoader;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final Executor executor;
+
+    private final Object lock = new Object();
+    private Map<K, CompletableFuture<V>> pending = new HashMap<>();
+
+    /**
+     * @param bulkLoader   loads a set of keys; may omit keys that do not exist
+     * @param maxBatchSize keys per bulk call at most
+     * @param maxDelay     longest a miss waits for others to join its batch
+     * @param executor     runs the bulk calls (they block on the database)
+     */
+    public CoalescingBulkLoader(Function<Set<K>, Map<K, V>> bulkLoader, int maxBatchSize,
+                                Duration maxDelay, Executor executor) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be at least 1");
+        }
+        this.bulkLoader = bulkLoader;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<V> asyncLoad(K key, Executor cacheExecutor) {
+        CompletableFuture<V> future;
+        Map<K, CompletableFuture<V>> full = null;
+        boolean first;
+        synchronized (lock) {
+            future = pending.get(key);
+            if (future != null) {
+                return future;
+            }
+            future = new CompletableFuture<>();
+            pending.put(key, future);
+            first = pending.size() == 1;
+            if (pending.size() >= maxBatchSize) {
+                full = pending;
+                pending = new HashMap<>();
+            }
+        }
+        if (full != null) {
+            Map<K, CompletableFuture<V>> batch = full;
+            executor.execute(() -> load(batch));
+        } else if (first) {
+            CompletableFuture.delayedExecutor(maxDelayNanos, TimeUnit.NANOSECONDS, executor).execute(this::flush);
+        }
+        return future;
+    }
+
+    @Override
+    public CompletableFuture<? extends Map<? extends K, ? extends V>> asyncLoadAll(Set<? extends K> keys, Executor cacheExecutor) {
+        Set<K> copy = Set.copyOf(keys);
+        return CompletableFuture.supplyAsync(() -> bulkLoader.apply(copy), executor);
+    }
+
+    private void flush() {
+        Map<K, CompletableFuture<V>> batch;
+        synchronized (lock) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new HashMap<>();
+        }
+        load(batch);
+    }
+
+    private void load(Map<K, CompletableFuture<V>> batch) {
+        try {
+            Map<K, V> loaded = bulkLoader.apply(Collections.unmodifiableSet(batch.keySet()));
+            batch.forEach((key, future) -> future.complete(loaded.get(key)));
+        } catch (Throwable t) {
+            batch.values().forEach(future -> future.completeExceptionally(t));
+        }
+    }
+}
@@ -34,11 +34,11 @@ public interface UserAuth {
     }
 
     default void invalidateOtherSessions() {
-        FiberSession current = SessionContext.current();
-        if (current == null) {
+        String currentId = SessionContext.currentId();
+        if (currentId == null) {
             throw new IllegalStateException("No active session for this request. Cannot determine which sessions to keep.");
         }
-        getSessionService().invalidateOtherSessions(getId(), current.getSessionId());
+        getSessionService().invalidateOtherSessions(getId(), currentId);
     }
 
     private SessionService getSessionService() {
@@ -8,6 +8,7 @@ import java.lang.reflect.Field;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 public class UserFieldUtil {
@@ -61,6 +62,16 @@ public class UserFieldUtil {
         return identifiers;
     }
 
+    /** Names of the {@code @IdentifierField} fields of {@code userClass}, i.e. the columns to query by identifier. */
+    public static Set<String> getIdentifierFieldNames(Class<?> userClass) {
+        Map<String, Field> fields = identifierFields.get(userClass);
+        if (fields == null) {
+            validateUserClass(userClass);
+            fields = identifierFields.get(userClass);
+        }
+        return fields.keySet();
+    }
+
     public static String getPassword(UserAuth user) {
         try {
             Field passwordField = passwordFields.get(user.getClass());
@@ -21,6 +21,14 @@ public final class SessionValidator {
             return true;
         }
 
+        if (sessionService.isStatelessValidationActive()) {
+            if (sessionService.isRecentlyRevoked(sessionId)) {
+                return false;
+            }
+            SessionContext.setLazy(sessionId);
+            return true;
+        }
+
         FiberSession session = sessionService.getSession(sessionId);
         if (session == null) {
             return false;
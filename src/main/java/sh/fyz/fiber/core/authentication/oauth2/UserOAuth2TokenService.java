@@ -7,6 +7,7 @@ import org.slf4j.LoggerFactory;
 import sh.fyz.architect.repositories.GenericRepository;
 import sh.fyz.fiber.FiberServer;
 import sh.fyz.fiber.core.authentication.oauth2.entities.UserOAuth2Token;
+import sh.fyz.fiber.core.invalidation.InvalidationBus;
 import sh.fyz.fiber.util.TokenCrypto;
 
 import java.time.Duration;
@@ -38,6 +39,7 @@ public class UserOAuth2TokenService {
     private final GenericRepository<UserOAuth2Token> repository;
     private final Cache<String, Optional<UserOAuth2Token>> cache;
     private final ScheduledExecutorService cleanupExecutor;
+    private volatile InvalidationBus invalidationBus;
 
     public UserOAuth2TokenService(GenericRepository<UserOAuth2Token> repository) {
         this.repository = repository;
@@ -64,6 +66,31 @@ public class UserOAuth2TokenService {
         this.cleanupExecutor.scheduleAtFixedRate(this::cleanupExpiredWithoutRefresh, 1, 1, TimeUnit.HOURS);
     }
 
+    /**
+     * Publish this service's evictions on {@code bus} and apply the ones other nodes publish.
+     * Wired by {@code FiberServer.setInvalidationBus}.
+     */
+    public void setInvalidationBus(InvalidationBus bus) {
+        if (bus == null || bus == invalidationBus) {
+            return;
+        }
+        this.invalidationBus = bus;
+        bus.subscribe(InvalidationBus.OAUTH2_TOKEN, key -> {
+            if (InvalidationBus.ALL.equals(key)) {
+                cache.invalidateAll();
+            } else {
+                cache.invalidate(key);
+            }
+        });
+    }
+
+    private void broadcast(String key) {
+        InvalidationBus bus = invalidationBus;
+        if (bus != null) {
+            bus.publish(InvalidationBus.OAUTH2_TOKEN, key);
+        }
+    }
+
     /**
      * Upsert tokens for the given (user, provider) pair. Access and refresh
      * tokens from {@code response} are encrypted before persistence.
@@ -86,6 +113,8 @@ public class UserOAuth2TokenService {
         token.setUpdatedAt(System.currentTimeMillis());
 
         repository.save(token);
+        // Broadcast before caching: an in-process bus delivers synchronously to this node too.
+        broadcast(cacheKey(userId, providerId));
         cache.put(cacheKey(userId, providerId), Optional.of(token));
         return token;
     }
@@ -149,6 +178,7 @@ public class UserOAuth2TokenService {
             repository.delete(existing);
         }
         cache.invalidate(cacheKey(userId, providerId));
+        broadcast(cacheKey(userId, providerId));
     }
 
     public void deleteByUser(Object userId) {
@@ -161,6 +191,7 @@ public class UserOAuth2TokenService {
         for (UserOAuth2Token row : rows) {
             repository.delete(row);
             cache.invalidate(cacheKey(row.getUserId(), row.getProviderId()));
+            broadcast(cacheKey(row.getUserId(), row.getProviderId()));
         }
     }
 
@@ -181,6 +212,7 @@ public class UserOAuth2TokenService {
                 if (expired && noRefresh) {
                     repository.delete(row);
                     cache.invalidate(cacheKey(row.getUserId(), row.getProviderId()));
+                    broadcast(cacheKey(row.getUserId(), row.getProviderId()));
                 }
             }
         } catch (Exception e) {
@@ -6,6 +6,7 @@ import sh.fyz.fiber.FiberServer;
 import sh.fyz.fiber.annotations.params.AuthenticatedUser;
 import sh.fyz.fiber.annotations.params.Param;
 import sh.fyz.fiber.annotations.request.Controller;
+import sh.fyz.fiber.annotations.request.LoadPriority;
 import sh.fyz.fiber.annotations.request.RequestMapping;
 import sh.fyz.fiber.core.ResponseEntity;
 import sh.fyz.fiber.core.authentication.AuthenticationService;
@@ -20,6 +21,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 @Controller("/oauth/client")
+@LoadPriority(LoadPriority.Level.CRITICAL)
 public class OAuth2ClientController {
     private final OAuth2ClientService clientService;
     private final AuthenticationService<?> authService;
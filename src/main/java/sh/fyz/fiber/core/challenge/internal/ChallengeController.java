@@ -5,6 +5,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import sh.fyz.fiber.FiberServer;
 import sh.fyz.fiber.annotations.request.Controller;
+import sh.fyz.fiber.annotations.request.LoadPriority;
 import sh.fyz.fiber.annotations.params.PathVariable;
 import sh.fyz.fiber.annotations.params.RequestBody;
 import sh.fyz.fiber.annotations.request.RequestMapping;
@@ -17,6 +18,7 @@ import java.util.Map;
 import java.util.Optional;
 
 @Controller("/internal/challenge")
+@LoadPriority(LoadPriority.Level.CRITICAL)
 public class ChallengeController {
     public ChallengeController() {
     }
@@ -0,0 +1,55 @@
+package sh.fyz.fiber.core.dto;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * Reads one DTO field through a {@link MethodHandle} getter compiled once per field,
+ * instead of {@link Field#get} (access checks and boxing dispatch on every call).
+ *
+ * <p>The handle is adapted to {@code (Object)Object} so it can be called with
+ * {@code invokeExact}; primitives are boxed by the adaptation and static fields simply
+ * ignore the receiver.</p>
+ */
+public final class DTOAccessor {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private final String name;
+    private final MethodHandle getter;
+
+    private DTOAccessor(String name, MethodHandle getter) {
+        this.name = name;
+        this.getter = getter;
+    }
+
+    /** @param field a field already made accessible (see {@link DTOConvertible#getCachedFields}) */
+    static DTOAccessor of(Field field) {
+        try {
+            MethodHandle getter = MethodHandles.lookup().unreflectGetter(field);
+            if (Modifier.isStatic(field.getModifiers())) {
+                getter = MethodHandles.dropArguments(getter, 0, Object.class);
+            }
+            return new DTOAccessor(field.getName(), getter.asType(GETTER_TYPE));
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot access DTO field " + field, e);
+        }
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public Object get(Object target) {
+        try {
+            return (Object) getter.invokeExact(target);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+}
@@ -9,4 +9,21 @@ public class DTOCache {
 
     protected static final Map<Class<?>, List<Field>> FIELD_CACHE = new ConcurrentHashMap<>();
 
+    protected static final Map<Class<?>, DTOAccessor[]> ACCESSOR_CACHE = new ConcurrentHashMap<>();
+
+    private static final Map<Class<?>, Boolean> AS_DTO_OVERRIDDEN = new ConcurrentHashMap<>();
+
+    /**
+     * Whether {@code type} replaces {@link DTOConvertible#asDTO()} with its own mapping,
+     * in which case serializers must go through it rather than through the cached fields.
+     */
+    static boolean overridesAsDTO(Class<?> type) {
+        return AS_DTO_OVERRIDDEN.computeIfAbsent(type, c -> {
+            try {
+                return c.getMethod("asDTO").getDeclaringClass() != DTOConvertible.class;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        });
+    }
 }
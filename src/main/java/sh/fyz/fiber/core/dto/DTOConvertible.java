@@ -7,6 +7,7 @@ import java.lang.reflect.Field;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
+import static sh.fyz.fiber.core.dto.DTOCache.ACCESSOR_CACHE;
 import static sh.fyz.fiber.core.dto.DTOCache.FIELD_CACHE;
 
 public abstract class DTOConvertible {
@@ -35,6 +36,20 @@ public abstract class DTOConvertible {
         });
     }
 
+    /**
+     * Cached getters for the DTO fields of a class, generated on first use
+     */
+    public static DTOAccessor[] getCachedAccessors(Class<?> clazz) {
+        return ACCESSOR_CACHE.computeIfAbsent(clazz, c -> {
+            List<Field> fields = getCachedFields(c);
+            DTOAccessor[] accessors = new DTOAccessor[fields.size()];
+            for (int i = 0; i < accessors.length; i++) {
+                accessors[i] = DTOAccessor.of(fields.get(i));
+            }
+            return accessors;
+        });
+    }
+
     /**
      * Convert to a Map<String,Object> recursively
      */
@@ -42,49 +57,45 @@ public abstract class DTOConvertible {
         transform();
         Map<String, Object> dto = new HashMap<>();
 
-        for (Field field : getCachedFields(this.getClass())) {
-            try {
-                Object value = field.get(this);
-                if (value == null) continue;
+        for (DTOAccessor accessor : getCachedAccessors(this.getClass())) {
+            Object value = accessor.get(this);
+            if (value == null) continue;
 
-                if (value instanceof DTOConvertible convertible) {
-                    dto.put(field.getName(), convertible.asDTO());
-                } else if (value instanceof Collection<?> col) {
-                    List<Object> list = new ArrayList<>(col.size());
-                    for (Object o : col) {
-                        if (o instanceof DTOConvertible inner)
-                            list.add(inner.asDTO());
-                        else
-                            list.add(o);
-                    }
-                    dto.put(field.getName(), list);
-                } else if (value.getClass().isArray()) {
-                    int len = java.lang.reflect.Array.getLength(value);
-                    List<Object> arr = new ArrayList<>(len);
-                    for (int i = 0; i < len; i++) {
-                        Object o = java.lang.reflect.Array.get(value, i);
-                        if (o instanceof DTOConvertible inner)
-                            arr.add(inner.asDTO());
-                        else
-                            arr.add(o);
-                    }
-                    dto.put(field.getName(), arr);
-                } else if (value instanceof Map<?, ?> map) {
-                    Map<Object, Object> newMap = new HashMap<>();
-                    for (Map.Entry<?, ?> e : map.entrySet()) {
-                        Object val = e.getValue();
-                        if (val instanceof DTOConvertible inner) {
-                            newMap.put(e.getKey(), inner.asDTO());
-                        } else {
-                            newMap.put(e.getKey(), val);
-                        }
+            if (value instanceof DTOConvertible convertible) {
+                dto.put(accessor.name(), convertible.asDTO());
+            } else if (value instanceof Collection<?> col) {
+                List<Object> list = new ArrayList<>(col.size());
+                for (Object o : col) {
+                    if (o instanceof DTOConvertible inner)
+                        list.add(inner.asDTO());
+                    else
+                        list.add(o);
+                }
+                dto.put(accessor.name(), list);
+            } else if (value.getClass().isArray()) {
+                int len = java.lang.reflect.Array.getLength(value);
+                List<Object> arr = new ArrayList<>(len);
+                for (int i = 0; i < len; i++) {
+                    Object o = java.lang.reflect.Array.get(value, i);
+                    if (o instanceof DTOConvertible inner)
+                        arr.add(inner.asDTO());
+                    else
+                        arr.add(o);
+                }
+                dto.put(accessor.name(), arr);
+            } else if (value instanceof Map<?, ?> map) {
+                Map<Object, Object> newMap = new HashMap<>();
+                for (Map.Entry<?, ?> e : map.entrySet()) {
+                    Object val = e.getValue();
+                    if (val instanceof DTOConvertible inner) {
+                        newMap.put(e.getKey(), inner.asDTO());
+                    } else {
+                        newMap.put(e.getKey(), val);
                     }
-                    dto.put(field.getName(), newMap);
-                } else {
-                    dto.put(field.getName(), value);
                 }
-
-            } catch (IllegalAccessException ignored) {
+                dto.put(accessor.name(), newMap);
+            } else {
+                dto.put(accessor.name(), value);
             }
         }
         return dto;
@@ -0,0 +1,51 @@
+package sh.fyz.fiber.core.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Jackson serializer writing a {@link DTOConvertible} straight from its cached accessors,
+ * producing the same JSON as {@link DTOConvertible#asDTO()} without building the
+ * intermediate {@code Map} (nor copying nested collections and maps).
+ *
+ * <p>Same rules as {@code asDTO()}: {@code transform()} runs first, {@code @IgnoreDTO}
+ * and {@code null} fields are skipped, nested {@code DTOConvertible} values (directly or
+ * inside collections, arrays and maps) are serialized the same way. Subclasses that
+ * override {@code asDTO()} keep their own output: their map is serialized instead.</p>
+ */
+public class DTOSerializer extends StdSerializer<DTOConvertible> {
+
+    public DTOSerializer() {
+        super(DTOConvertible.class);
+    }
+
+    /** Module registered by {@code FiberObjectMapper}. */
+    public static SimpleModule module() {
+        SimpleModule module = new SimpleModule("FiberDTO");
+        module.addSerializer(DTOConvertible.class, new DTOSerializer());
+        return module;
+    }
+
+    @Override
+    public void serialize(DTOConvertible value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        Class<?> type = value.getClass();
+        if (DTOCache.overridesAsDTO(type)) {
+            provider.defaultSerializeValue(value.asDTO(), gen);
+            return;
+        }
+
+        value.transform();
+        gen.writeStartObject(value);
+        for (DTOAccessor accessor : DTOConvertible.getCachedAccessors(type)) {
+            Object fieldValue = accessor.get(value);
+            if (fieldValue != null) {
+                provider.defaultSerializeField(accessor.name(), fieldValue, gen);
+            }
+        }
+        gen.writeEndObject();
+    }
+}
@@ -0,0 +1,36 @@
+package sh.fyz.fiber.core.invalidation;
+
+import java.util.function.Consumer;
+
+/**
+ * Broadcasts cache invalidations between Fiber nodes.
+ *
+ * <p>A service that changes or revokes something evicts its own cache first, then publishes
+ * the key on its topic; every subscriber of that topic evicts the key from its local cache.
+ * Handlers must be idempotent: depending on the implementation the publishing node may
+ * receive its own message. The key {@link #ALL} asks subscribers to drop everything, and is
+ * also sent locally after a transport outage during which messages may have been lost.</p>
+ *
+ * <p>Publishing never throws; a failed broadcast is logged and the local eviction stands.</p>
+ */
+public interface InvalidationBus extends AutoCloseable {
+
+    /** Session ids revoked by {@code SessionService}. */
+    String SESSION = "session";
+
+    /** User ids evicted by {@code AuthenticationService.evictUser}. */
+    String USER = "user";
+
+    /** {@code userId|providerId} keys of {@code UserOAuth2TokenService}. */
+    String OAUTH2_TOKEN = "oauth2-token";
+
+    /** Key meaning "every entry of the topic". */
+    String ALL = "*";
+
+    void publish(String topic, String key);
+
+    void subscribe(String topic, Consumer<String> listener);
+
+    @Override
+    default void close() {}
+}
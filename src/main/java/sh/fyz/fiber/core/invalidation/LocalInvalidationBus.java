@@ -0,0 +1,45 @@
+package sh.fyz.fiber.core.invalidation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-process {@link InvalidationBus}: {@link #publish} calls every subscriber of the topic
+ * synchronously, on the publishing thread. Useful when several services share one JVM and
+ * in tests; it does not reach other nodes.
+ */
+public class LocalInvalidationBus implements InvalidationBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalInvalidationBus.class);
+
+    private final Map<String, List<Consumer<String>>> listeners = new ConcurrentHashMap<>();
+
+    @Override
+    public void publish(String topic, String key) {
+        for (Consumer<String> listener : listeners.getOrDefault(topic, List.of())) {
+            try {
+                listener.accept(key);
+            } catch (RuntimeException e) {
+                logger.warn("[Fiber] Invalidation listener for '{}' failed: {}", topic, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(String topic, Consumer<String> listener) {
+        listeners.computeIfAbsent(topic, k -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    /** Deliver {@link #ALL} on every topic that has subscribers. */
+    void publishAll() {
+        for (String topic : listeners.keySet()) {
+            publish(topic, ALL);
+        }
+    }
+}
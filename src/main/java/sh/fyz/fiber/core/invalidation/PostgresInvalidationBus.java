@@ -0,0 +1,137 @@
+package sh.fyz.fiber.core.invalidation;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * {@link InvalidationBus} over PostgreSQL {@code LISTEN/NOTIFY} on the
+ * {@code fiber_invalidation} channel.
+ *
+ * <p>One connection of the {@link DataSource} is held by a listener thread; each publish
+ * borrows another one for a {@code pg_notify}. Messages carry the id of the sending node,
+ * which ignores its own (it already evicted locally). When the listening connection drops,
+ * it is re-established with backoff and every subscriber receives {@link #ALL}, since
+ * notifications sent in the meantime are lost.</p>
+ *
+ * <p>Waiting for notifications cannot tell a quiet channel from a half-open TCP connection,
+ * so the listener also runs {@code SELECT 1} on its connection every few seconds, under a
+ * network timeout: a dead socket then fails the probe and goes through the reconnect path
+ * instead of silently swallowing every later invalidation.</p>
+ */
+public class PostgresInvalidationBus implements InvalidationBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostgresInvalidationBus.class);
+    private static final String CHANNEL = "fiber_invalidation";
+    private static final int POLL_MILLIS = 1_000;
+    private static final int PROBE_EVERY_POLLS = 5;
+    private static final int NETWORK_TIMEOUT_MILLIS = 10_000;
+    private static final long MAX_BACKOFF_MILLIS = 30_000;
+
+    private final DataSource dataSource;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final LocalInvalidationBus local = new LocalInvalidationBus();
+    private final Thread listener;
+    private volatile boolean running = true;
+    private volatile boolean listening;
+
+    public PostgresInvalidationBus(DataSource dataSource) {
+        this.dataSource = dataSource;
+        this.listener = Thread.ofVirtual().name("fiber-invalidation-listener").start(this::listen);
+    }
+
+    @Override
+    public void publish(String topic, String key) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+            statement.setString(1, CHANNEL);
+            statement.setString(2, nodeId + '\n' + topic + '\n' + key);
+            statement.execute();
+        } catch (SQLException e) {
+            logger.warn("[Fiber] Could not broadcast invalidation {}:{}: {}", topic, key, e.getMessage());
+        }
+    }
+
+    @Override
+    public void subscribe(String topic, Consumer<String> listener) {
+        local.subscribe(topic, listener);
+    }
+
+    /** Whether the listener currently holds a connection with {@code LISTEN} active. */
+    public boolean isListening() {
+        return listening;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        listening = false;
+        listener.interrupt();
+    }
+
+    private void listen() {
+        long backoff = 500;
+        boolean connectedBefore = false;
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(true);
+                connection.setNetworkTimeout(Runnable::run, NETWORK_TIMEOUT_MILLIS);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                listening = true;
+                if (connectedBefore) {
+                    local.publishAll();
+                }
+                connectedBefore = true;
+                backoff = 500;
+                PGConnection pg = connection.unwrap(PGConnection.class);
+                int polls = 0;
+                while (running) {
+                    PGNotification[] notifications = pg.getNotifications(POLL_MILLIS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            dispatch(notification.getParameter());
+                        }
+                    }
+                    if (++polls % PROBE_EVERY_POLLS == 0) {
+                        try (Statement probe = connection.createStatement()) {
+                            probe.execute("SELECT 1");
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                listening = false;
+                if (!running) {
+                    return;
+                }
+                logger.warn("[Fiber] Invalidation listener lost its connection, retrying in {} ms: {}",
+                        backoff, e.getMessage());
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException ie) {
+                    return;
+                }
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+            }
+        }
+    }
+
+    private void dispatch(String payload) {
+        int first = payload.indexOf('\n');
+        int second = first < 0 ? -1 : payload.indexOf('\n', first + 1);
+        if (second < 0 || (first == nodeId.length() && payload.startsWith(nodeId))) {
+            return;
+        }
+        local.publish(payload.substring(first + 1, second), payload.substring(second + 1));
+    }
+}
@@ -0,0 +1,133 @@
+package sh.fyz.fiber.core.overload;
+
+import sh.fyz.fiber.annotations.request.LoadPriority;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounds the number of requests in flight with a limit that follows observed latency
+ * (gradient algorithm, as in Netflix's concurrency-limits).
+ *
+ * <p>Latencies are averaged over 100 ms windows and compared with a slowly moving baseline.
+ * While a window stays within {@code 1.5 x} the baseline the limit grows by about
+ * {@code sqrt(limit)} (smoothed over several windows); when it gets slower the limit shrinks
+ * in proportion at once, by at most half per window. A stalled database therefore shows up
+ * as rising latency and a falling limit long before blocked threads exhaust memory. The
+ * limit only grows when at least half of it was in use, so an idle server does not drift to
+ * {@code maxLimit}.</p>
+ *
+ * <p>Admission is one atomic increment; each {@link LoadPriority.Level} may occupy its
+ * {@link LoadPriority.Level#share() share} of the limit, so low-priority traffic is shed
+ * first. Window updates run on whichever request completes one, without blocking others.</p>
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final long WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final double BASELINE_WEIGHT = 0.01;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private volatile double limit;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final LongAdder latencySum = new LongAdder();
+    private final LongAdder latencyCount = new LongAdder();
+    private final AtomicBoolean updating = new AtomicBoolean();
+    private volatile long windowStart = System.nanoTime();
+    private double baselineLatency; // only touched by the thread holding `updating`
+
+    /** Starts at 50 concurrent requests, adapting between 10 and 1000. */
+    public AdaptiveConcurrencyLimiter() {
+        this(50, 10, 1000);
+    }
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Expected 1 <= minLimit <= initialLimit <= maxLimit");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * @return whether the request may proceed; if so, {@link #release} must follow
+     */
+    public boolean tryAcquire(LoadPriority.Level priority) {
+        int allowed = Math.max(1, (int) (limit * priority.share()));
+        int current = inFlight.incrementAndGet();
+        if (current > allowed) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+        if (current > peakInFlight.get()) {
+            peakInFlight.accumulateAndGet(current, Math::max);
+        }
+        return true;
+    }
+
+    /** @param startNanos {@link System#nanoTime()} taken when the request was admitted */
+    public void release(long startNanos) {
+        release(startNanos, System.nanoTime());
+    }
+
+    /** Record a request admitted at {@code startNanos} that completed at {@code endNanos}. */
+    public void release(long startNanos, long endNanos) {
+        inFlight.decrementAndGet();
+        latencySum.add(endNanos - startNanos);
+        latencyCount.increment();
+        if (endNanos - windowStart >= WINDOW_NANOS && updating.compareAndSet(false, true)) {
+            try {
+                update(endNanos);
+            } finally {
+                updating.set(false);
+            }
+        }
+    }
+
+    private void update(long now) {
+        windowStart = now;
+        long count = latencyCount.sumThenReset();
+        long sum = latencySum.sumThenReset();
+        int peak = peakInFlight.getAndSet(inFlight.get());
+        if (count == 0) {
+            return;
+        }
+
+        double latency = (double) sum / count;
+        if (baselineLatency == 0) {
+            baselineLatency = latency;
+        } else {
+            baselineLatency += (latency - baselineLatency) * BASELINE_WEIGHT;
+            // Once the slowdown is over, forget it faster than it was learned.
+            if (baselineLatency > 2 * latency) {
+                baselineLatency *= 0.95;
+            }
+        }
+
+        double current = limit;
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * baselineLatency / latency));
+        if (gradient >= 1.0 && peak < current / 2) {
+            return;
+        }
+        double target = current * gradient + Math.sqrt(current);
+        // Growth is smoothed; a slowdown is applied at once so the limit can halve in one window.
+        double next = gradient < 1.0 ? target : current * (1 - SMOOTHING) + target * SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+
+    /** Current limit for {@link LoadPriority.Level#CRITICAL} requests. */
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
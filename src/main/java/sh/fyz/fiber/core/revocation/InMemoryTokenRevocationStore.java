@@ -0,0 +1,81 @@
+package sh.fyz.fiber.core.revocation;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-node {@link TokenRevocationStore}.
+ *
+ * <p>Ids are indexed by expiry in fixed-width time buckets. Once a bucket lies entirely in
+ * the past it is dropped as a whole, together with its ids, so pruning costs nothing per
+ * lookup and happens at most once per bucket width (piggybacked on {@link #revoke} and
+ * {@link #isRevoked}, no background thread).</p>
+ */
+public final class InMemoryTokenRevocationStore implements TokenRevocationStore {
+
+    private final long bucketMillis;
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Long, Set<String>> buckets = new ConcurrentSkipListMap<>();
+    private final AtomicLong nextPurge = new AtomicLong();
+
+    public InMemoryTokenRevocationStore() {
+        this(Duration.ofMinutes(1));
+    }
+
+    /**
+     * @param bucketWidth granularity of pruning; entries live at most this long past their expiry
+     */
+    public InMemoryTokenRevocationStore(Duration bucketWidth) {
+        this.bucketMillis = Math.max(1, bucketWidth.toMillis());
+    }
+
+    @Override
+    public void revoke(String tokenId, long expiresAtMillis) {
+        long now = System.currentTimeMillis();
+        if (expiresAtMillis <= now) {
+            return;
+        }
+        revoked.put(tokenId, expiresAtMillis);
+        buckets.computeIfAbsent(expiresAtMillis / bucketMillis, k -> ConcurrentHashMap.newKeySet()).add(tokenId);
+        purgeIfDue(now);
+    }
+
+    @Override
+    public boolean isRevoked(String tokenId) {
+        long now = System.currentTimeMillis();
+        purgeIfDue(now);
+        Long expiresAt = revoked.get(tokenId);
+        return expiresAt != null && expiresAt > now;
+    }
+
+    @Override
+    public void clear() {
+        revoked.clear();
+        buckets.clear();
+    }
+
+    /** Number of revoked ids currently held. */
+    public int size() {
+        return revoked.size();
+    }
+
+    private void purgeIfDue(long now) {
+        long due = nextPurge.get();
+        if (now < due || !nextPurge.compareAndSet(due, now + bucketMillis)) {
+            return;
+        }
+        // A bucket is fully expired once its upper bound is behind us.
+        Map.Entry<Long, Set<String>> oldest;
+        while ((oldest = buckets.firstEntry()) != null && (oldest.getKey() + 1) * bucketMillis <= now) {
+            if (buckets.remove(oldest.getKey(), oldest.getValue())) {
+                for (String id : oldest.getValue()) {
+                    revoked.computeIfPresent(id, (k, exp) -> exp <= now ? null : exp);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package sh.fyz.fiber.core.revocation;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import sh.fyz.architect.repositories.GenericRepository;
+import sh.fyz.fiber.FiberServer;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TokenRevocationStore} shared by every node through an Architect repository
+ * ({@code fiber_revoked_tokens}).
+ *
+ * <p>Revocations are written through; lookups hit the database unless this node has
+ * already seen the id revoked (a revoked token never becomes valid again, so that positive
+ * cache is safe across nodes). Rows are grouped in hourly expiry buckets and a background
+ * job deletes each bucket once it is entirely in the past. Its first run also walks back
+ * from the current bucket until a day of buckets comes back empty, picking up rows left
+ * while every node was down. With {@link #setDataSource} the job is a single
+ * {@code DELETE ... WHERE expires_at <= ?} instead, which reaches rows of any age.</p>
+ *
+ * <pre>{@code
+ * GenericRepository<RevokedToken> repo = new GenericRepository<>(RevokedToken.class);
+ * server.setTokenRevocationStore(new RepositoryTokenRevocationStore(repo));
+ * }</pre>
+ */
+public class RepositoryTokenRevocationStore implements TokenRevocationStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(RepositoryTokenRevocationStore.class);
+    private static final long BUCKET_MILLIS = TimeUnit.HOURS.toMillis(1);
+    /** Consecutive empty buckets that end the first run's walk back. */
+    private static final int STARTUP_EMPTY_BUCKETS = 24;
+    private static final String DELETE_EXPIRED = "DELETE FROM fiber_revoked_tokens WHERE expires_at <= ?";
+
+    private final GenericRepository<RevokedToken> repository;
+    private final Cache<String, Long> knownRevoked;
+    private final ScheduledExecutorService cleanupExecutor;
+    private final ScheduledExecutorService ownExecutor;
+    private final ScheduledFuture<?> cleanupTask;
+    private volatile DataSource dataSource;
+    /** Last bucket purged, or -1 until the first run. */
+    private long purgedUpTo = -1;
+
+    public RepositoryTokenRevocationStore(GenericRepository<RevokedToken> repository) {
+        this.repository = repository;
+        this.knownRevoked = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(Duration.ofMillis(BUCKET_MILLIS))
+                .build();
+
+        ScheduledExecutorService shared = null;
+        try {
+            shared = FiberServer.get().getSharedExecutor();
+        } catch (Exception ignored) {
+            // FiberServer not initialised — fall back to a private virtual-thread executor.
+        }
+        if (shared != null) {
+            this.cleanupExecutor = shared;
+            this.ownExecutor = null;
+        } else {
+            this.ownExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = Thread.ofVirtual().name("fiber-revocation-cleanup-").unstarted(r);
+                t.setDaemon(true);
+                return t;
+            });
+            this.cleanupExecutor = ownExecutor;
+        }
+        this.cleanupTask = cleanupExecutor.scheduleAtFixedRate(this::purgeExpired, 1, 60, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Give the cleanup job direct access to {@code fiber_revoked_tokens}, so it deletes
+     * every expired row with one statement instead of bucket queries. {@code null} goes back
+     * to the repository-only behaviour.
+     */
+    public void setDataSource(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public void revoke(String tokenId, long expiresAtMillis) {
+        if (expiresAtMillis <= System.currentTimeMillis()) {
+            return;
+        }
+        repository.save(new RevokedToken(tokenId, expiresAtMillis, expiresAtMillis / BUCKET_MILLIS));
+        knownRevoked.put(tokenId, expiresAtMillis);
+    }
+
+    @Override
+    public boolean isRevoked(String tokenId) {
+        long now = System.currentTimeMillis();
+        Long expiresAt = knownRevoked.getIfPresent(tokenId);
+        if (expiresAt == null) {
+            RevokedToken row = repository.findById(tokenId);
+            if (row == null) {
+                return false;
+            }
+            expiresAt = row.getExpiresAt();
+            knownRevoked.put(tokenId, expiresAt);
+        }
+        return expiresAt > now;
+    }
+
+    @Override
+    public void clear() {
+        for (RevokedToken row : repository.all()) {
+            repository.delete(row);
+        }
+        knownRevoked.invalidateAll();
+    }
+
+    /**
+     * Delete every bucket whose tokens have all expired since the last run; the first run
+     * also walks back through older buckets. With a {@link DataSource}, delete every
+     * expired row in one statement instead.
+     */
+    public synchronized void purgeExpired() {
+        try {
+            long now = System.currentTimeMillis();
+            long lastExpired = now / BUCKET_MILLIS - 1;
+            DataSource dataSource = this.dataSource;
+            if (dataSource != null) {
+                try (Connection connection = dataSource.getConnection();
+                     PreparedStatement delete = connection.prepareStatement(DELETE_EXPIRED)) {
+                    delete.setLong(1, now);
+                    delete.executeUpdate();
+                }
+            } else if (purgedUpTo < 0) {
+                int empty = 0;
+                for (long bucket = lastExpired; bucket >= 0 && empty < STARTUP_EMPTY_BUCKETS; bucket--) {
+                    empty = deleteBucket(bucket) ? 0 : empty + 1;
+                }
+            } else {
+                for (long bucket = purgedUpTo + 1; bucket <= lastExpired; bucket++) {
+                    deleteBucket(bucket);
+                    purgedUpTo = bucket;
+                }
+            }
+            purgedUpTo = lastExpired;
+        } catch (Exception e) {
+            logger.warn("[Fiber] Revoked token cleanup failed: {}", e.getMessage());
+        }
+    }
+
+    /** @return whether the bucket had any rows */
+    private boolean deleteBucket(long bucket) {
+        List<RevokedToken> rows = repository.query().where("bucket", bucket).findAll();
+        for (RevokedToken row : rows) {
+            repository.delete(row);
+        }
+        return !rows.isEmpty();
+    }
+
+    /** Stop the cleanup job, and its thread if this store created one. */
+    @Override
+    public void close() {
+        cleanupTask.cancel(false);
+        if (ownExecutor != null) {
+            ownExecutor.shutdownNow();
+        }
+    }
+}
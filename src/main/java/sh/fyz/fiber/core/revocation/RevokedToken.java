@@ -0,0 +1,49 @@
+package sh.fyz.fiber.core.revocation;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import sh.fyz.architect.entities.IdentifiableEntity;
+
+/**
+ * Persisted revocation of one refresh token, used by {@link RepositoryTokenRevocationStore}.
+ *
+ * <p>{@code bucket} is the expiry floored to the store's bucket width, so expired rows are
+ * removed with equality queries on whole buckets.</p>
+ */
+@Entity
+@Table(name = "fiber_revoked_tokens")
+public class RevokedToken implements IdentifiableEntity {
+
+    @Id
+    @Column(length = 64)
+    private String id;
+
+    @Column(name = "expires_at", nullable = false)
+    private long expiresAt;
+
+    @Column(nullable = false)
+    private long bucket;
+
+    public RevokedToken() {}
+
+    public RevokedToken(String id, long expiresAt, long bucket) {
+        this.id = id;
+        this.expiresAt = expiresAt;
+        this.bucket = bucket;
+    }
+
+    @Override
+    public Object getId() {
+        return id;
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public long getBucket() {
+        return bucket;
+    }
+}
@@ -0,0 +1,47 @@
+package sh.fyz.fiber.core.revocation;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Where revoked refresh tokens are remembered until they would have expired anyway.
+ *
+ * <p>Tokens are identified by a compact id ({@code jti} when the token carries one,
+ * otherwise {@link #digest(String)}) rather than by the token string. An entry only has to
+ * outlive the token's {@code exp}: after that the token is rejected as expired, so
+ * implementations may drop it. That keeps the store bounded by the number of revocations
+ * within one refresh-token lifetime.</p>
+ *
+ * <p>The default is {@link InMemoryTokenRevocationStore}; multi-node deployments can use
+ * {@link RepositoryTokenRevocationStore} (or their own implementation) through
+ * {@code FiberServer.setTokenRevocationStore}.</p>
+ */
+public interface TokenRevocationStore {
+
+    /**
+     * @param tokenId         compact token id
+     * @param expiresAtMillis the token's {@code exp}; nothing is stored if it is already past
+     */
+    void revoke(String tokenId, long expiresAtMillis);
+
+    boolean isRevoked(String tokenId);
+
+    /** Drop every entry (tests, key rotation). */
+    void clear();
+
+    /** Release background resources; called by {@code FiberServer.stop()}. */
+    default void close() {}
+
+    /** URL-safe base64 of the first 128 bits of the token's SHA-256 (22 characters). */
+    static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, 16));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -7,8 +7,8 @@ import java.lang.annotation.Target;
 import java.util.concurrent.TimeUnit;
 
 /**
- * Rate-limits an endpoint. Supports fixed-window and sliding-window strategies,
- * keyed by IP or by authenticated user.
+ * Rate-limits an endpoint. Supports fixed-window, sliding-window (exact log or approximate
+ * counter), token-bucket and GCRA strategies, keyed by IP or by authenticated user.
  */
 @Target({ElementType.METHOD, ElementType.TYPE})
 @Retention(RetentionPolicy.RUNTIME)
@@ -33,4 +33,36 @@ public @interface RateLimit {
 
     /** Optional logical key to group multiple endpoints under the same rate-limit bucket. */
     String key() default "";
+
+    /** Limiting algorithm; {@link Algorithm#WINDOW} keeps the {@link #slidingWindow()} choice. */
+    Algorithm algorithm() default Algorithm.WINDOW;
+
+    /**
+     * Largest burst accepted at once by {@link Algorithm#TOKEN_BUCKET} and {@link Algorithm#GCRA};
+     * {@code 0} means {@link #attempts()}. The sustained rate stays {@code attempts} per window.
+     */
+    int burst() default 0;
+
+    enum Algorithm {
+        /** Fixed window, or a sliding log of timestamps when {@link RateLimit#slidingWindow()} is set. */
+        WINDOW,
+        /**
+         * Token bucket refilled continuously at {@code attempts} per window. State is one
+         * {@code AtomicLong} per key updated by CAS, so memory is constant and there are no locks.
+         */
+        TOKEN_BUCKET,
+        /**
+         * Generic cell rate algorithm: tracks the theoretical arrival time of the next request.
+         * Same admission policy as {@link #TOKEN_BUCKET}, expressed as a single deadline; also
+         * one {@code AtomicLong} per key.
+         */
+        GCRA,
+        /**
+         * Approximate sliding window: the previous fixed window's count weighted by its overlap
+         * with the sliding window, plus the current count. Two counters per key instead of one
+         * timestamp per request, and no locks; {@link RateLimit#burst()} does not apply. Limits above
+         * about two million per window are clamped.
+         */
+        SLIDING_COUNTER
+    }
 }
@@ -1,9 +1,9 @@
 package sh.fyz.fiber.core.security.interceptors;
 
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
 import sh.fyz.fiber.core.security.annotations.RateLimit;
 import sh.fyz.fiber.core.security.exceptions.RateLimitExceededException;
+import sh.fyz.fiber.core.security.ratelimit.InMemoryRateLimitStore;
+import sh.fyz.fiber.core.security.ratelimit.RateLimitStore;
 
 import java.lang.reflect.Method;
 import java.time.Instant;
@@ -13,17 +13,7 @@ import java.util.concurrent.*;
 
 public class RateLimitInterceptor {
 
-    private static final int MAX_TRACKED_KEYS = 100_000;
-
-    private static final Cache<String, AttemptInfo> fixedAttempts = Caffeine.newBuilder()
-            .maximumSize(MAX_TRACKED_KEYS)
-            .expireAfterAccess(30, TimeUnit.MINUTES)
-            .build();
-
-    private static final Cache<String, SlidingWindowInfo> slidingAttempts = Caffeine.newBuilder()
-            .maximumSize(MAX_TRACKED_KEYS)
-            .expireAfterAccess(30, TimeUnit.MINUTES)
-            .build();
+    private static volatile RateLimitStore store = new InMemoryRateLimitStore();
 
     // Fixed window — all fields accessed under synchronized(this)
     public static class AttemptInfo {
@@ -34,21 +24,40 @@ public class RateLimitInterceptor {
         private final String message;
 
         public AttemptInfo(RateLimit rateLimit) {
+            this(rateLimit, 1);
+        }
+
+        /** @param count attempts already counted in the window that starts now */
+        public AttemptInfo(RateLimit rateLimit, int count) {
             this.windowSeconds = rateLimit.unit().toSeconds(rateLimit.timeout());
             this.maxAttempts = rateLimit.attempts();
             this.message = rateLimit.message();
-            this.count = 1;
+            this.count = count;
             this.windowStart = Instant.now();
         }
 
         public synchronized void incrementAndCheck() {
+            long retry = tryAcquire(1);
+            if (retry > 0) {
+                throw new RateLimitExceededException(message, retry);
+            }
+        }
+
+        /**
+         * Count {@code permits} attempts if they all fit in the current window.
+         *
+         * @return {@code 0}, or the seconds until the window resets
+         */
+        public synchronized long tryAcquire(int permits) {
             resetIfExpired();
-            this.count++;
+            this.count += permits;
             if (count > maxAttempts && Instant.now().isBefore(windowStart.plusSeconds(windowSeconds))) {
+                // Rejected attempts are not counted: the window is already full either way.
+                this.count -= permits;
                 long elapsed = Instant.now().getEpochSecond() - windowStart.getEpochSecond();
-                long retry = Math.max(1, windowSeconds - elapsed);
-                throw new RateLimitExceededException(message, retry);
+                return Math.max(1, windowSeconds - elapsed);
             }
+            return 0;
         }
 
         private void resetIfExpired() {
@@ -73,11 +82,18 @@ public class RateLimitInterceptor {
         }
 
         public synchronized boolean tryAcquire() {
+            return tryAcquire(1);
+        }
+
+        public synchronized boolean tryAcquire(int permits) {
             evictExpired();
-            if (timestamps.size() >= maxAttempts) {
+            if (timestamps.size() + permits > maxAttempts) {
                 return false;
             }
-            timestamps.addLast(Instant.now());
+            Instant now = Instant.now();
+            for (int i = 0; i < permits; i++) {
+                timestamps.addLast(now);
+            }
             return true;
         }
 
@@ -101,53 +117,64 @@ public class RateLimitInterceptor {
     }
 
     public static String buildCacheKey(String identifier, Method method, RateLimit rateLimit) {
-        // Lowercase the identifier so that "Bob" and "bob" share the same bucket — without
-        // this an attacker can multiply the number of allowed attempts by varying case.
-        String normalized = identifier == null ? "" : identifier.toLowerCase(Locale.ROOT);
         String bucket = rateLimit.key().isEmpty()
                 ? method.getDeclaringClass().getName() + ":" + method.getName()
                 : rateLimit.key();
+        return buildCacheKey(identifier, bucket);
+    }
+
+    public static String buildCacheKey(String identifier, String bucket) {
+        // Lowercase the identifier so that "Bob" and "bob" share the same bucket — without
+        // this an attacker can multiply the number of allowed attempts by varying case.
+        String normalized = identifier == null ? "" : identifier.toLowerCase(Locale.ROOT);
         return normalized + ":" + bucket;
     }
 
-    public static long checkRateLimit(String identifier, Method method) {
+    private static RateLimit resolveRateLimit(Method method) {
         RateLimit rateLimit = method.getAnnotation(RateLimit.class);
-        if (rateLimit == null) return -1;
+        return rateLimit != null ? rateLimit : method.getDeclaringClass().getAnnotation(RateLimit.class);
+    }
 
-        String cacheKey = buildCacheKey(identifier, method, rateLimit);
+    public static long checkRateLimit(String identifier, Method method) {
+        RateLimit rateLimit = resolveRateLimit(method);
+        if (rateLimit == null) return -1;
+        return checkRateLimit(rateLimit, buildCacheKey(identifier, method, rateLimit));
+    }
 
-        if (rateLimit.slidingWindow()) {
-            SlidingWindowInfo info = slidingAttempts.get(cacheKey, k -> new SlidingWindowInfo(rateLimit));
-            if (!info.tryAcquire()) {
-                throw new RateLimitExceededException(rateLimit.message(), info.retryAfterSeconds());
-            }
-        } else {
-            AttemptInfo existing = fixedAttempts.getIfPresent(cacheKey);
-            if (existing == null) {
-                fixedAttempts.put(cacheKey, new AttemptInfo(rateLimit));
-            } else {
-                existing.incrementAndCheck();
-            }
+    /**
+     * @param cacheKey the key from {@link #buildCacheKey(String, String)}, built by the
+     *                 caller from the endpoint's precomputed bucket
+     */
+    public static long checkRateLimit(RateLimit rateLimit, String cacheKey) {
+        long waitNanos = store.tryAcquire(rateLimit, cacheKey, 1);
+        if (waitNanos > 0) {
+            long retry = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+            throw new RateLimitExceededException(rateLimit.message(), retry);
         }
         return -1;
     }
 
     public static void resetRateLimit(String identifier, Method method) {
-        RateLimit rateLimit = method.getAnnotation(RateLimit.class);
+        RateLimit rateLimit = resolveRateLimit(method);
         if (rateLimit == null) return;
+        resetRateLimit(rateLimit, buildCacheKey(identifier, method, rateLimit));
+    }
 
-        String cacheKey = buildCacheKey(identifier, method, rateLimit);
-        if (rateLimit.slidingWindow()) {
-            SlidingWindowInfo info = slidingAttempts.getIfPresent(cacheKey);
-            if (info != null) info.reset();
-        } else {
-            fixedAttempts.invalidate(cacheKey);
-        }
+    public static void resetRateLimit(RateLimit rateLimit, String cacheKey) {
+        store.reset(rateLimit, cacheKey);
+    }
+
+    /** @param rateLimitStore where limits are counted; {@code null} restores the in-memory default */
+    public static void setStore(RateLimitStore rateLimitStore) {
+        store = rateLimitStore != null ? rateLimitStore : new InMemoryRateLimitStore();
+    }
+
+    public static RateLimitStore getStore() {
+        return store;
     }
 
     /** Visible for testing -- clear all tracked state. */
     public static void clearAll() {
-        fixedAttempts.invalidateAll();
-        slidingAttempts.invalidateAll();
+        store.clear();
     }
 }
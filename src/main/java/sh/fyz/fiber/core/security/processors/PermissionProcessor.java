@@ -1,36 +1,25 @@
 package sh.fyz.fiber.core.security.processors;
 
 import sh.fyz.fiber.FiberServer;
-import sh.fyz.fiber.annotations.security.Permission;
-import sh.fyz.fiber.annotations.security.RequireRole;
+import sh.fyz.fiber.core.EndpointDescriptor;
 import sh.fyz.fiber.core.ResponseEntity;
 import sh.fyz.fiber.core.authentication.entities.Role;
 import sh.fyz.fiber.core.authentication.entities.UserAuth;
 
 import java.lang.reflect.Method;
-import java.util.Arrays;
-import java.util.List;
+import java.util.Set;
 
 public class PermissionProcessor {
     public static Object process(Method method, UserAuth user) {
-        RequireRole requireRole = method.getAnnotation(RequireRole.class);
-        if (requireRole == null) {
-            requireRole = method.getDeclaringClass().getAnnotation(RequireRole.class);
-        }
-        Permission permission = method.getAnnotation(Permission.class);
-        if (permission == null) {
-            permission = method.getDeclaringClass().getAnnotation(Permission.class);
-        }
+        return process(EndpointDescriptor.of(method), user);
+    }
 
-        boolean hasRole = true;
-        boolean hasPermission = true;
+    public static Object process(EndpointDescriptor descriptor, UserAuth user) {
+        Set<String> roles = descriptor.getRequiredRoles();
+        Set<String> permissions = descriptor.getRequiredPermissions();
 
-        if (requireRole != null && requireRole.value() != null && !checkRole(user, requireRole)) {
-            hasRole = false;
-        }
-        if (permission != null && permission.value() != null && !checkPermission(user, permission)) {
-            hasPermission = false;
-        }
+        boolean hasRole = roles == null || checkRole(user, roles);
+        boolean hasPermission = permissions == null || checkPermission(user, permissions);
 
         if (!hasRole || !hasPermission) {
             return ResponseEntity.forbidden("Access denied, you do not have the required permissions or role to access this resource.");
@@ -38,21 +27,18 @@ public class PermissionProcessor {
         return null;
     }
 
-    private static boolean checkPermission(UserAuth user, Permission permission) {
+    private static boolean checkPermission(UserAuth user, Set<String> permissions) {
         if (user == null || user.getRole() == null) {
             return false;
         }
-        List<String> permissions = Arrays.asList(permission.value());
         Role userRole = FiberServer.get().getRoleRegistry().getRole(user.getRole());
         return userRole.getPermissions().containsAll(permissions);
     }
 
-    private static boolean checkRole(UserAuth user, RequireRole requireRole) {
+    private static boolean checkRole(UserAuth user, Set<String> roles) {
         if (user == null || user.getRole() == null) {
             return false;
         }
-        String role = user.getRole();
-        List<String> roles = Arrays.asList(requireRole.value());
-        return roles.contains(role);
+        return roles.contains(user.getRole());
     }
 }
@@ -1,6 +1,7 @@
 package sh.fyz.fiber.core.security.processors;
 
 import jakarta.servlet.http.HttpServletRequest;
+import sh.fyz.fiber.core.EndpointDescriptor;
 import sh.fyz.fiber.core.ResponseEntity;
 import sh.fyz.fiber.core.authentication.entities.UserAuth;
 import sh.fyz.fiber.core.security.annotations.RateLimit;
@@ -11,13 +12,20 @@ import sh.fyz.fiber.util.HttpUtil;
 import java.lang.reflect.Method;
 import java.util.Map;
 
+/**
+ * Applies {@code @RateLimit} in two stages.
+ *
+ * <p>{@link #preAuth} runs as soon as the route is known, before CORS, CSRF and
+ * authentication, and enforces IP-keyed limits so that abusive clients are turned away
+ * before any JWT or password work. {@link #postAuth} runs once {@code SecurityPipeline}
+ * has resolved the principal and enforces {@code perUser} limits on {@code user:<id>},
+ * or on the IP when there is no authenticated user. {@link #process} still performs a
+ * single check from resolved arguments for callers outside the router.</p>
+ */
 public class RateLimitProcessor {
 
-    private static RateLimit resolveRateLimit(Method method) {
-        RateLimit rl = method.getAnnotation(RateLimit.class);
-        if (rl != null) return rl;
-        return method.getDeclaringClass().getAnnotation(RateLimit.class);
-    }
+    /** Request attribute set by {@code SecurityPipeline} to the authenticated user's id. */
+    private static final String USER_ID_ATTRIBUTE = "userId";
 
     private static String resolveIdentifier(RateLimit rateLimit, Object[] args, HttpServletRequest request) {
         if (rateLimit.perUser() && args != null) {
@@ -28,37 +36,83 @@ public class RateLimitProcessor {
                 }
             }
         }
+        if (rateLimit.perUser()) {
+            Object id = request.getAttribute(USER_ID_ATTRIBUTE);
+            if (id != null) return "user:" + id;
+        }
         return "ip:" + HttpUtil.getClientIpAddress(request);
     }
 
-    public static Object process(Method method, Object[] args, HttpServletRequest request) {
-        RateLimit rateLimit = resolveRateLimit(method);
-        if (rateLimit == null) return null;
+    /**
+     * Pre-authentication stage: checks limits keyed by IP ({@code perUser = false}).
+     *
+     * @return a 429 response, or {@code null} to continue
+     */
+    public static ResponseEntity<?> preAuth(EndpointDescriptor descriptor, HttpServletRequest request) {
+        RateLimit rateLimit = descriptor.getRateLimit();
+        if (rateLimit == null || rateLimit.perUser()) return null;
+        return check(rateLimit, descriptor, "ip:" + HttpUtil.getClientIpAddress(request));
+    }
 
-        String identifier = resolveIdentifier(rateLimit, args, request);
+    /**
+     * Post-authentication stage: checks {@code perUser} limits against {@code user}, or
+     * against the IP when {@code user} is {@code null} (anonymous or failed authentication).
+     *
+     * @return a 429 response, or {@code null} to continue
+     */
+    public static ResponseEntity<?> postAuth(EndpointDescriptor descriptor, UserAuth user, HttpServletRequest request) {
+        RateLimit rateLimit = descriptor.getRateLimit();
+        if (rateLimit == null || !rateLimit.perUser()) return null;
+        String identifier = user != null && user.getId() != null
+                ? "user:" + user.getId()
+                : "ip:" + HttpUtil.getClientIpAddress(request);
+        return check(rateLimit, descriptor, identifier);
+    }
 
+    private static ResponseEntity<?> check(RateLimit rateLimit, EndpointDescriptor descriptor, String identifier) {
         try {
-            RateLimitInterceptor.checkRateLimit(identifier, method);
+            RateLimitInterceptor.checkRateLimit(rateLimit,
+                    RateLimitInterceptor.buildCacheKey(identifier, descriptor.getRateLimitBucket()));
             return null;
         } catch (RateLimitExceededException e) {
-            Map<String, Object> body = Map.of(
-                "status", 429,
-                "message", e.getMessage(),
-                "retryAfter", e.getRetryAfterSeconds()
-            );
-            return ResponseEntity.tooManyRequest(body)
-                    .header("Retry-After", String.valueOf(e.getRetryAfterSeconds()));
+            return tooManyRequests(e);
         }
     }
 
+    private static ResponseEntity<?> tooManyRequests(RateLimitExceededException e) {
+        Map<String, Object> body = Map.of(
+            "status", 429,
+            "message", e.getMessage(),
+            "retryAfter", e.getRetryAfterSeconds()
+        );
+        return ResponseEntity.tooManyRequest(body)
+                .header("Retry-After", String.valueOf(e.getRetryAfterSeconds()));
+    }
+
+    public static Object process(Method method, Object[] args, HttpServletRequest request) {
+        return process(EndpointDescriptor.of(method), args, request);
+    }
+
+    public static Object process(EndpointDescriptor descriptor, Object[] args, HttpServletRequest request) {
+        RateLimit rateLimit = descriptor.getRateLimit();
+        if (rateLimit == null) return null;
+
+        return check(rateLimit, descriptor, resolveIdentifier(rateLimit, args, request));
+    }
+
     public static void onSuccess(Method method, HttpServletRequest request) {
         onSuccess(method, null, request);
     }
 
     public static void onSuccess(Method method, Object[] args, HttpServletRequest request) {
-        RateLimit rateLimit = resolveRateLimit(method);
+        onSuccess(EndpointDescriptor.of(method), args, request);
+    }
+
+    public static void onSuccess(EndpointDescriptor descriptor, Object[] args, HttpServletRequest request) {
+        RateLimit rateLimit = descriptor.getRateLimit();
         if (rateLimit == null) return;
         String identifier = resolveIdentifier(rateLimit, args, request);
-        RateLimitInterceptor.resetRateLimit(identifier, method);
+        RateLimitInterceptor.resetRateLimit(rateLimit,
+                RateLimitInterceptor.buildCacheKey(identifier, descriptor.getRateLimitBucket()));
     }
 }
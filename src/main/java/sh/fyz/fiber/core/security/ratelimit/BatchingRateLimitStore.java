@@ -0,0 +1,112 @@
+package sh.fyz.fiber.core.security.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import sh.fyz.fiber.core.security.annotations.RateLimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hybrid mode for a shared {@link RateLimitStore}: permits are taken from the delegate in
+ * batches and handed out locally, so a busy key costs one round-trip per batch instead of
+ * one per request.
+ *
+ * <p>A batch may be spent for as long as it would take to earn it at the sustained rate
+ * ({@code batchSize * window / attempts}); permits left over after that, or when the batch
+ * is replaced by a concurrent refill, are dropped. The delegate therefore never grants more
+ * than its limit, but a node can hold permits that another node is refused, and a batch
+ * taken just before a fixed window ends may still be spent just after it. When a full batch
+ * is refused the request falls back to a single permit, so keys close to their limit are
+ * counted one by one.</p>
+ */
+public class BatchingRateLimitStore implements RateLimitStore {
+
+    private static final int MAX_TRACKED_KEYS = 100_000;
+
+    private final RateLimitStore delegate;
+    private final int batchSize;
+    private final Cache<String, Batch> batches = Caffeine.newBuilder()
+            .maximumSize(MAX_TRACKED_KEYS)
+            .expireAfterAccess(30, TimeUnit.MINUTES)
+            .build();
+
+    private static final class Batch {
+        private final AtomicInteger remaining;
+        private final long expiresAtNanos;
+
+        private Batch(int remaining, long expiresAtNanos) {
+            this.remaining = new AtomicInteger(remaining);
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        private boolean take(long now) {
+            if (now - expiresAtNanos >= 0) {
+                return false;
+            }
+            while (true) {
+                int current = remaining.get();
+                if (current <= 0) {
+                    return false;
+                }
+                if (remaining.compareAndSet(current, current - 1)) {
+                    return true;
+                }
+            }
+        }
+    }
+
+    /**
+     * @param batchSize permits taken from {@code delegate} per round-trip, capped by each
+     *                  limit's own maximum
+     */
+    public BatchingRateLimitStore(RateLimitStore delegate, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be at least 1");
+        }
+        this.delegate = delegate;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public long tryAcquire(RateLimit rateLimit, String key, int permits) {
+        if (permits != 1) {
+            return delegate.tryAcquire(rateLimit, key, permits);
+        }
+        long now = System.nanoTime();
+        Batch batch = batches.getIfPresent(key);
+        if (batch != null && batch.take(now)) {
+            return 0;
+        }
+
+        int size = Math.min(batchSize, RateLimitStore.maxPermits(rateLimit));
+        if (size > 1 && delegate.tryAcquire(rateLimit, key, size) == 0) {
+            long windowNanos = rateLimit.unit().toNanos(rateLimit.timeout());
+            long lease = windowNanos / Math.max(1, rateLimit.attempts()) * size;
+            batches.put(key, new Batch(size - 1, now + lease));
+            return 0;
+        }
+        return delegate.tryAcquire(rateLimit, key, 1);
+    }
+
+    @Override
+    public void reset(RateLimit rateLimit, String key) {
+        batches.invalidate(key);
+        delegate.reset(rateLimit, key);
+    }
+
+    @Override
+    public void clear() {
+        batches.invalidateAll();
+        delegate.clear();
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    public RateLimitStore getDelegate() {
+        return delegate;
+    }
+}
@@ -0,0 +1,144 @@
+package sh.fyz.fiber.core.security.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free admission checks on a single {@link AtomicLong} per key, driven by
+ * {@link System#nanoTime()}.
+ *
+ * <p>Both algorithms admit {@code capacity} requests at once and then one every
+ * {@code intervalNanos} (window / attempts). The token bucket stores the virtual time at
+ * which the bucket was last empty; GCRA stores the theoretical arrival time (TAT) of the
+ * next request. A fresh key starts at {@link #NEW_STATE}. Each call is one read and, when
+ * the request is admitted, one CAS, retried only under contention on that key.</p>
+ *
+ * <p>Every check takes {@code permits} at once or none, and a rejection reports the wait
+ * for a single permit.</p>
+ *
+ * <p>The sliding-window counter packs three 21-bit fields into its long: the low bits of the
+ * current window index, the previous window's count and the current window's count. A fresh
+ * key starts at {@code 0}.</p>
+ */
+final class CasRateLimiter {
+
+    /** Initial state for a key: older than any real {@code nanoTime()} value. */
+    static final long NEW_STATE = Long.MIN_VALUE;
+
+    /** Largest count a sliding-window counter can hold; higher limits are clamped to it. */
+    static final int MAX_WINDOW_COUNT = (1 << 21) - 1;
+
+    private static final int FIELD_BITS = 21;
+    private static final long FIELD_MASK = MAX_WINDOW_COUNT;
+
+    /** Window indices are counted from here so they stay positive. */
+    private static final long ORIGIN = System.nanoTime();
+
+    private CasRateLimiter() {}
+
+    /**
+     * @return {@code 0} if admitted, otherwise the nanoseconds until a token is available
+     */
+    static long tokenBucket(AtomicLong emptyAt, long now, long intervalNanos, long capacity, int permits) {
+        long full = now - capacity * intervalNanos;
+        while (true) {
+            long current = emptyAt.get();
+            // A bucket idle for long enough is full: never credit more than capacity tokens.
+            long base = Math.max(current, full);
+            long next = base + permits * intervalNanos;
+            if (next > now) {
+                return Math.max(1, base + intervalNanos - now);
+            }
+            if (emptyAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * @return {@code 0} if admitted, otherwise the nanoseconds until the request would conform
+     */
+    static long gcra(AtomicLong tat, long now, long intervalNanos, long capacity, int permits) {
+        long tolerance = (capacity - 1) * intervalNanos;
+        while (true) {
+            long current = tat.get();
+            long base = Math.max(current, now);
+            if (base + (permits - 1) * intervalNanos - tolerance > now) {
+                return Math.max(1, base - tolerance - now);
+            }
+            if (tat.compareAndSet(current, base + permits * intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Approximate sliding window: the previous fixed window's count, weighted by how much of
+     * it still overlaps the sliding window, plus the current window's count.
+     *
+     * <p>Only the low 21 bits of the window index are kept, so a key left idle for exactly a
+     * multiple of 2<sup>21</sup> windows would see stale counts; idle keys are evicted from
+     * the caches long before that for any window of a millisecond or more.</p>
+     *
+     * @return {@code 0} if admitted, otherwise the nanoseconds until the estimate drops below the limit
+     */
+    static long slidingCounter(AtomicLong state, long now, long windowNanos, int limit, int permits) {
+        limit = Math.min(limit, MAX_WINDOW_COUNT);
+        long elapsedTotal = now - ORIGIN;
+        long window = elapsedTotal / windowNanos;
+        long intoWindow = elapsedTotal - window * windowNanos;
+        long windowBits = window & FIELD_MASK;
+
+        while (true) {
+            long current = state.get();
+            long storedWindow = current >>> (2 * FIELD_BITS);
+            long previousCount;
+            long currentCount;
+            long age = (windowBits - storedWindow) & FIELD_MASK;
+            if (age == 0) {
+                previousCount = (current >>> FIELD_BITS) & FIELD_MASK;
+                currentCount = current & FIELD_MASK;
+            } else if (age == 1) {
+                previousCount = current & FIELD_MASK;
+                currentCount = 0;
+            } else {
+                previousCount = 0;
+                currentCount = 0;
+            }
+
+            double overlap = (double) (windowNanos - intoWindow) / windowNanos;
+            if (previousCount * overlap + currentCount + permits > limit) {
+                return slidingCounterWait(windowNanos, intoWindow, previousCount, currentCount, limit, permits);
+            }
+            long next = (windowBits << (2 * FIELD_BITS)) | (previousCount << FIELD_BITS) | (currentCount + permits);
+            if (state.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Time until {@code permits} more requests fit under a sliding-window counter, in the unit
+     * of {@code window}; also used by {@link PostgresRateLimitStore}.
+     */
+    static long slidingCounterWait(long window, long intoWindow, long previousCount,
+                                   long currentCount, long limit, long permits) {
+        long untilNextWindow = window - intoWindow;
+        double wait;
+        if (currentCount + permits <= limit) {
+            if (previousCount == 0) {
+                // Nothing left to slide out; only rounding can get here.
+                return Math.max(1, untilNextWindow);
+            }
+            // Wait until enough of the previous window has slid out.
+            double needed = window - (double) (limit - permits - currentCount) * window / previousCount;
+            wait = needed - intoWindow;
+        } else if (currentCount == 0 || permits > limit) {
+            wait = untilNextWindow;
+        } else {
+            // Next window: this window becomes the previous one and has to slide out in turn.
+            double needed = window - (double) (limit - permits) * window / currentCount;
+            wait = untilNextWindow + Math.max(0, needed);
+        }
+        return Math.max(1, (long) Math.ceil(wait));
+    }
+}
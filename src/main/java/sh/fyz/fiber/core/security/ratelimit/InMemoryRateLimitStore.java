@@ -0,0 +1,88 @@
+package sh.fyz.fiber.core.security.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import sh.fyz.fiber.core.security.annotations.RateLimit;
+import sh.fyz.fiber.core.security.interceptors.RateLimitInterceptor.AttemptInfo;
+import sh.fyz.fiber.core.security.interceptors.RateLimitInterceptor.SlidingWindowInfo;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Default {@link RateLimitStore}: Caffeine caches bounded to 100k keys per algorithm, each
+ * idle key dropped after 30 minutes. State is local to this JVM.
+ */
+public class InMemoryRateLimitStore implements RateLimitStore {
+
+    private static final int MAX_TRACKED_KEYS = 100_000;
+
+    private final Cache<String, AttemptInfo> fixedAttempts = newCache();
+    private final Cache<String, SlidingWindowInfo> slidingAttempts = newCache();
+    // Token bucket / GCRA / sliding counter — one CAS-updated long per key, see CasRateLimiter
+    private final Cache<String, AtomicLong> tokenBuckets = newCache();
+    private final Cache<String, AtomicLong> gcraStates = newCache();
+    private final Cache<String, AtomicLong> slidingCounters = newCache();
+
+    private static <V> Cache<String, V> newCache() {
+        return Caffeine.newBuilder()
+                .maximumSize(MAX_TRACKED_KEYS)
+                .expireAfterAccess(30, TimeUnit.MINUTES)
+                .build();
+    }
+
+    @Override
+    public long tryAcquire(RateLimit rateLimit, String key, int permits) {
+        long windowNanos = rateLimit.unit().toNanos(rateLimit.timeout());
+        long interval = Math.max(1, windowNanos / Math.max(1, rateLimit.attempts()));
+        long now = System.nanoTime();
+
+        return switch (rateLimit.algorithm()) {
+            case TOKEN_BUCKET -> CasRateLimiter.tokenBucket(
+                    tokenBuckets.get(key, k -> new AtomicLong(CasRateLimiter.NEW_STATE)),
+                    now, interval, RateLimitStore.capacity(rateLimit), permits);
+            case GCRA -> CasRateLimiter.gcra(
+                    gcraStates.get(key, k -> new AtomicLong(CasRateLimiter.NEW_STATE)),
+                    now, interval, RateLimitStore.capacity(rateLimit), permits);
+            case SLIDING_COUNTER -> CasRateLimiter.slidingCounter(
+                    slidingCounters.get(key, k -> new AtomicLong()),
+                    now, windowNanos, rateLimit.attempts(), permits);
+            case WINDOW -> {
+                long retrySeconds;
+                if (rateLimit.slidingWindow()) {
+                    SlidingWindowInfo info = slidingAttempts.get(key, k -> new SlidingWindowInfo(rateLimit));
+                    retrySeconds = info.tryAcquire(permits) ? 0 : Math.max(1, info.retryAfterSeconds());
+                } else {
+                    retrySeconds = fixedAttempts.get(key, k -> new AttemptInfo(rateLimit, 0)).tryAcquire(permits);
+                }
+                yield TimeUnit.SECONDS.toNanos(retrySeconds);
+            }
+        };
+    }
+
+    @Override
+    public void reset(RateLimit rateLimit, String key) {
+        switch (rateLimit.algorithm()) {
+            case TOKEN_BUCKET -> tokenBuckets.invalidate(key);
+            case GCRA -> gcraStates.invalidate(key);
+            case SLIDING_COUNTER -> slidingCounters.invalidate(key);
+            case WINDOW -> {
+                if (rateLimit.slidingWindow()) {
+                    SlidingWindowInfo info = slidingAttempts.getIfPresent(key);
+                    if (info != null) info.reset();
+                } else {
+                    fixedAttempts.invalidate(key);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        fixedAttempts.invalidateAll();
+        slidingAttempts.invalidateAll();
+        tokenBuckets.invalidateAll();
+        gcraStates.invalidateAll();
+        slidingCounters.invalidateAll();
+    }
+}
@@ -0,0 +1,305 @@
+package sh.fyz.fiber.core.security.ratelimit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import sh.fyz.fiber.FiberServer;
+import sh.fyz.fiber.core.security.annotations.RateLimit;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link RateLimitStore} shared by every node through the PostgreSQL table
+ * {@code fiber_rate_limits}, created (unlogged) on first use.
+ *
+ * <p>Each check is one {@code INSERT ... ON CONFLICT DO UPDATE ... WHERE ... RETURNING}:
+ * the row is only changed when the permits fit, so admission is atomic without explicit
+ * locks or transactions. Window algorithms keep the current and previous window counts
+ * ({@code slidingWindow()} is served by the weighted counter, as
+ * {@link RateLimit.Algorithm#SLIDING_COUNTER}); token bucket and GCRA keep a theoretical
+ * arrival time. A rejection costs one more {@code SELECT} to compute {@code Retry-After}.
+ * Windows are aligned on the epoch, so nodes should have synchronised clocks.</p>
+ *
+ * <p>If the database cannot be reached, limits are enforced per node by an
+ * {@link InMemoryRateLimitStore} until it answers again (retried every few seconds), so an
+ * outage neither takes limited endpoints down nor lifts brute-force protection. The outage
+ * is logged once, then at most once a minute. Use {@link #batched(int)} for the hybrid mode
+ * that takes permits in batches.</p>
+ */
+public class PostgresRateLimitStore implements RateLimitStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostgresRateLimitStore.class);
+
+    private static final String CREATE_TABLE =
+            "CREATE UNLOGGED TABLE IF NOT EXISTS fiber_rate_limits ("
+                    + "key TEXT PRIMARY KEY, "
+                    + "window_index BIGINT NOT NULL DEFAULT 0, "
+                    + "current_count BIGINT NOT NULL DEFAULT 0, "
+                    + "previous_count BIGINT NOT NULL DEFAULT 0, "
+                    + "tat BIGINT NOT NULL DEFAULT 0, "
+                    + "expires_at BIGINT NOT NULL)";
+    private static final String CREATE_INDEX =
+            "CREATE INDEX IF NOT EXISTS fiber_rate_limits_expires_at ON fiber_rate_limits (expires_at)";
+
+    // Counts carried into EXCLUDED.window_index: same window, the one before it, or older.
+    private static final String PREVIOUS =
+            "CASE WHEN r.window_index = EXCLUDED.window_index THEN r.previous_count "
+                    + "WHEN r.window_index = EXCLUDED.window_index - 1 THEN r.current_count ELSE 0 END";
+    private static final String CURRENT =
+            "CASE WHEN r.window_index = EXCLUDED.window_index THEN r.current_count ELSE 0 END";
+
+    /** Params: key, window, permits, expires_at, previous-window weight, limit. */
+    private static final String ACQUIRE_WINDOW =
+            "INSERT INTO fiber_rate_limits AS r (key, window_index, current_count, previous_count, expires_at) "
+                    + "VALUES (?, ?, ?, 0, ?) "
+                    + "ON CONFLICT (key) DO UPDATE SET "
+                    + "previous_count = " + PREVIOUS + ", "
+                    + "current_count = " + CURRENT + " + EXCLUDED.current_count, "
+                    + "window_index = EXCLUDED.window_index, "
+                    + "expires_at = EXCLUDED.expires_at "
+                    + "WHERE (" + PREVIOUS + ") * ?::float8 + " + CURRENT + " + EXCLUDED.current_count <= ? "
+                    + "RETURNING 1";
+    private static final String SELECT_WINDOW =
+            "SELECT window_index, current_count, previous_count FROM fiber_rate_limits WHERE key = ?";
+
+    /** Params: key, tat, expires_at, now, cost, now, offset, now (times in microseconds). */
+    private static final String ACQUIRE_TAT =
+            "INSERT INTO fiber_rate_limits AS r (key, tat, expires_at) VALUES (?, ?, ?) "
+                    + "ON CONFLICT (key) DO UPDATE SET "
+                    + "tat = GREATEST(r.tat, ?) + ?, "
+                    + "expires_at = EXCLUDED.expires_at "
+                    + "WHERE GREATEST(r.tat, ?) + ? <= ? "
+                    + "RETURNING 1";
+    private static final String SELECT_TAT = "SELECT tat FROM fiber_rate_limits WHERE key = ?";
+
+    private static final String DELETE_KEY = "DELETE FROM fiber_rate_limits WHERE key = ?";
+    private static final String DELETE_EXPIRED = "DELETE FROM fiber_rate_limits WHERE expires_at < ?";
+    private static final String DELETE_ALL = "DELETE FROM fiber_rate_limits";
+
+    private static final long RETRY_NANOS = TimeUnit.SECONDS.toNanos(5);
+    private static final long WARN_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final DataSource dataSource;
+    private final ScheduledExecutorService ownExecutor;
+    private final ScheduledFuture<?> cleanup;
+
+    // Used while the database is failing; limits then apply per node.
+    private final InMemoryRateLimitStore fallback = new InMemoryRateLimitStore();
+    private volatile boolean failing;
+    private volatile long retryAt;
+    private final AtomicLong lastWarning = new AtomicLong();
+    private final AtomicLong fallbackChecks = new AtomicLong();
+
+    public PostgresRateLimitStore(DataSource dataSource) {
+        this.dataSource = dataSource;
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(CREATE_TABLE);
+            statement.execute(CREATE_INDEX);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not create fiber_rate_limits", e);
+        }
+
+        ScheduledExecutorService executor = null;
+        try {
+            executor = FiberServer.get().getSharedExecutor();
+        } catch (Exception ignored) {
+            // FiberServer not initialised — fall back to a private virtual-thread executor.
+        }
+        if (executor == null) {
+            executor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = Thread.ofVirtual().name("fiber-rate-limit-cleanup-").unstarted(r);
+                t.setDaemon(true);
+                return t;
+            });
+            this.ownExecutor = executor;
+        } else {
+            this.ownExecutor = null;
+        }
+        this.cleanup = executor.scheduleAtFixedRate(this::purgeExpired, 1, 1, TimeUnit.MINUTES);
+    }
+
+    /** Hybrid mode: this store behind a {@link BatchingRateLimitStore} of {@code batchSize} permits. */
+    public BatchingRateLimitStore batched(int batchSize) {
+        return new BatchingRateLimitStore(this, batchSize);
+    }
+
+    @Override
+    public long tryAcquire(RateLimit rateLimit, String key, int permits) {
+        long windowMicros = rateLimit.unit().toMicros(rateLimit.timeout());
+        if (permits > RateLimitStore.maxPermits(rateLimit)) {
+            return TimeUnit.MICROSECONDS.toNanos(windowMicros);
+        }
+        if (failing && System.nanoTime() - retryAt < 0) {
+            fallbackChecks.incrementAndGet();
+            return fallback.tryAcquire(rateLimit, key, permits);
+        }
+        long nowMicros = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+        try (Connection connection = dataSource.getConnection()) {
+            long waitMicros = switch (rateLimit.algorithm()) {
+                case TOKEN_BUCKET, GCRA -> acquireTat(connection, rateLimit, "t:" + key, permits, nowMicros, windowMicros);
+                default -> acquireWindow(connection, rateLimit, "w:" + key, permits, nowMicros, windowMicros);
+            };
+            if (failing) {
+                failing = false;
+                logger.info("[Fiber] Rate limit store reachable again after {} local checks",
+                        fallbackChecks.getAndSet(0));
+            }
+            return TimeUnit.MICROSECONDS.toNanos(waitMicros);
+        } catch (SQLException e) {
+            onFailure(e);
+            fallbackChecks.incrementAndGet();
+            return fallback.tryAcquire(rateLimit, key, permits);
+        }
+    }
+
+    private void onFailure(SQLException e) {
+        long now = System.nanoTime();
+        retryAt = now + RETRY_NANOS;
+        boolean first = !failing;
+        failing = true;
+        long last = lastWarning.get();
+        if ((first || now - last >= WARN_INTERVAL_NANOS) && lastWarning.compareAndSet(last, now)) {
+            logger.warn("[Fiber] Rate limit store unavailable, enforcing limits per node until it recovers "
+                    + "({} local checks so far): {}", fallbackChecks.get(), e.getMessage());
+        }
+    }
+
+    /** Whether limits are currently enforced by the local fallback. */
+    public boolean isFailing() {
+        return failing;
+    }
+
+    private long acquireWindow(Connection connection, RateLimit rateLimit, String key, int permits,
+                               long nowMicros, long windowMicros) throws SQLException {
+        boolean weighted = rateLimit.algorithm() == RateLimit.Algorithm.SLIDING_COUNTER || rateLimit.slidingWindow();
+        long window = nowMicros / windowMicros;
+        long intoWindow = nowMicros - window * windowMicros;
+        double weight = weighted ? (double) (windowMicros - intoWindow) / windowMicros : 0;
+        long expiresAtMillis = TimeUnit.MICROSECONDS.toMillis((window + 2) * windowMicros);
+
+        try (PreparedStatement statement = connection.prepareStatement(ACQUIRE_WINDOW)) {
+            statement.setString(1, key);
+            statement.setLong(2, window);
+            statement.setLong(3, permits);
+            statement.setLong(4, expiresAtMillis);
+            statement.setDouble(5, weight);
+            statement.setLong(6, rateLimit.attempts());
+            if (admitted(statement)) {
+                return 0;
+            }
+        }
+
+        long previous = 0;
+        long current = 0;
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_WINDOW)) {
+            statement.setString(1, key);
+            try (ResultSet rs = statement.executeQuery()) {
+                if (rs.next()) {
+                    long stored = rs.getLong(1);
+                    if (stored == window) {
+                        previous = rs.getLong(3);
+                        current = rs.getLong(2);
+                    } else if (stored == window - 1) {
+                        previous = rs.getLong(2);
+                    }
+                }
+            }
+        }
+        if (!weighted) {
+            return windowMicros - intoWindow;
+        }
+        return CasRateLimiter.slidingCounterWait(windowMicros, intoWindow, previous, current, rateLimit.attempts(), permits);
+    }
+
+    private long acquireTat(Connection connection, RateLimit rateLimit, String key, int permits,
+                            long nowMicros, long windowMicros) throws SQLException {
+        long interval = Math.max(1, windowMicros / Math.max(1, rateLimit.attempts()));
+        long tolerance = (RateLimitStore.capacity(rateLimit) - 1) * interval;
+        long cost = permits * interval;
+
+        try (PreparedStatement statement = connection.prepareStatement(ACQUIRE_TAT)) {
+            statement.setString(1, key);
+            statement.setLong(2, nowMicros + cost);
+            statement.setLong(3, TimeUnit.MICROSECONDS.toMillis(nowMicros + cost + tolerance) + 1);
+            statement.setLong(4, nowMicros);
+            statement.setLong(5, cost);
+            statement.setLong(6, nowMicros);
+            statement.setLong(7, cost - interval - tolerance);
+            statement.setLong(8, nowMicros);
+            if (admitted(statement)) {
+                return 0;
+            }
+        }
+
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_TAT)) {
+            statement.setString(1, key);
+            try (ResultSet rs = statement.executeQuery()) {
+                long tat = rs.next() ? rs.getLong(1) : nowMicros;
+                return Math.max(1, Math.max(tat, nowMicros) - tolerance - nowMicros);
+            }
+        }
+    }
+
+    private static boolean admitted(PreparedStatement statement) throws SQLException {
+        try (ResultSet rs = statement.executeQuery()) {
+            return rs.next();
+        }
+    }
+
+    @Override
+    public void reset(RateLimit rateLimit, String key) {
+        fallback.reset(rateLimit, key);
+        String prefix = switch (rateLimit.algorithm()) {
+            case TOKEN_BUCKET, GCRA -> "t:";
+            default -> "w:";
+        };
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(DELETE_KEY)) {
+            statement.setString(1, prefix + key);
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            logger.debug("[Fiber] Could not reset a rate limit: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void clear() {
+        fallback.clear();
+        execute(DELETE_ALL, null);
+    }
+
+    /** Delete rows that no longer affect any decision. Runs every minute. */
+    public void purgeExpired() {
+        execute(DELETE_EXPIRED, System.currentTimeMillis());
+    }
+
+    private void execute(String sql, Long param) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            if (param != null) {
+                statement.setLong(1, param);
+            }
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            logger.warn("[Fiber] Rate limit cleanup failed: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        cleanup.cancel(false);
+        if (ownExecutor != null) {
+            ownExecutor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package sh.fyz.fiber.core.security.ratelimit;
+
+import sh.fyz.fiber.core.security.annotations.RateLimit;
+
+/**
+ * Where rate-limit state lives.
+ *
+ * <p>Keys come from {@code RateLimitInterceptor.buildCacheKey} (identifier and bucket). The
+ * default {@link InMemoryRateLimitStore} is per JVM, so behind a load balancer each node
+ * grants the full quota; {@link PostgresRateLimitStore} shares the counters between nodes,
+ * and {@link BatchingRateLimitStore} in front of it trades a little precision for fewer
+ * round-trips. Select one with {@code FiberServer.setRateLimitStore}.</p>
+ */
+public interface RateLimitStore extends AutoCloseable {
+
+    /**
+     * Take {@code permits} from {@code key}'s limit at once, or none of them.
+     *
+     * @return {@code 0} if granted, otherwise the nanoseconds (at least 1) until a single
+     *         permit would be granted
+     */
+    long tryAcquire(RateLimit rateLimit, String key, int permits);
+
+    /** Forget {@code key}'s state, as after a successful login. */
+    void reset(RateLimit rateLimit, String key);
+
+    /** Drop all state (tests). */
+    void clear();
+
+    @Override
+    default void close() {}
+
+    /** Burst size of the token bucket and GCRA: {@code burst()}, else {@code attempts()}. */
+    static int capacity(RateLimit rateLimit) {
+        return rateLimit.burst() > 0 ? rateLimit.burst() : rateLimit.attempts();
+    }
+
+    /** Most permits {@code rateLimit} can ever grant at once. */
+    static int maxPermits(RateLimit rateLimit) {
+        return switch (rateLimit.algorithm()) {
+            case TOKEN_BUCKET, GCRA -> capacity(rateLimit);
+            default -> rateLimit.attempts();
+        };
+    }
+}
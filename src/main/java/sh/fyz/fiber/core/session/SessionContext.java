@@ -1,18 +1,49 @@
 package sh.fyz.fiber.core.session;
 
+import sh.fyz.fiber.FiberServer;
+
 public class SessionContext {
 
     private static final ThreadLocal<FiberSession> CURRENT_SESSION = new ThreadLocal<>();
+    private static final ThreadLocal<String> CURRENT_SESSION_ID = new ThreadLocal<>();
 
     public static void set(FiberSession session) {
         CURRENT_SESSION.set(session);
+        CURRENT_SESSION_ID.set(session != null ? session.getSessionId() : null);
+    }
+
+    /**
+     * Record the current session by id only; {@link #current()} loads it from the
+     * {@link SessionService} the first time something asks for it. Used by stateless
+     * session validation, where most requests never need the session row.
+     */
+    public static void setLazy(String sessionId) {
+        CURRENT_SESSION.remove();
+        CURRENT_SESSION_ID.set(sessionId);
     }
 
     public static FiberSession current() {
-        return CURRENT_SESSION.get();
+        FiberSession session = CURRENT_SESSION.get();
+        if (session == null) {
+            String sessionId = CURRENT_SESSION_ID.get();
+            if (sessionId != null) {
+                SessionService service = FiberServer.get().getSessionService();
+                session = service != null ? service.getSession(sessionId) : null;
+                if (session != null) {
+                    CURRENT_SESSION.set(session);
+                }
+            }
+        }
+        return session;
+    }
+
+    /** Id of the current session without loading it, or {@code null}. */
+    public static String currentId() {
+        return CURRENT_SESSION_ID.get();
     }
 
     public static void clear() {
         CURRENT_SESSION.remove();
+        CURRENT_SESSION_ID.remove();
     }
 }
@@ -2,34 +2,76 @@ package sh.fyz.fiber.core.session;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
 import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import sh.fyz.architect.repositories.GenericRepository;
+import sh.fyz.fiber.core.JwtUtil;
 import sh.fyz.fiber.core.authentication.entities.UserAuth;
+import sh.fyz.fiber.core.invalidation.InvalidationBus;
 import sh.fyz.fiber.util.HttpUtil;
 
 import sh.fyz.fiber.FiberServer;
 
+import javax.sql.DataSource;
+import java.sql.SQLException;
 import java.time.Duration;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 public class SessionService {
 
+    private static final Logger logger = LoggerFactory.getLogger(SessionService.class);
+    private static final int CLEANUP_PAGE_SIZE = 1_000;
+    private static final int MAX_RECENTLY_REVOKED = 100_000;
+    private static final Duration DEFAULT_SESSION_CACHE_TTL = Duration.ofSeconds(30);
+
     private final GenericRepository<FiberSession> repository;
     private final long sessionTtlMillis;
     private final ScheduledExecutorService cleanupExecutor;
     private final Cache<String, Optional<FiberSession>> sessionCache;
 
+    /** Write-behind touches: session id -> latest access time not yet persisted. */
+    private final Map<String, Long> pendingTouches = new ConcurrentHashMap<>();
+    private volatile ScheduledFuture<?> touchFlushTask;
+    private volatile SessionSql sql;
+    private volatile InvalidationBus invalidationBus;
+
+    /**
+     * Sessions revoked recently enough that access tokens naming them may still be
+     * unexpired: kept for one access-token lifetime (plus a minute of clock skew). Losing an
+     * entry to the size bound would let its tokens through, so that falls back to stateful
+     * checks for one lifetime instead.
+     */
+    private final Cache<String, Boolean> recentlyRevoked = Caffeine.newBuilder()
+            .maximumSize(MAX_RECENTLY_REVOKED)
+            .expireAfter(Expiry.<String, Boolean>creating((id, revoked) -> revocationWindow()))
+            .evictionListener((String id, Boolean revoked, RemovalCause cause) -> {
+                if (cause == RemovalCause.SIZE) {
+                    suspendStatelessValidation();
+                }
+            })
+            .build();
+    private volatile boolean statelessValidation;
+    /** Epoch millis until which stateless validation falls back to loading the session. */
+    private volatile long statefulUntil;
+
     public SessionService(GenericRepository<FiberSession> repository, long sessionTtlMillis) {
         this.repository = repository;
         this.sessionTtlMillis = sessionTtlMillis;
 
         this.sessionCache = Caffeine.newBuilder()
                 .maximumSize(50_000)
-                .expireAfterWrite(Duration.ofSeconds(30))
+                .expireAfterWrite(DEFAULT_SESSION_CACHE_TTL)
                 .build();
 
         ScheduledExecutorService shared = null;
@@ -54,6 +96,110 @@ public class SessionService {
         this(repository, 7 * 24 * 60 * 60 * 1000L);
     }
 
+    /**
+     * Give the service direct access to the {@code fiber_sessions} database (PostgreSQL).
+     * Expiry cleanup, per-user invalidation and write-behind touch flushes then run as
+     * set-based statements instead of loading and saving one row at a time. {@code null}
+     * goes back to the repository-only behaviour.
+     */
+    public void setDataSource(DataSource dataSource) {
+        this.sql = dataSource != null ? new SessionSql(dataSource) : null;
+    }
+
+    /**
+     * How long a loaded session is served from memory before it is read again (default 30
+     * seconds). Revocations through this service always evict it at once; the TTL bounds how
+     * long a change made elsewhere (another node without an {@link InvalidationBus}, a direct
+     * database update) goes unnoticed. With a bus configured, minutes are reasonable.
+     */
+    public void setSessionCacheTtl(Duration ttl) {
+        if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Session cache TTL must be positive");
+        }
+        sessionCache.policy().expireAfterWrite().ifPresent(policy -> policy.setExpiresAfter(ttl));
+    }
+
+    /**
+     * Publish session revocations on {@code bus} and apply the ones other nodes publish,
+     * so a session revoked anywhere stops being accepted here without waiting for the
+     * cache to expire. Wired by {@code FiberServer.setInvalidationBus}.
+     */
+    public void setInvalidationBus(InvalidationBus bus) {
+        if (bus == null || bus == invalidationBus) {
+            return;
+        }
+        this.invalidationBus = bus;
+        bus.subscribe(InvalidationBus.SESSION, sessionId -> {
+            if (InvalidationBus.ALL.equals(sessionId)) {
+                // Revocations may have been missed: the recently-revoked set cannot be trusted.
+                suspendStatelessValidation();
+                sessionCache.invalidateAll();
+                JwtUtil.clearVerifiedTokens();
+            } else {
+                forget(sessionId);
+            }
+        });
+    }
+
+    /**
+     * Stateless validation: authenticated requests accept any access token whose session
+     * is not in this node's recently-revoked set, without reading the session store. The
+     * token itself carries the user, IP and User-Agent; the {@link FiberSession} is only
+     * loaded when the endpoint asks for it ({@code @CurrentSession}, {@code getSession()}).
+     * Refresh still checks the stored session.
+     *
+     * <p>Revocations reach this set through this service's invalidate methods and, with
+     * several nodes, through the {@link InvalidationBus}. Session expiry is enforced when
+     * the access token expires rather than on each request.</p>
+     *
+     * <p>The set only holds what this node saw. After enabling (so after every restart),
+     * after the bus announces {@link InvalidationBus#ALL} (reconnect), and if the set
+     * overflows, sessions are loaded and checked as in stateful mode for one access-token
+     * lifetime, until every token issued before the blind spot has expired.</p>
+     */
+    public void setStatelessValidation(boolean statelessValidation) {
+        if (statelessValidation && !this.statelessValidation) {
+            suspendStatelessValidation();
+        }
+        this.statelessValidation = statelessValidation;
+    }
+
+    public boolean isStatelessValidation() {
+        return statelessValidation;
+    }
+
+    /**
+     * Whether requests may be validated against the recently-revoked set alone right now:
+     * stateless validation is enabled and not within a stateful fallback window.
+     */
+    public boolean isStatelessValidationActive() {
+        return statelessValidation && System.currentTimeMillis() >= statefulUntil;
+    }
+
+    private void suspendStatelessValidation() {
+        long until = System.currentTimeMillis() + revocationWindow().toMillis();
+        if (until > statefulUntil) {
+            statefulUntil = until;
+        }
+    }
+
+    private static Duration revocationWindow() {
+        return Duration.ofMillis(accessTokenValidity() + 60_000);
+    }
+
+    /** Whether {@code sessionId} was revoked within the last access-token lifetime. */
+    public boolean isRecentlyRevoked(String sessionId) {
+        return recentlyRevoked.getIfPresent(sessionId) != null;
+    }
+
+    private static long accessTokenValidity() {
+        try {
+            return JwtUtil.getAccessTokenValidity();
+        } catch (RuntimeException e) {
+            return Duration.ofHours(1).toMillis();
+        }
+    }
+
     public FiberSession createSession(UserAuth user, HttpServletRequest request) {
         String ipAddress = HttpUtil.getClientIpAddress(request);
         String userAgent = request.getHeader("User-Agent");
@@ -89,15 +235,20 @@ public class SessionService {
     }
 
     public void invalidate(String sessionId) {
+        pendingTouches.remove(sessionId);
         FiberSession session = repository.findById(sessionId);
         if (session != null) {
             session.setActive(false);
             repository.save(session);
         }
-        sessionCache.invalidate(sessionId);
+        forget(sessionId);
+        broadcast(sessionId);
     }
 
     public void invalidateAllForUser(Object userId) {
+        if (invalidateWithSql(userId, null)) {
+            return;
+        }
         List<FiberSession> sessions = repository.query()
                 .where("userId", String.valueOf(userId))
                 .where("active", true)
@@ -105,11 +256,15 @@ public class SessionService {
         for (FiberSession session : sessions) {
             session.setActive(false);
             repository.save(session);
-            sessionCache.invalidate(session.getSessionId());
+            forget(session.getSessionId());
+            broadcast(session.getSessionId());
         }
     }
 
     public void invalidateOtherSessions(Object userId, String currentSessionId) {
+        if (invalidateWithSql(userId, currentSessionId)) {
+            return;
+        }
         List<FiberSession> sessions = repository.query()
                 .where("userId", String.valueOf(userId))
                 .where("active", true)
@@ -118,12 +273,46 @@ public class SessionService {
             if (!java.util.Objects.equals(session.getSessionId(), currentSessionId)) {
                 session.setActive(false);
                 repository.save(session);
-                sessionCache.invalidate(session.getSessionId());
+                forget(session.getSessionId());
+                broadcast(session.getSessionId());
             }
         }
     }
 
+    /**
+     * Enable write-behind touches: {@link #touchSession(String)} only records the access
+     * time in memory, and the latest time per session is persisted every {@code interval}
+     * on the shared executor (and on {@code FiberServer.stop()}). A session touched on every
+     * request then costs one write per interval. {@code null} or zero restores synchronous
+     * touches, flushing what is pending first.
+     */
+    public synchronized void setTouchFlushInterval(Duration interval) {
+        if (touchFlushTask != null) {
+            touchFlushTask.cancel(false);
+            touchFlushTask = null;
+        }
+        if (interval == null || interval.isZero() || interval.isNegative()) {
+            flushTouches();
+            return;
+        }
+        long millis = interval.toMillis();
+        touchFlushTask = cleanupExecutor.scheduleWithFixedDelay(this::flushTouches, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isWriteBehindTouches() {
+        return touchFlushTask != null;
+    }
+
     public void touchSession(String sessionId) {
+        if (isWriteBehindTouches()) {
+            long now = System.currentTimeMillis();
+            Optional<FiberSession> cached = sessionCache.getIfPresent(sessionId);
+            if (cached != null && cached.isPresent()) {
+                cached.get().setLastAccessedAt(now);
+            }
+            pendingTouches.merge(sessionId, now, Math::max);
+            return;
+        }
         FiberSession session = repository.findById(sessionId);
         if (session != null && session.isValid()) {
             session.setLastAccessedAt(System.currentTimeMillis());
@@ -132,7 +321,101 @@ public class SessionService {
         }
     }
 
+    /** Single UPDATE through {@link SessionSql}; {@code false} if unavailable or failed. */
+    private boolean invalidateWithSql(Object userId, String keepSessionId) {
+        SessionSql sql = this.sql;
+        if (sql == null) {
+            return false;
+        }
+        try {
+            for (String sessionId : sql.deactivateForUser(String.valueOf(userId), keepSessionId)) {
+                forget(sessionId);
+                broadcast(sessionId);
+            }
+            return true;
+        } catch (SQLException e) {
+            logger.warn("[Fiber] Bulk session invalidation failed, falling back to per-row updates: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private void broadcast(String sessionId) {
+        InvalidationBus bus = invalidationBus;
+        if (bus != null) {
+            bus.publish(InvalidationBus.SESSION, sessionId);
+        }
+    }
+
+    /** Drop every in-memory trace of a session that was revoked in the database. */
+    private void forget(String sessionId) {
+        recentlyRevoked.put(sessionId, Boolean.TRUE);
+        evict(sessionId);
+    }
+
+    /**
+     * Like {@link #forget} but without a revocation entry, for sessions that simply expired:
+     * their access tokens run out on their own, and a large expiry sweep must not fill
+     * {@code recentlyRevoked} and suspend stateless validation.
+     */
+    private void evict(String sessionId) {
+        pendingTouches.remove(sessionId);
+        sessionCache.invalidate(sessionId);
+        JwtUtil.evictSessionTokens(sessionId);
+    }
+
+    /** Persist the pending write-behind touches, each session at most once. */
+    public void flushTouches() {
+        SessionSql sql = this.sql;
+        if (sql != null) {
+            Map<String, Long> batch = new HashMap<>();
+            for (String sessionId : pendingTouches.keySet()) {
+                Long accessedAt = pendingTouches.remove(sessionId);
+                if (accessedAt != null) {
+                    batch.put(sessionId, accessedAt);
+                }
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                sql.touch(batch);
+                return;
+            } catch (SQLException e) {
+                logger.warn("[Fiber] Batched session touch failed, retrying per session: {}", e.getMessage());
+                batch.forEach((id, at) -> pendingTouches.merge(id, at, Math::max));
+            }
+        }
+        for (String sessionId : pendingTouches.keySet()) {
+            Long accessedAt = pendingTouches.remove(sessionId);
+            if (accessedAt == null) {
+                continue;
+            }
+            try {
+                FiberSession session = repository.findById(sessionId);
+                if (session != null && session.isValid() && session.getLastAccessedAt() < accessedAt) {
+                    session.setLastAccessedAt(accessedAt);
+                    repository.save(session);
+                }
+            } catch (Exception e) {
+                logger.warn("[Fiber] Failed to persist session touch for {}: {}", sessionId, e.getMessage());
+            }
+        }
+    }
+
     public void cleanupExpired() {
+        SessionSql sql = this.sql;
+        if (sql != null) {
+            try {
+                int count = sql.deactivateExpired(System.currentTimeMillis(), CLEANUP_PAGE_SIZE,
+                        ids -> ids.forEach(this::evict));
+                if (count > 0) {
+                    logger.debug("[Fiber] Deactivated {} expired sessions", count);
+                }
+                return;
+            } catch (SQLException e) {
+                logger.warn("[Fiber] Bulk session cleanup failed, falling back to repository scan: {}", e.getMessage());
+            }
+        }
         List<FiberSession> expired = repository.query()
                 .where("active", true)
                 .findAll()
@@ -142,7 +425,7 @@ public class SessionService {
         for (FiberSession session : expired) {
             session.setActive(false);
             repository.save(session);
-            sessionCache.invalidate(session.getSessionId());
+            evict(session.getSessionId());
         }
     }
 
@@ -0,0 +1,99 @@
+package sh.fyz.fiber.core.session;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Set-based statements on {@code fiber_sessions} for {@link SessionService}, used when a
+ * {@link DataSource} is configured. Each bulk change is one statement (or one page of
+ * one) that returns the affected ids, so callers can evict caches without loading rows.
+ *
+ * <p>Written for PostgreSQL ({@code UPDATE ... RETURNING}, {@code GREATEST}).</p>
+ */
+final class SessionSql {
+
+    private static final String DEACTIVATE_EXPIRED_PAGE =
+            "UPDATE fiber_sessions SET active = false WHERE id IN ("
+                    + "SELECT id FROM fiber_sessions WHERE active = true AND expires_at < ? LIMIT ?) "
+                    + "RETURNING id";
+    private static final String DEACTIVATE_FOR_USER =
+            "UPDATE fiber_sessions SET active = false WHERE user_id = ? AND active = true RETURNING id";
+    private static final String DEACTIVATE_FOR_USER_EXCEPT =
+            "UPDATE fiber_sessions SET active = false WHERE user_id = ? AND active = true AND id <> ? RETURNING id";
+    private static final String TOUCH =
+            "UPDATE fiber_sessions SET last_accessed_at = GREATEST(last_accessed_at, ?) WHERE id = ? AND active = true";
+
+    private final DataSource dataSource;
+
+    SessionSql(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Deactivate sessions that expired before {@code now}, {@code pageSize} rows per
+     * statement, until none are left.
+     *
+     * @return number of sessions deactivated
+     */
+    int deactivateExpired(long now, int pageSize, Consumer<List<String>> onPage) throws SQLException {
+        int total = 0;
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(DEACTIVATE_EXPIRED_PAGE)) {
+            while (true) {
+                statement.setLong(1, now);
+                statement.setInt(2, pageSize);
+                List<String> ids = ids(statement);
+                if (!ids.isEmpty()) {
+                    onPage.accept(ids);
+                    total += ids.size();
+                }
+                if (ids.size() < pageSize) {
+                    return total;
+                }
+            }
+        }
+    }
+
+    /** Deactivate every active session of {@code userId} except {@code keepSessionId} (may be null). */
+    List<String> deactivateForUser(String userId, String keepSessionId) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     keepSessionId == null ? DEACTIVATE_FOR_USER : DEACTIVATE_FOR_USER_EXCEPT)) {
+            statement.setString(1, userId);
+            if (keepSessionId != null) {
+                statement.setString(2, keepSessionId);
+            }
+            return ids(statement);
+        }
+    }
+
+    /** Apply access times (session id -> epoch millis) as one JDBC batch. */
+    void touch(Map<String, Long> accessTimes) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(TOUCH)) {
+            for (Map.Entry<String, Long> entry : accessTimes.entrySet()) {
+                statement.setLong(1, entry.getValue());
+                statement.setString(2, entry.getKey());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    private static List<String> ids(PreparedStatement statement) throws SQLException {
+        List<String> ids = new ArrayList<>();
+        try (ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                ids.add(rs.getString(1));
+            }
+        }
+        return ids;
+    }
+}
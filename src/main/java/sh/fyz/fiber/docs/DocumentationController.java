@@ -6,6 +6,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import sh.fyz.fiber.FiberServer;
 import sh.fyz.fiber.annotations.request.Controller;
+import sh.fyz.fiber.annotations.request.LoadPriority;
 import sh.fyz.fiber.annotations.request.RequestMapping;
 import sh.fyz.fiber.core.ResponseEntity;
 import sh.fyz.fiber.core.authentication.AuthResolver;
@@ -23,6 +24,7 @@ import java.util.List;
 import java.util.Map;
 
 @Controller("/docs")
+@LoadPriority(LoadPriority.Level.LOW)
 public class DocumentationController {
 
     private static final Logger logger = LoggerFactory.getLogger(DocumentationController.class);
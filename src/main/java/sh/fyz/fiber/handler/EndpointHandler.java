@@ -3,44 +3,61 @@ package sh.fyz.fiber.handler;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import sh.fyz.fiber.FiberServer;
 import sh.fyz.fiber.annotations.params.AuthenticatedUser;
 import sh.fyz.fiber.annotations.request.RequestMapping;
 import sh.fyz.fiber.annotations.request.Controller;
 import sh.fyz.fiber.annotations.security.AuthType;
-import sh.fyz.fiber.annotations.security.NoCors;
-import sh.fyz.fiber.annotations.security.NoCSRF;
+import sh.fyz.fiber.core.EndpointDescriptor;
 import sh.fyz.fiber.core.ErrorResponse;
+import sh.fyz.fiber.core.PathVariables;
 import sh.fyz.fiber.core.authentication.AuthScheme;
 import sh.fyz.fiber.core.authentication.oauth2.OAuth2ApplicationInfo;
 import sh.fyz.fiber.middleware.Middleware;
+import sh.fyz.fiber.util.JsonCodec;
 
 import java.io.IOException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.Set;
 
 public class EndpointHandler {
     private final Object controller;
     private final Method method;
-    private final Pattern pathPattern;
-    private final int pathVariableCount;
-
-    private final boolean noCors;
+    private final EndpointInvoker invoker;
+    private final Parameter[] parameters;
+    private final ParameterResolver.BindingPlan bindingPlan;
+    private final JsonCodec responseCodec;
+    private final String path;
+    private final String[] pathSegments;
+    private final String[] pathVariableNames;
+
+    private final EndpointDescriptor descriptor;
     private final SecurityPipeline securityPipeline;
     private final List<Middleware> globalMiddleware;
 
     public EndpointHandler(Object controller, Method method, List<Middleware> globalMiddleware, String[] requiredRoles) {
+        this(controller, method, mappedPath(method), globalMiddleware, requiredRoles);
+    }
+
+    /**
+     * @param path the normalized full path this endpoint is registered under
+     *             (controller prefix + mapping), as stored in the route table.
+     */
+    public EndpointHandler(Object controller, Method method, String path, List<Middleware> globalMiddleware, String[] requiredRoles) {
         this.controller = controller;
         this.method = method;
+        this.invoker = EndpointInvoker.compile(controller, method);
+        this.parameters = method.getParameters();
+        this.bindingPlan = ParameterResolver.plan(method);
+        this.responseCodec = JsonCodec.forResponse(method);
 
-        this.noCors = method.isAnnotationPresent(NoCors.class);
-        boolean noCsrf = method.isAnnotationPresent(NoCSRF.class);
+        this.descriptor = EndpointDescriptor.of(method);
 
         boolean basicAuth = false;
         for (Parameter parameter : method.getParameters()) {
@@ -51,24 +68,34 @@ public class EndpointHandler {
         }
 
         Set<AuthScheme> acceptedAuthSchemes = computeAcceptedAuthSchemes(method);
-        this.securityPipeline = new SecurityPipeline(method, noCsrf, basicAuth, acceptedAuthSchemes);
+        this.securityPipeline = new SecurityPipeline(descriptor, descriptor.isNoCsrf(), basicAuth, acceptedAuthSchemes);
 
         this.globalMiddleware = globalMiddleware;
 
+        this.path = path;
+        this.pathSegments = splitPath(path);
+        List<String> names = new ArrayList<>();
+        for (String segment : pathSegments) {
+            if (isVariableSegment(segment)) {
+                names.add(segment.substring(1, segment.length() - 1));
+            }
+        }
+        this.pathVariableNames = names.toArray(new String[0]);
+    }
+
+    private static String mappedPath(Method method) {
         RequestMapping mapping = method.getAnnotation(RequestMapping.class);
         Controller controllerAnnotation = method.getDeclaringClass().getAnnotation(Controller.class);
         String basePath = controllerAnnotation != null ? controllerAnnotation.value() : "";
-        String path = normalizePath(basePath + mapping.value());
+        return normalizePath(basePath + mapping.value());
+    }
 
-        String regex = path
-            .replaceAll("\\*", ".*")
-            .replaceAll("\\{([^}]+)}", "(?<$1>[^/]+)");
-        this.pathPattern = Pattern.compile("^" + regex + "$");
+    private static String[] splitPath(String path) {
+        return Arrays.stream(path.split("/")).filter(s -> !s.isEmpty()).toArray(String[]::new);
+    }
 
-        Matcher matcher = Pattern.compile("\\{([^}]+)}").matcher(path);
-        int varCount = 0;
-        while (matcher.find()) varCount++;
-        this.pathVariableCount = varCount;
+    private static boolean isVariableSegment(String segment) {
+        return segment.length() > 2 && segment.charAt(0) == '{' && segment.charAt(segment.length() - 1) == '}';
     }
 
     private static Set<AuthScheme> computeAcceptedAuthSchemes(Method method) {
@@ -105,7 +132,7 @@ public class EndpointHandler {
         return handleRequest(req, resp, null);
     }
 
-    public Object handleRequest(HttpServletRequest req, HttpServletResponse resp, Matcher precomputedMatcher) throws ServletException, IOException {
+    public Object handleRequest(HttpServletRequest req, HttpServletResponse resp, PathVariables precomputedVariables) throws ServletException, IOException {
         SecurityResult security = securityPipeline.execute(req, resp);
         if (!security.shouldProceed()) {
             return null;
@@ -118,19 +145,19 @@ public class EndpointHandler {
         }
 
         String path = req.getRequestURI();
-        Matcher matcher = precomputedMatcher;
-        if (matcher == null) {
-            matcher = pathPattern.matcher(path);
-            if (!matcher.matches()) {
+        PathVariables pathVariables = precomputedVariables;
+        if (pathVariables == null) {
+            pathVariables = extractPathVariables(path);
+            if (pathVariables == null) {
                 ErrorResponse.send(resp, path, HttpServletResponse.SC_NOT_FOUND, "Path not found");
                 return null;
             }
         }
 
         try {
-            Object[] args = ParameterResolver.resolve(method, req, resp, matcher, security.getAuthenticatedUser());
-            Object result = method.invoke(controller, args);
-            ResponseWriter.write(result, req, resp);
+            Object[] args = ParameterResolver.resolve(bindingPlan, req, resp, pathVariables, security.getAuthenticatedUser());
+            Object result = invoker.invoke(args);
+            ResponseWriter.write(result, req, resp, descriptor.isStreaming(FiberServer.get().isStreamingResponses()), responseCodec);
             return result;
         } catch (ParameterResolver.ResolveException e) {
             ErrorResponse.send(resp, path, e.getStatusCode(), e.getMessage());
@@ -144,24 +171,65 @@ public class EndpointHandler {
         return method;
     }
 
+    /** The method's parameters, captured once; callers must not modify the array. */
     public Parameter[] getParameters() {
-        return method.getParameters();
+        return parameters;
     }
 
     public boolean matchesPath(String requestUri) {
-        return pathPattern.matcher(requestUri).matches();
+        return extractPathVariables(requestUri) != null;
+    }
+
+    /**
+     * Match {@code requestUri} against this endpoint's own pattern, segment by segment.
+     * Only used when the endpoint is invoked outside the router; the router captures
+     * variables while resolving the route.
+     *
+     * @return the captured variables, or {@code null} if the URI does not match.
+     */
+    public PathVariables extractPathVariables(String requestUri) {
+        String[] segments = splitPath(requestUri);
+        String[] values = new String[pathVariableNames.length];
+        int varIndex = 0;
+        for (int i = 0; i < pathSegments.length; i++) {
+            String expected = pathSegments[i];
+            if (expected.equals("*")) {
+                // A wildcard swallows the remainder of the URI, including nothing at all.
+                return pathVariableNames.length == 0 ? PathVariables.EMPTY : new PathVariables(pathVariableNames, values);
+            }
+            if (i >= segments.length) {
+                return null;
+            }
+            if (isVariableSegment(expected)) {
+                values[varIndex++] = segments[i];
+            } else if (!expected.equals(segments[i])) {
+                return null;
+            }
+        }
+        if (segments.length != pathSegments.length) {
+            return null;
+        }
+        return pathVariableNames.length == 0 ? PathVariables.EMPTY : new PathVariables(pathVariableNames, values);
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public String[] getPathVariableNames() {
+        return pathVariableNames;
     }
 
     public int getPathVariableCount() {
-        return pathVariableCount;
+        return pathVariableNames.length;
     }
 
     public boolean isNoCors() {
-        return noCors;
+        return descriptor.isNoCors();
     }
 
-    public Pattern getPathPattern() {
-        return pathPattern;
+    public EndpointDescriptor getDescriptor() {
+        return descriptor;
     }
 
     public static String normalizePath(String path) {
@@ -0,0 +1,210 @@
+package sh.fyz.fiber.handler;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Calls a controller method with already-resolved arguments.
+ *
+ * <p>Compiled once per endpoint at registration time, using the fastest strategy the
+ * method allows:
+ * <ol>
+ *     <li>{@link Kind#LAMBDA} — an instance method with at most {@value #MAX_LAMBDA_ARITY}
+ *     parameters and a non-void return is bound through {@link LambdaMetafactory} to one of
+ *     the {@code ArityN} interfaces, i.e. a plain interface call the JIT can inline;</li>
+ *     <li>{@link Kind#METHOD_HANDLE} — anything else that can be unreflected (void, static,
+ *     wider signatures) runs through a bound, spread {@link MethodHandle};</li>
+ *     <li>{@link Kind#REFLECTION} — last resort when the method is not accessible to Fiber.</li>
+ * </ol>
+ *
+ * <p>Whatever the strategy, exceptions thrown by the controller surface wrapped in an
+ * {@link InvocationTargetException}, exactly like {@link Method#invoke}.
+ */
+public abstract class EndpointInvoker {
+
+    private static final Logger logger = LoggerFactory.getLogger(EndpointInvoker.class);
+
+    static final int MAX_LAMBDA_ARITY = 6;
+
+    public enum Kind { LAMBDA, METHOD_HANDLE, REFLECTION }
+
+    public abstract Object invoke(Object[] args) throws Exception;
+
+    public abstract Kind kind();
+
+    /**
+     * Build the invoker for {@code method} on {@code controller}, falling back from
+     * {@link Kind#LAMBDA} to {@link Kind#METHOD_HANDLE} to {@link Kind#REFLECTION}.
+     */
+    public static EndpointInvoker compile(Object controller, Method method) {
+        try {
+            EndpointInvoker lambda = lambda(controller, method);
+            if (lambda != null) {
+                return lambda;
+            }
+        } catch (Throwable t) {
+            logger.debug("[Fiber] LambdaMetafactory unavailable for {}, trying MethodHandle: {}", method, t.toString());
+        }
+        try {
+            return methodHandle(controller, method);
+        } catch (Throwable t) {
+            logger.debug("[Fiber] MethodHandle unavailable for {}, using reflection: {}", method, t.toString());
+        }
+        return reflective(controller, method);
+    }
+
+    /** Plain {@link Method#invoke} dispatch; also the baseline for benchmarks. */
+    public static EndpointInvoker reflective(Object controller, Method method) {
+        return new ReflectiveInvoker(controller, method);
+    }
+
+    // LambdaMetafactory
+
+    public interface Arity0 { Object invoke(Object target); }
+    public interface Arity1 { Object invoke(Object target, Object a0); }
+    public interface Arity2 { Object invoke(Object target, Object a0, Object a1); }
+    public interface Arity3 { Object invoke(Object target, Object a0, Object a1, Object a2); }
+    public interface Arity4 { Object invoke(Object target, Object a0, Object a1, Object a2, Object a3); }
+    public interface Arity5 { Object invoke(Object target, Object a0, Object a1, Object a2, Object a3, Object a4); }
+    public interface Arity6 { Object invoke(Object target, Object a0, Object a1, Object a2, Object a3, Object a4, Object a5); }
+
+    private static final Class<?>[] ARITY_INTERFACES = {
+            Arity0.class, Arity1.class, Arity2.class, Arity3.class, Arity4.class, Arity5.class, Arity6.class
+    };
+
+    private static EndpointInvoker lambda(Object controller, Method method) throws Throwable {
+        int arity = method.getParameterCount();
+        // A void return cannot be adapted to the Object-returning SAM, and static methods
+        // have no receiver slot; both are left to the MethodHandle path.
+        if (arity > MAX_LAMBDA_ARITY || method.getReturnType() == void.class
+                || Modifier.isStatic(method.getModifiers())) {
+            return null;
+        }
+
+        Class<?> owner = method.getDeclaringClass();
+        // LambdaMetafactory needs a full-privilege lookup on the controller's class; this
+        // throws (and we fall back) when the controller lives in a module that is not open.
+        MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(owner, MethodHandles.lookup());
+        MethodHandle impl = lookup.unreflect(method);
+
+        Class<?>[] params = new Class<?>[arity + 1];
+        params[0] = owner;
+        Class<?>[] declared = method.getParameterTypes();
+        for (int i = 0; i < arity; i++) {
+            params[i + 1] = MethodType.methodType(declared[i]).wrap().returnType();
+        }
+        MethodType instantiated = MethodType.methodType(
+                MethodType.methodType(method.getReturnType()).wrap().returnType(), params);
+
+        Class<?> arityInterface = ARITY_INTERFACES[arity];
+        CallSite site = LambdaMetafactory.metafactory(lookup, "invoke",
+                MethodType.methodType(arityInterface),
+                MethodType.genericMethodType(arity + 1),
+                impl,
+                instantiated);
+        Object function = site.getTarget().invoke();
+        return new LambdaInvoker(controller, arity, function);
+    }
+
+    private static final class LambdaInvoker extends EndpointInvoker {
+        private final Object target;
+        private final int arity;
+        private final Object function;
+
+        LambdaInvoker(Object target, int arity, Object function) {
+            this.target = target;
+            this.arity = arity;
+            this.function = function;
+        }
+
+        @Override
+        public Object invoke(Object[] a) throws Exception {
+            try {
+                return switch (arity) {
+                    case 0 -> ((Arity0) function).invoke(target);
+                    case 1 -> ((Arity1) function).invoke(target, a[0]);
+                    case 2 -> ((Arity2) function).invoke(target, a[0], a[1]);
+                    case 3 -> ((Arity3) function).invoke(target, a[0], a[1], a[2]);
+                    case 4 -> ((Arity4) function).invoke(target, a[0], a[1], a[2], a[3]);
+                    case 5 -> ((Arity5) function).invoke(target, a[0], a[1], a[2], a[3], a[4]);
+                    default -> ((Arity6) function).invoke(target, a[0], a[1], a[2], a[3], a[4], a[5]);
+                };
+            } catch (Throwable t) {
+                throw new InvocationTargetException(t);
+            }
+        }
+
+        @Override
+        public Kind kind() {
+            return Kind.LAMBDA;
+        }
+    }
+
+    // MethodHandle
+
+    private static EndpointInvoker methodHandle(Object controller, Method method) throws IllegalAccessException {
+        method.trySetAccessible();
+        MethodHandle handle = MethodHandles.lookup().unreflect(method);
+        if (!Modifier.isStatic(method.getModifiers())) {
+            handle = handle.bindTo(controller);
+        }
+        int arity = method.getParameterCount();
+        // (Object...)Object: void returns become null, primitives are boxed/unboxed.
+        handle = handle.asType(MethodType.genericMethodType(arity))
+                .asSpreader(Object[].class, arity);
+        return new HandleInvoker(handle);
+    }
+
+    private static final class HandleInvoker extends EndpointInvoker {
+        private final MethodHandle handle;
+
+        HandleInvoker(MethodHandle handle) {
+            this.handle = handle;
+        }
+
+        @Override
+        public Object invoke(Object[] args) throws Exception {
+            try {
+                return (Object) handle.invokeExact(args);
+            } catch (Throwable t) {
+                throw new InvocationTargetException(t);
+            }
+        }
+
+        @Override
+        public Kind kind() {
+            return Kind.METHOD_HANDLE;
+        }
+    }
+
+    // Reflection
+
+    private static final class ReflectiveInvoker extends EndpointInvoker {
+        private final Object target;
+        private final Method method;
+
+        ReflectiveInvoker(Object target, Method method) {
+            this.target = target;
+            this.method = method;
+        }
+
+        @Override
+        public Object invoke(Object[] args) throws Exception {
+            return method.invoke(target, args);
+        }
+
+        @Override
+        public Kind kind() {
+            return Kind.REFLECTION;
+        }
+    }
+}
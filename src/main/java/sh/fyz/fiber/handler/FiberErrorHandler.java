@@ -13,7 +13,7 @@ import java.util.Map;
 
 public class FiberErrorHandler extends ErrorHandler {
 
-    private static final FiberObjectMapper MAPPER = new FiberObjectMapper();
+    private static final FiberObjectMapper MAPPER = FiberObjectMapper.shared();
 
     @Override
     public void handle(String target, Request baseRequest,
@@ -4,36 +4,91 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import sh.fyz.fiber.annotations.params.AuthenticatedUser;
 import sh.fyz.fiber.core.ErrorResponse;
+import sh.fyz.fiber.core.PathVariables;
 import sh.fyz.fiber.core.authentication.entities.UserAuth;
+import sh.fyz.fiber.handler.parameter.ParameterBinder;
 import sh.fyz.fiber.handler.parameter.ParameterHandler;
 import sh.fyz.fiber.handler.parameter.ParameterHandlerRegistry;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
-import java.util.regex.Matcher;
 
 public class ParameterResolver {
 
-    public static Object[] resolve(Method method, HttpServletRequest req, HttpServletResponse resp,
-                                   Matcher pathMatcher, UserAuth authenticatedUser) throws ResolveException {
-        Object[] args = new Object[method.getParameterCount()];
-        String path = req.getRequestURI();
+    /** Marks a slot filled with the principal authenticated by the security pipeline. */
+    private static final ParameterBinder AUTHENTICATED_USER = (request, response, pathVariables) -> {
+        throw new IllegalStateException("Authenticated user slot resolved outside ParameterResolver");
+    };
+
+    /**
+     * Immutable per-endpoint binding plan: one {@link ParameterBinder} per method parameter,
+     * built once by {@link #plan(Method)} so that resolving arguments involves no reflection.
+     */
+    public static final class BindingPlan {
+        private final ParameterBinder[] binders;
+
+        private BindingPlan(ParameterBinder[] binders) {
+            this.binders = binders;
+        }
+
+        public int size() {
+            return binders.length;
+        }
+    }
 
-        for (int i = 0; i < method.getParameterCount(); i++) {
-            Parameter parameter = method.getParameters()[i];
+    /**
+     * Bind every parameter of {@code method} to its handler. A parameter no registered
+     * handler accepts yet is looked up again at request time, so handlers registered
+     * after the controller still apply (and a genuinely unsupported parameter still
+     * answers 500 on use, as before).
+     */
+    public static BindingPlan plan(Method method) {
+        Parameter[] parameters = method.getParameters();
+        ParameterBinder[] binders = new ParameterBinder[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            Parameter parameter = parameters[i];
             if (parameter.isAnnotationPresent(AuthenticatedUser.class)) {
-                args[i] = authenticatedUser;
+                binders[i] = AUTHENTICATED_USER;
                 continue;
             }
+            ParameterHandler handler = ParameterHandlerRegistry.findHandler(parameter);
+            binders[i] = handler != null ? handler.bind(parameter) : lateBinder(parameter);
+        }
+        return new BindingPlan(binders);
+    }
 
+    private static ParameterBinder lateBinder(Parameter parameter) {
+        return (request, response, pathVariables) -> {
             ParameterHandler handler = ParameterHandlerRegistry.findHandler(parameter);
             if (handler == null) {
                 throw new ResolveException("No handler found for parameter: " + parameter.getName(),
                         HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
             }
+            return handler.handle(parameter, request, response, pathVariables);
+        };
+    }
+
+    public static Object[] resolve(Method method, HttpServletRequest req, HttpServletResponse resp,
+                                   PathVariables pathVariables, UserAuth authenticatedUser) throws ResolveException {
+        return resolve(plan(method), req, resp, pathVariables, authenticatedUser);
+    }
+
+    public static Object[] resolve(BindingPlan plan, HttpServletRequest req, HttpServletResponse resp,
+                                   PathVariables pathVariables, UserAuth authenticatedUser) throws ResolveException {
+        ParameterBinder[] binders = plan.binders;
+        Object[] args = new Object[binders.length];
+
+        for (int i = 0; i < binders.length; i++) {
+            ParameterBinder binder = binders[i];
+            if (binder == AUTHENTICATED_USER) {
+                args[i] = authenticatedUser;
+                continue;
+            }
 
             try {
-                args[i] = handler.handle(parameter, req, resp, pathMatcher);
+                args[i] = binder.resolve(req, resp, pathVariables);
+            } catch (ResolveException e) {
+                throw e;
             } catch (IllegalArgumentException e) {
                 throw new ResolveException(e.getMessage(), HttpServletResponse.SC_BAD_REQUEST);
             } catch (Exception e) {
@@ -3,28 +3,38 @@ package sh.fyz.fiber.handler;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import sh.fyz.fiber.core.ResponseEntity;
-import sh.fyz.fiber.util.FiberObjectMapper;
-
-import java.io.IOException;
+import sh.fyz.fiber.util.JsonBodyWriter;
+import sh.fyz.fiber.util.JsonCodec;
 
 public class ResponseWriter {
 
-    private static final FiberObjectMapper MAPPER = new FiberObjectMapper();
-
     public static void write(Object result, HttpServletRequest req, HttpServletResponse resp) throws Exception {
+        write(result, req, resp, false);
+    }
+
+    /**
+     * @param streaming serialize straight onto the output stream instead of buffering
+     *                  the body to set {@code Content-Length} (see {@link JsonBodyWriter})
+     */
+    public static void write(Object result, HttpServletRequest req, HttpServletResponse resp, boolean streaming) throws Exception {
+        write(result, req, resp, streaming, JsonCodec.UNTYPED);
+    }
+
+    /**
+     * @param codec writers prebuilt from the endpoint's generic return type
+     *              ({@link JsonCodec#forResponse})
+     */
+    public static void write(Object result, HttpServletRequest req, HttpServletResponse resp,
+                             boolean streaming, JsonCodec codec) throws Exception {
         if (resp.isCommitted()) {
             return;
         }
 
         if (result instanceof ResponseEntity<?> entity) {
-            entity.write(req, resp);
+            entity.write(req, resp, streaming, codec);
         } else if (result != null) {
-            Object serializable = ResponseEntity.prepareForSerialization(result);
-            byte[] json = MAPPER.writeValueAsBytes(serializable);
             resp.setContentType("application/json");
-            resp.setContentLength(json.length);
-            resp.getOutputStream().write(json);
-            resp.getOutputStream().flush();
+            JsonBodyWriter.write(resp, result, streaming, codec);
         }
     }
 }
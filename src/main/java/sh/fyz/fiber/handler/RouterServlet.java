@@ -4,8 +4,12 @@ import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import sh.fyz.fiber.FiberServer;
+import sh.fyz.fiber.core.EndpointDescriptor;
 import sh.fyz.fiber.core.EndpointRegistry;
+import sh.fyz.fiber.core.ErrorResponse;
 import sh.fyz.fiber.core.ResponseEntity;
+import sh.fyz.fiber.core.RouteTable;
+import sh.fyz.fiber.core.overload.AdaptiveConcurrencyLimiter;
 import sh.fyz.fiber.core.security.processors.RateLimitProcessor;
 import sh.fyz.fiber.core.security.annotations.AuditLog;
 import sh.fyz.fiber.core.security.logging.AuditLogProcessor;
@@ -14,10 +18,7 @@ import sh.fyz.fiber.core.session.SessionContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.lang.reflect.Method;
 import java.io.IOException;
-import java.util.Map;
-import java.util.regex.Matcher;
 
 public class RouterServlet extends HttpServlet {
     private static final Logger logger = LoggerFactory.getLogger(RouterServlet.class);
@@ -51,6 +52,8 @@ public class RouterServlet extends HttpServlet {
 
     @Override
     protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        AdaptiveConcurrencyLimiter admittedBy = null;
+        long admittedAt = 0;
         try {
             String requestUri = req.getRequestURI();
             String requestMethod = req.getMethod();
@@ -60,36 +63,48 @@ public class RouterServlet extends HttpServlet {
                 return;
             }
 
-            EndpointHandler matchedEndpoint = null;
-            Matcher matchedMatcher = null;
-
-            // O(1) lookup for static routes
-            String staticKey = requestUri + ":" + requestMethod;
-            Map<String, EndpointHandler> endpoints = endpointRegistry.getEndpoints();
-            EndpointHandler staticMatch = endpoints.get(staticKey);
-            if (staticMatch != null && staticMatch.getPathVariableCount() == 0) {
-                Matcher m = staticMatch.getPathPattern().matcher(requestUri);
-                if (m.matches()) {
-                    matchedEndpoint = staticMatch;
-                    matchedMatcher = m;
+            // Single pass over the precompiled table: static map hit, else trie walk that
+            // captures path variables on the way down. No regex, no key concatenation.
+            RouteTable.Match match = endpointRegistry.getRouteTable().resolve(requestUri, requestMethod);
+            if (match.status() == RouteTable.Status.NOT_FOUND) {
+                ErrorResponse.send(resp, requestUri, HttpServletResponse.SC_NOT_FOUND, "Not found");
+                return;
+            }
+            if (match.status() == RouteTable.Status.METHOD_NOT_ALLOWED) {
+                resp.setHeader("Allow", match.allow());
+                ErrorResponse.send(resp, requestUri, HttpServletResponse.SC_METHOD_NOT_ALLOWED, "Method not allowed");
+                return;
+            }
+            EndpointHandler matchedEndpoint = match.handler();
+            EndpointDescriptor descriptor = matchedEndpoint.getDescriptor();
+
+            // IP-keyed limits are checked before any CORS, CSRF or authentication work;
+            // perUser limits are checked by the SecurityPipeline once the user is known.
+            ResponseEntity<?> rateLimited = RateLimitProcessor.preAuth(descriptor, req);
+            if (rateLimited != null) {
+                if (!matchedEndpoint.isNoCors()) {
+                    // Only so that browsers can read the 429; the origin check result is moot.
+                    FiberServer.get().getCorsService().configureCorsHeaders(req, resp);
                 }
+                rateLimited.write(req, resp);
+                return;
             }
 
-            // Trie-based lookup for dynamic routes (O(P) instead of O(N))
-            if (matchedEndpoint == null) {
-                EndpointHandler trieMatch = endpointRegistry.getDynamicTrie().find(requestUri, requestMethod);
-                if (trieMatch != null) {
-                    Matcher m = trieMatch.getPathPattern().matcher(requestUri);
-                    if (m.matches()) {
-                        matchedEndpoint = trieMatch;
-                        matchedMatcher = m;
+            // Load shedding comes after the cheap rate-limit rejection so that only requests
+            // that will actually run occupy a slot and feed latency samples to the limiter.
+            AdaptiveConcurrencyLimiter limiter = FiberServer.get().getConcurrencyLimiter();
+            if (limiter != null) {
+                if (!limiter.tryAcquire(descriptor.getLoadPriority())) {
+                    if (!matchedEndpoint.isNoCors()) {
+                        FiberServer.get().getCorsService().configureCorsHeaders(req, resp);
                     }
+                    resp.setHeader("Retry-After", "1");
+                    ErrorResponse.send(resp, requestUri, HttpServletResponse.SC_SERVICE_UNAVAILABLE,
+                            "Server is overloaded, please retry later");
+                    return;
                 }
-            }
-
-            if (matchedEndpoint == null) {
-                resp.setStatus(HttpServletResponse.SC_NOT_FOUND);
-                return;
+                admittedBy = limiter;
+                admittedAt = System.nanoTime();
             }
 
             // S-04: skip CORS headers if endpoint has @NoCors
@@ -100,25 +115,16 @@ public class RouterServlet extends HttpServlet {
                 }
             }
 
-            Method method = matchedEndpoint.getMethod();
-            Object[] parameters = matchedEndpoint.getParameters();
+            Object result = matchedEndpoint.handleRequest(req, resp, match.pathVariables());
 
-            Object rateLimitResult = RateLimitProcessor.process(method, parameters, req);
-            if (rateLimitResult != null) {
-                ResponseEntity<?> response = (ResponseEntity<?>) rateLimitResult;
-                response.write(req, resp);
-                return;
-            }
-
-            Object result = matchedEndpoint.handleRequest(req, resp, matchedMatcher);
-
-            AuditLog auditLog = method.getAnnotation(AuditLog.class);
+            AuditLog auditLog = descriptor.getAuditLog();
             if (auditLog != null) {
-                AuditLogProcessor.logAuditEvent(req, resp, auditLog, method, parameters, result);
+                AuditLogProcessor.logAuditEvent(req, resp, auditLog, matchedEndpoint.getMethod(),
+                        matchedEndpoint.getParameters(), result);
             }
 
             if (resp.getStatus() == 200) {
-                RateLimitProcessor.onSuccess(method, req);
+                RateLimitProcessor.onSuccess(descriptor, null, req);
             }
         } catch (IllegalArgumentException e) {
             logger.debug("Bad request: {} {} — {}", req.getMethod(), req.getRequestURI(), e.getMessage());
@@ -134,6 +140,9 @@ public class RouterServlet extends HttpServlet {
                 resp.getOutputStream().write("{\"status\":500,\"message\":\"Could not process the request right now, please try again.\"}".getBytes());
             }
         } finally {
+            if (admittedBy != null) {
+                admittedBy.release(admittedAt);
+            }
             AuditContext.clear();
             SessionContext.clear();
         }
@@ -3,25 +3,31 @@ package sh.fyz.fiber.handler;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import sh.fyz.fiber.FiberServer;
+import sh.fyz.fiber.core.EndpointDescriptor;
 import sh.fyz.fiber.core.ErrorResponse;
 import sh.fyz.fiber.core.ResponseEntity;
 import sh.fyz.fiber.core.authentication.AuthScheme;
 import sh.fyz.fiber.core.authentication.entities.UserAuth;
 import sh.fyz.fiber.core.authentication.oauth2.OAuth2ApplicationInfo;
 import sh.fyz.fiber.core.security.processors.PermissionProcessor;
+import sh.fyz.fiber.core.security.processors.RateLimitProcessor;
 
 import java.io.IOException;
 import java.lang.reflect.Method;
 import java.util.Set;
 
 public class SecurityPipeline {
-    private final Method method;
+    private final EndpointDescriptor descriptor;
     private final boolean noCsrf;
     private final boolean needsBasicAuth;
     private final Set<AuthScheme> acceptedAuthSchemes;
 
     public SecurityPipeline(Method method, boolean noCsrf, boolean needsBasicAuth, Set<AuthScheme> acceptedAuthSchemes) {
-        this.method = method;
+        this(EndpointDescriptor.of(method), noCsrf, needsBasicAuth, acceptedAuthSchemes);
+    }
+
+    public SecurityPipeline(EndpointDescriptor descriptor, boolean noCsrf, boolean needsBasicAuth, Set<AuthScheme> acceptedAuthSchemes) {
+        this.descriptor = descriptor;
         this.noCsrf = noCsrf;
         this.needsBasicAuth = needsBasicAuth;
         this.acceptedAuthSchemes = acceptedAuthSchemes;
@@ -47,13 +53,20 @@ public class SecurityPipeline {
         if (!acceptedAuthSchemes.isEmpty()) {
             authenticatedUser = FiberServer.get().getAuthResolver().resolveUser(req, acceptedAuthSchemes);
             if (authenticatedUser == null) {
-                ErrorResponse.send(resp, req.getRequestURI(), HttpServletResponse.SC_UNAUTHORIZED, "Authentication required");
+                // Failed attempts on perUser endpoints still count, against the client's IP.
+                if (!rejectIfRateLimited(null, req, resp)) {
+                    ErrorResponse.send(resp, req.getRequestURI(), HttpServletResponse.SC_UNAUTHORIZED, "Authentication required");
+                }
                 return SecurityResult.denied();
             }
             req.setAttribute("userId", authenticatedUser.getId());
         }
 
-        Object permissionResult = PermissionProcessor.process(method, authenticatedUser);
+        if (rejectIfRateLimited(authenticatedUser, req, resp)) {
+            return SecurityResult.denied();
+        }
+
+        Object permissionResult = PermissionProcessor.process(descriptor, authenticatedUser);
         if (permissionResult != null) {
             ResponseEntity<?> permResponse = (ResponseEntity<?>) permissionResult;
             permResponse.write(req, resp);
@@ -62,4 +75,14 @@ public class SecurityPipeline {
 
         return SecurityResult.ok(authenticatedUser, authenticatedApp);
     }
+
+    /** Post-authentication stage of {@code @RateLimit(perUser = true)}; writes the 429 if any. */
+    private boolean rejectIfRateLimited(UserAuth user, HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        ResponseEntity<?> rateLimited = RateLimitProcessor.postAuth(descriptor, user, req);
+        if (rateLimited == null) {
+            return false;
+        }
+        rateLimited.write(req, resp);
+        return true;
+    }
 }
@@ -6,9 +6,9 @@ import sh.fyz.fiber.FiberServer;
 import sh.fyz.fiber.annotations.params.AuthenticatedUser;
 import sh.fyz.fiber.core.authentication.AuthMiddleware;
 import sh.fyz.fiber.core.authentication.entities.UserAuth;
+import sh.fyz.fiber.core.PathVariables;
 
 import java.lang.reflect.Parameter;
-import java.util.regex.Matcher;
 
 /**
  * Handler pour les paramètres annotés avec @AuthenticatedUser.
@@ -20,7 +20,7 @@ public class AuthenticatedUserParameterHandler implements ParameterHandler {
     }
 
     @Override
-    public Object handle(Parameter parameter, HttpServletRequest request, HttpServletResponse response, Matcher pathMatcher) {
+    public Object handle(Parameter parameter, HttpServletRequest request, HttpServletResponse response, PathVariables pathVariables) {
         Class<?> type = parameter.getType();
         
         if (UserAuth.class.isAssignableFrom(type)) {
@@ -6,9 +6,9 @@ import jakarta.servlet.http.Part;
 import sh.fyz.fiber.annotations.params.FileUpload;
 import sh.fyz.fiber.core.upload.FileUploadManager;
 import sh.fyz.fiber.core.upload.UploadedFile;
+import sh.fyz.fiber.core.PathVariables;
 
 import java.lang.reflect.Parameter;
-import java.util.regex.Matcher;
 
 /**
  * Handler for {@code @FileUpload}-annotated parameters.
@@ -25,13 +25,23 @@ public class FileUploadParameterHandler implements ParameterHandler {
     }
 
     @Override
-    public Object handle(Parameter parameter, HttpServletRequest request, HttpServletResponse response, Matcher pathMatcher) throws Exception {
+    public Object handle(Parameter parameter, HttpServletRequest request, HttpServletResponse response, PathVariables pathVariables) throws Exception {
+        return handle(parameter.getName(), parameter.getAnnotation(FileUpload.class), request);
+    }
+
+    @Override
+    public ParameterBinder bind(Parameter parameter) {
+        String partName = parameter.getName();
+        FileUpload annotation = parameter.getAnnotation(FileUpload.class);
+        return (request, response, pathVariables) -> handle(partName, annotation, request);
+    }
+
+    private Object handle(String partName, FileUpload annotation, HttpServletRequest request) throws Exception {
         String contentType = request.getContentType();
         if (contentType == null || !contentType.startsWith("multipart/form-data")) {
             throw new IllegalArgumentException("Le contenu doit être multipart/form-data");
         }
 
-        FileUpload annotation = parameter.getAnnotation(FileUpload.class);
         String uploadId = request.getParameter("uploadId");
         String chunkIndexStr = request.getParameter("chunkIndex");
         String totalChunksStr = request.getParameter("totalChunks");
@@ -45,13 +55,13 @@ public class FileUploadParameterHandler implements ParameterHandler {
                 throw new IllegalArgumentException("Upload ID invalide");
             }
 
-            Part filePart = request.getPart(parameter.getName());
+            Part filePart = request.getPart(partName);
             validateFilePart(filePart, annotation);
 
             existingFile.addChunk(filePart, chunkIndex, totalChunks);
             return existingFile;
         } else {
-            Part filePart = request.getPart(parameter.getName());
+            Part filePart = request.getPart(partName);
             validateFilePart(filePart, annotation);
 
             int totalChunks = 1;
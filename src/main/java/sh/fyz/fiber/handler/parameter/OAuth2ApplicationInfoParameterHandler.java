@@ -5,9 +5,9 @@ import jakarta.servlet.http.HttpServletResponse;
 import sh.fyz.fiber.core.authentication.oauth2.OAuth2ApplicationInfo;
 import sh.fyz.fiber.core.authentication.impl.BasicAuthenticator;
 import sh.fyz.fiber.FiberServer;
+import sh.fyz.fiber.core.PathVariables;
 
 import java.lang.reflect.Parameter;
-import java.util.regex.Matcher;
 
 public class OAuth2ApplicationInfoParameterHandler implements ParameterHandler {
     @Override
@@ -16,7 +16,7 @@ public class OAuth2ApplicationInfoParameterHandler implements ParameterHandler {
     }
 
     @Override
-    public Object handle(Parameter parameter, HttpServletRequest request, HttpServletResponse response, Matcher pathMatcher) {
+    public Object handle(Parameter parameter, HttpServletRequest request, HttpServletResponse response, PathVariables pathVariables) {
         BasicAuthenticator authenticator = FiberServer.get().getBasicAuthenticator();
         if (authenticator != null) {
             return authenticator.authenticate(request);
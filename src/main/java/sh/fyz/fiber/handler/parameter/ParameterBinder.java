@@ -0,0 +1,22 @@
+package sh.fyz.fiber.handler.parameter;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import sh.fyz.fiber.core.PathVariables;
+
+/**
+ * One slot of an endpoint's binding plan: a {@link ParameterHandler} already bound to a
+ * specific parameter, with its annotations, converter and validators looked up once.
+ *
+ * @see ParameterHandler#bind(java.lang.reflect.Parameter)
+ */
+@FunctionalInterface
+public interface ParameterBinder {
+    /**
+     * Produce the argument value for this slot.
+     *
+     * @throws IllegalArgumentException for client errors (answered with 400)
+     * @throws Exception for anything else (answered with 500)
+     */
+    Object resolve(HttpServletRequest request, HttpServletResponse response, PathVariables pathVariables) throws Exception;
+}
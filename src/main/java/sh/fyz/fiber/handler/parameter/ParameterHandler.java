@@ -2,6 +2,7 @@ package sh.fyz.fiber.handler.parameter;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import sh.fyz.fiber.core.PathVariables;
 
 import java.lang.reflect.Parameter;
 
@@ -24,9 +25,21 @@ public interface ParameterHandler {
      * @param parameter Le paramètre à traiter
      * @param request La requête HTTP
      * @param response La réponse HTTP
-     * @param pathMatcher Le matcher pour les variables de chemin
+     * @param pathVariables Les variables de chemin capturées par le routeur
      * @return La valeur convertie du paramètre
      * @throws Exception Si une erreur survient pendant le traitement
      */
-    Object handle(Parameter parameter, HttpServletRequest request, HttpServletResponse response, java.util.regex.Matcher pathMatcher) throws Exception;
-} 
\ No newline at end of file
+    Object handle(Parameter parameter, HttpServletRequest request, HttpServletResponse response, PathVariables pathVariables) throws Exception;
+
+    /**
+     * Prépare la résolution de {@code parameter} une fois pour toutes, à l'enregistrement de
+     * l'endpoint. Les handlers qui lisent des annotations ou choisissent un convertisseur
+     * devraient surcharger cette méthode pour le faire ici plutôt qu'à chaque requête.
+     *
+     * @param parameter Le paramètre à lier (déjà accepté par {@link #canHandle})
+     * @return Le binder utilisé à chaque requête
+     */
+    default ParameterBinder bind(Parameter parameter) {
+        return (request, response, pathVariables) -> handle(parameter, request, response, pathVariables);
+    }
+}
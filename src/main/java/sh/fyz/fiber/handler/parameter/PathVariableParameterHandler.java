@@ -6,9 +6,10 @@ import sh.fyz.fiber.annotations.params.PathVariable;
 import sh.fyz.fiber.util.TypeConverter;
 import sh.fyz.fiber.validation.ValidationRegistry;
 import sh.fyz.fiber.validation.ValidationResult;
+import sh.fyz.fiber.core.PathVariables;
 
 import java.lang.reflect.Parameter;
-import java.util.regex.Matcher;
+import java.util.function.Function;
 
 public class PathVariableParameterHandler implements ParameterHandler {
     @Override
@@ -17,33 +18,40 @@ public class PathVariableParameterHandler implements ParameterHandler {
     }
 
     @Override
-    public Object handle(Parameter parameter, HttpServletRequest request, HttpServletResponse response, Matcher pathMatcher) throws Exception {
-        PathVariable pathVar = parameter.getAnnotation(PathVariable.class);
-        String name = pathVar.value();
-
-        String value;
-        try {
-            value = pathMatcher.group(name);
-        } catch (IllegalArgumentException e) {
-            // Endpoint route is missing the named capture group — programmer error.
-            throw new IllegalStateException(
-                    "Path variable '" + name + "' is not declared in the route pattern", e);
-        }
-
-        if (value == null) {
-            throw new IllegalArgumentException("Missing path variable: " + name);
-        }
-
-        Object convertedValue = TypeConverter.convert(value, parameter.getType());
-        if (convertedValue == null && parameter.getType().isPrimitive()) {
-            throw new IllegalArgumentException("Invalid value for path variable: " + name);
-        }
-
-        ValidationResult result = ValidationRegistry.validateParameter(parameter, convertedValue);
-        if (!result.isValid()) {
-            throw new IllegalArgumentException(result.getFirstError());
-        }
-
-        return convertedValue;
+    public Object handle(Parameter parameter, HttpServletRequest request, HttpServletResponse response, PathVariables pathVariables) throws Exception {
+        return bind(parameter).resolve(request, response, pathVariables);
+    }
+
+    @Override
+    public ParameterBinder bind(Parameter parameter) {
+        String name = parameter.getAnnotation(PathVariable.class).value();
+        boolean primitive = parameter.getType().isPrimitive();
+        Function<String, Object> converter = TypeConverter.converterFor(parameter.getType());
+        ValidationRegistry.ParameterValidation validation = ValidationRegistry.forParameter(parameter);
+
+        return (request, response, pathVariables) -> {
+            if (!pathVariables.contains(name)) {
+                // Endpoint route does not declare this variable — programmer error.
+                throw new IllegalStateException(
+                        "Path variable '" + name + "' is not declared in the route pattern");
+            }
+            String value = pathVariables.get(name);
+
+            if (value == null) {
+                throw new IllegalArgumentException("Missing path variable: " + name);
+            }
+
+            Object convertedValue = converter.apply(value);
+            if (convertedValue == null && primitive) {
+                throw new IllegalArgumentException("Invalid value for path variable: " + name);
+            }
+
+            ValidationResult result = validation.validate(convertedValue);
+            if (!result.isValid()) {
+                throw new IllegalArgumentException(result.getFirstError());
+            }
+
+            return convertedValue;
+        };
     }
 }
@@ -6,9 +6,10 @@ import sh.fyz.fiber.annotations.params.Param;
 import sh.fyz.fiber.util.TypeConverter;
 import sh.fyz.fiber.validation.ValidationRegistry;
 import sh.fyz.fiber.validation.ValidationResult;
+import sh.fyz.fiber.core.PathVariables;
 
 import java.lang.reflect.Parameter;
-import java.util.regex.Matcher;
+import java.util.function.Function;
 
 public class QueryParameterHandler implements ParameterHandler {
     @Override
@@ -17,33 +18,45 @@ public class QueryParameterHandler implements ParameterHandler {
     }
 
     @Override
-    public Object handle(Parameter parameter, HttpServletRequest request, HttpServletResponse response, Matcher pathMatcher) throws Exception {
+    public Object handle(Parameter parameter, HttpServletRequest request, HttpServletResponse response, PathVariables pathVariables) throws Exception {
+        return bind(parameter).resolve(request, response, pathVariables);
+    }
+
+    @Override
+    public ParameterBinder bind(Parameter parameter) {
         Param param = parameter.getAnnotation(Param.class);
-        String value = request.getParameter(param.value());
-
-        if (value == null && param.required()) {
-            throw new IllegalArgumentException("Required parameter '" + param.value() + "' is missing");
-        }
-
-        Object convertedValue;
-        try {
-            convertedValue = TypeConverter.convert(value, parameter.getType());
-        } catch (RuntimeException e) {
-            throw new IllegalArgumentException(
-                    "Invalid value for parameter '" + param.value() + "': " + e.getMessage(), e);
-        }
-
-        if (convertedValue == null && param.required()) {
-            throw new IllegalArgumentException(
-                    "Required parameter '" + param.value() + "' could not be converted to "
-                            + parameter.getType().getSimpleName());
-        }
-
-        ValidationResult result = ValidationRegistry.validateParameter(parameter, convertedValue);
-        if (!result.isValid()) {
-            throw new IllegalArgumentException(result.getFirstError());
-        }
-
-        return convertedValue;
+        String name = param.value();
+        boolean required = param.required();
+        String typeName = parameter.getType().getSimpleName();
+        Function<String, Object> converter = TypeConverter.converterFor(parameter.getType());
+        ValidationRegistry.ParameterValidation validation = ValidationRegistry.forParameter(parameter);
+
+        return (request, response, pathVariables) -> {
+            String value = request.getParameter(name);
+
+            if (value == null && required) {
+                throw new IllegalArgumentException("Required parameter '" + name + "' is missing");
+            }
+
+            Object convertedValue;
+            try {
+                convertedValue = converter.apply(value);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException(
+                        "Invalid value for parameter '" + name + "': " + e.getMessage(), e);
+            }
+
+            if (convertedValue == null && required) {
+                throw new IllegalArgumentException(
+                        "Required parameter '" + name + "' could not be converted to " + typeName);
+            }
+
+            ValidationResult result = validation.validate(convertedValue);
+            if (!result.isValid()) {
+                throw new IllegalArgumentException(result.getFirstError());
+            }
+
+            return convertedValue;
+        };
     }
 }
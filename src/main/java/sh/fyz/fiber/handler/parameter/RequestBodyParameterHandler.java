@@ -1,52 +1,110 @@
 package sh.fyz.fiber.handler.parameter;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import sh.fyz.fiber.annotations.params.RequestBody;
+import sh.fyz.fiber.core.security.annotations.AuditLog;
 import sh.fyz.fiber.core.security.logging.AuditLogProcessor;
-import sh.fyz.fiber.util.JsonUtil;
+import sh.fyz.fiber.handler.ParameterResolver;
+import sh.fyz.fiber.util.BoundedInputStream;
+import sh.fyz.fiber.util.JsonCodec;
 import sh.fyz.fiber.validation.ValidationRegistry;
 import sh.fyz.fiber.validation.ValidationResult;
+import sh.fyz.fiber.core.PathVariables;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.lang.reflect.Parameter;
-import java.util.regex.Matcher;
-import java.util.stream.Collectors;
+import java.nio.charset.StandardCharsets;
 
+/**
+ * Binds {@code @RequestBody} parameters by parsing JSON straight from the request
+ * {@code InputStream}; the body is never materialised as a {@code String}.
+ *
+ * <p>Bodies larger than {@link #setMaxBodySize(long)} answer 413, either up front from
+ * {@code Content-Length} or as soon as the stream crosses the limit. The raw body is only
+ * captured (for {@link AuditLogProcessor}) when the endpoint carries {@code @AuditLog}.</p>
+ */
 public class RequestBodyParameterHandler implements ParameterHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(RequestBodyParameterHandler.class);
 
+    public static final long DEFAULT_MAX_BODY_SIZE = 10_000_000;
+
+    private static volatile long maxBodySize = DEFAULT_MAX_BODY_SIZE;
+
+    public static void setMaxBodySize(long bytes) {
+        if (bytes <= 0) {
+            throw new IllegalArgumentException("Maximum body size must be positive");
+        }
+        maxBodySize = bytes;
+    }
+
+    public static long getMaxBodySize() {
+        return maxBodySize;
+    }
+
     @Override
     public boolean canHandle(Parameter parameter) {
         return parameter.isAnnotationPresent(RequestBody.class);
     }
 
     @Override
-    public Object handle(Parameter parameter, HttpServletRequest request, HttpServletResponse response, Matcher pathMatcher) throws Exception {
-        String body;
-        try {
-            body = request.getReader().lines().collect(Collectors.joining());
-        } catch (IOException e) {
-            throw new IllegalArgumentException("Could not read request body", e);
-        }
-        request.setAttribute(AuditLogProcessor.RAW_BODY_ATTRIBUTE, body);
+    public Object handle(Parameter parameter, HttpServletRequest request, HttpServletResponse response, PathVariables pathVariables) throws Exception {
+        return read(parameter.getName(), JsonCodec.forType(parameter.getParameterizedType()), isAudited(parameter), request);
+    }
+
+    @Override
+    public ParameterBinder bind(Parameter parameter) {
+        String name = parameter.getName();
+        // Generic type, so List<Dto> bodies bind Dto elements; the reader is built once here.
+        JsonCodec codec = JsonCodec.forType(parameter.getParameterizedType());
+        boolean audited = isAudited(parameter);
+        return (request, response, pathVariables) -> read(name, codec, audited, request);
+    }
+
+    private static boolean isAudited(Parameter parameter) {
+        return parameter.getDeclaringExecutable().isAnnotationPresent(AuditLog.class);
+    }
 
-        if (body == null || body.isBlank()) {
-            throw new IllegalArgumentException("Request body is empty");
+    private Object read(String name, JsonCodec codec, boolean captureRawBody, HttpServletRequest request) throws Exception {
+        long limit = maxBodySize;
+        long declaredLength = request.getContentLengthLong();
+        if (declaredLength > limit) {
+            throw tooLarge(limit);
         }
 
+        ByteArrayOutputStream rawBody = captureRawBody
+                ? new ByteArrayOutputStream(declaredLength > 0 ? (int) Math.min(declaredLength, 65_536) : 512)
+                : null;
+
+        ObjectReader reader = codec.reader();
         Object deserializedObject;
-        try {
-            deserializedObject = JsonUtil.fromJson(body, parameter.getType());
+        try (JsonParser parser = reader.createParser(
+                new BoundedInputStream(request.getInputStream(), limit, rawBody))) {
+            if (parser.nextToken() == null) {
+                throw new IllegalArgumentException("Request body is empty");
+            }
+            deserializedObject = reader.readValue(parser);
+        } catch (BoundedInputStream.LimitExceededException e) {
+            throw tooLarge(limit);
         } catch (JsonProcessingException e) {
-            logger.debug("Invalid JSON body for parameter {}: {}", parameter.getName(), e.getOriginalMessage());
+            if (e.getCause() instanceof BoundedInputStream.LimitExceededException) {
+                throw tooLarge(limit);
+            }
+            logger.debug("Invalid JSON body for parameter {}: {}", name, e.getOriginalMessage());
             throw new IllegalArgumentException("Invalid JSON request body: " + e.getOriginalMessage());
         } catch (IOException e) {
-            throw new IllegalArgumentException("Could not parse request body", e);
+            throw new IllegalArgumentException("Could not read request body", e);
+        } finally {
+            if (rawBody != null) {
+                request.setAttribute(AuditLogProcessor.RAW_BODY_ATTRIBUTE, rawBody.toString(StandardCharsets.UTF_8));
+            }
         }
 
         if (deserializedObject == null) {
@@ -60,4 +118,9 @@ public class RequestBodyParameterHandler implements ParameterHandler {
 
         return deserializedObject;
     }
+
+    private static ParameterResolver.ResolveException tooLarge(long limit) {
+        return new ParameterResolver.ResolveException("Request body exceeds " + limit + " bytes",
+                HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+    }
 }
@@ -2,9 +2,9 @@ package sh.fyz.fiber.handler.parameter;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import sh.fyz.fiber.core.PathVariables;
 
 import java.lang.reflect.Parameter;
-import java.util.regex.Matcher;
 
 /**
  * Handler pour les paramètres de type HttpServletRequest et HttpServletResponse.
@@ -17,7 +17,7 @@ public class ServletParameterHandler implements ParameterHandler {
     }
 
     @Override
-    public Object handle(Parameter parameter, HttpServletRequest request, HttpServletResponse response, Matcher pathMatcher) {
+    public Object handle(Parameter parameter, HttpServletRequest request, HttpServletResponse response, PathVariables pathVariables) {
         Class<?> type = parameter.getType();
         if (type == HttpServletRequest.class) {
             return request;
@@ -26,4 +26,12 @@ public class ServletParameterHandler implements ParameterHandler {
         }
         throw new IllegalArgumentException("Unsupported parameter type: " + type);
     }
+
+    @Override
+    public ParameterBinder bind(Parameter parameter) {
+        if (parameter.getType() == HttpServletRequest.class) {
+            return (request, response, pathVariables) -> request;
+        }
+        return (request, response, pathVariables) -> response;
+    }
 } 
\ No newline at end of file
@@ -5,9 +5,9 @@ import jakarta.servlet.http.HttpServletResponse;
 import sh.fyz.fiber.annotations.params.CurrentSession;
 import sh.fyz.fiber.core.session.FiberSession;
 import sh.fyz.fiber.core.session.SessionContext;
+import sh.fyz.fiber.core.PathVariables;
 
 import java.lang.reflect.Parameter;
-import java.util.regex.Matcher;
 
 public class SessionParameterHandler implements ParameterHandler {
 
@@ -18,11 +18,19 @@ public class SessionParameterHandler implements ParameterHandler {
     }
 
     @Override
-    public Object handle(Parameter parameter, HttpServletRequest request, HttpServletResponse response, Matcher pathMatcher) {
+    public Object handle(Parameter parameter, HttpServletRequest request, HttpServletResponse response, PathVariables pathVariables) {
         FiberSession session = SessionContext.current();
         if (session == null && parameter.isAnnotationPresent(CurrentSession.class)) {
             throw new IllegalArgumentException("No active session available. Make sure SessionService is configured and the user is authenticated.");
         }
         return session;
     }
+
+    @Override
+    public ParameterBinder bind(Parameter parameter) {
+        if (!parameter.isAnnotationPresent(CurrentSession.class)) {
+            return (request, response, pathVariables) -> SessionContext.current();
+        }
+        return (request, response, pathVariables) -> handle(parameter, request, response, pathVariables);
+    }
 }
@@ -0,0 +1,87 @@
+package sh.fyz.fiber.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Input stream that fails as soon as more than {@code limit} bytes have been read, so an
+ * oversized body is rejected while it streams instead of after it has been buffered.
+ * Optionally copies what it reads into {@code capture} (bounded by the same limit).
+ */
+public final class BoundedInputStream extends FilterInputStream {
+
+    /** Thrown by reads once the stream goes past its limit. */
+    public static final class LimitExceededException extends IOException {
+        private final long limit;
+
+        LimitExceededException(long limit) {
+            super("Stream exceeds " + limit + " bytes");
+            this.limit = limit;
+        }
+
+        public long getLimit() {
+            return limit;
+        }
+    }
+
+    private final long limit;
+    private final ByteArrayOutputStream capture;
+    private long count;
+
+    public BoundedInputStream(InputStream in, long limit) {
+        this(in, limit, null);
+    }
+
+    public BoundedInputStream(InputStream in, long limit, ByteArrayOutputStream capture) {
+        super(in);
+        this.limit = limit;
+        this.capture = capture;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = in.read();
+        if (b >= 0) {
+            advance(1);
+            if (capture != null) {
+                capture.write(b);
+            }
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        int n = in.read(buffer, offset, length);
+        if (n > 0) {
+            advance(n);
+            if (capture != null) {
+                capture.write(buffer, offset, n);
+            }
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = in.skip(n);
+        if (skipped > 0) {
+            advance(skipped);
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    private void advance(long n) throws LimitExceededException {
+        count += n;
+        if (count > limit) {
+            throw new LimitExceededException(limit);
+        }
+    }
+}
@@ -2,13 +2,43 @@ package sh.fyz.fiber.util;
 
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import sh.fyz.fiber.core.dto.DTOSerializer;
+
+import java.util.function.Consumer;
 
 public class FiberObjectMapper extends ObjectMapper {
 
+    private static final FiberObjectMapper SHARED = new FiberObjectMapper();
+
+    /** Bumped on every {@link #configureShared}, so cached readers/writers know to rebuild. */
+    private static volatile int generation;
+
     public FiberObjectMapper() {
         registerModule(new com.fasterxml.jackson.datatype.jsr310.JavaTimeModule());
+        registerModule(DTOSerializer.module());
         deactivateDefaultTyping();
         configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
     }
 
+    /**
+     * The mapper used for request bodies, responses and {@link JsonUtil}. Do not mutate it
+     * directly: go through {@link #configureShared} so prebuilt readers/writers follow.
+     */
+    public static FiberObjectMapper shared() {
+        return SHARED;
+    }
+
+    /**
+     * Apply {@code customizer} to the shared mapper (modules, features, naming strategy...).
+     * Meant for startup, before traffic: Jackson mappers are not safe to reconfigure while
+     * in use.
+     */
+    public static synchronized void configureShared(Consumer<? super FiberObjectMapper> customizer) {
+        customizer.accept(SHARED);
+        generation++;
+    }
+
+    static int generation() {
+        return generation;
+    }
 }
@@ -0,0 +1,60 @@
+package sh.fyz.fiber.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+
+/**
+ * Writes a JSON body onto a servlet response, shared by {@code ResponseWriter} and
+ * {@code ResponseEntity}.
+ *
+ * <ul>
+ *     <li><b>buffered</b> (default) — the body is serialized to a {@code byte[]} first so
+ *     {@code Content-Length} can be set; best for small payloads;</li>
+ *     <li><b>streaming</b> — Jackson's {@link JsonGenerator} writes directly onto
+ *     {@link HttpServletResponse#getOutputStream()}; no {@code Content-Length}, so the
+ *     container falls back to chunked transfer and the body never exists on-heap in full.</li>
+ * </ul>
+ */
+public final class JsonBodyWriter {
+
+    private JsonBodyWriter() {}
+
+    public static void write(HttpServletResponse response, Object value, boolean streaming) throws IOException {
+        write(response, value, streaming, JsonCodec.UNTYPED);
+    }
+
+    /**
+     * @param codec the endpoint's prebuilt writers; in streaming mode the servlet container
+     *              owns the output stream, so the writer used flushes it but never closes it
+     */
+    public static void write(HttpServletResponse response, Object value, boolean streaming, JsonCodec codec) throws IOException {
+        ObjectWriter writer = codec.writerFor(value, streaming);
+        if (streaming) {
+            stream(response, value, writer);
+        } else {
+            byte[] json = writer.writeValueAsBytes(value);
+            response.setContentLength(json.length);
+            response.getOutputStream().write(json);
+            response.getOutputStream().flush();
+        }
+    }
+
+    private static void stream(HttpServletResponse response, Object value, ObjectWriter writer) throws IOException {
+        ServletOutputStream out = response.getOutputStream();
+        try {
+            writer.writeValue(out, value);
+        } catch (IOException | RuntimeException e) {
+            // Nothing has reached the client yet: drop the partial document so the caller
+            // can still answer with a clean error. Once committed the body is truncated.
+            if (!response.isCommitted()) {
+                response.resetBuffer();
+            }
+            throw e;
+        }
+        out.flush();
+    }
+}
@@ -0,0 +1,118 @@
+package sh.fyz.fiber.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import sh.fyz.fiber.core.ResponseEntity;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+
+/**
+ * {@link ObjectReader}/{@link ObjectWriter} pair for one declared Java type, built once
+ * from the shared {@link FiberObjectMapper} (and rebuilt if it is reconfigured).
+ *
+ * <p>Types are taken from generic signatures, so {@code List<UserDto>} bodies deserialize
+ * to {@code UserDto} elements rather than maps, and the root type is not resolved again
+ * on every request.</p>
+ *
+ * <p>Writing uses the typed writer only when the declared type fully determines the
+ * serializer (containers, final classes) and the value is an instance of it; anything
+ * else, e.g. a subclass returned for a non-final declared type, goes through
+ * {@link #UNTYPED} so its runtime type is serialized as before.</p>
+ */
+public final class JsonCodec {
+
+    /** Codec for values whose type is only known at runtime. */
+    public static final JsonCodec UNTYPED = new JsonCodec(null);
+
+    private final Type type;
+    private volatile Snapshot snapshot;
+
+    /** {@code rawClass} is {@code null} when {@code writer} is not bound to a declared type. */
+    private record Snapshot(int generation, ObjectReader reader, ObjectWriter writer,
+                            ObjectWriter streamingWriter, Class<?> rawClass) {}
+
+    private JsonCodec(Type type) {
+        this.type = type;
+    }
+
+    public static JsonCodec forType(Type type) {
+        if (type == null || type == Object.class) {
+            return UNTYPED;
+        }
+        return new JsonCodec(type);
+    }
+
+    /**
+     * Codec for what {@code method} returns: its generic return type, or the body type
+     * {@code T} when it returns {@code ResponseEntity<T>}.
+     */
+    public static JsonCodec forResponse(Method method) {
+        Type returnType = method.getGenericReturnType();
+        if (returnType == void.class || returnType == ResponseEntity.class) {
+            return UNTYPED;
+        }
+        if (returnType instanceof ParameterizedType parameterized
+                && parameterized.getRawType() == ResponseEntity.class) {
+            return forType(parameterized.getActualTypeArguments()[0]);
+        }
+        return forType(returnType);
+    }
+
+    public ObjectReader reader() {
+        return snapshot().reader();
+    }
+
+    /**
+     * @param streaming {@code true} for a writer that leaves the target stream open
+     *                  (see {@link JsonBodyWriter})
+     */
+    public ObjectWriter writerFor(Object value, boolean streaming) {
+        Snapshot s = snapshot();
+        if (s.rawClass() != null && !s.rawClass().isInstance(value)) {
+            return UNTYPED.writerFor(value, streaming);
+        }
+        return streaming ? s.streamingWriter() : s.writer();
+    }
+
+    private Snapshot snapshot() {
+        int generation = FiberObjectMapper.generation();
+        Snapshot s = snapshot;
+        if (s == null || s.generation() != generation) {
+            s = build(generation);
+            snapshot = s;
+        }
+        return s;
+    }
+
+    private Snapshot build(int generation) {
+        FiberObjectMapper mapper = FiberObjectMapper.shared();
+        if (type == null) {
+            ObjectWriter writer = mapper.writer();
+            return new Snapshot(generation, mapper.readerFor(Object.class), writer,
+                    writer.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET), null);
+        }
+
+        JavaType javaType = mapper.getTypeFactory().constructType(type);
+        ObjectReader reader = mapper.readerFor(javaType);
+        if (!isStaticallyTyped(javaType)) {
+            Snapshot untyped = UNTYPED.snapshot();
+            return new Snapshot(generation, reader, untyped.writer(), untyped.streamingWriter(), null);
+        }
+        ObjectWriter writer = mapper.writerFor(javaType);
+        return new Snapshot(generation, reader, writer,
+                writer.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET), javaType.getRawClass());
+    }
+
+    private static boolean isStaticallyTyped(JavaType javaType) {
+        if (javaType.isPrimitive() || javaType.getRawClass() == Object.class) {
+            return false;
+        }
+        return javaType.isContainerType() || javaType.isReferenceType()
+                || Modifier.isFinal(javaType.getRawClass().getModifiers());
+    }
+}
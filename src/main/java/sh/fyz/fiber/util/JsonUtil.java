@@ -4,7 +4,7 @@ package sh.fyz.fiber.util;
  * Classe utilitaire pour la gestion du JSON.
  */
 public class JsonUtil {
-    private static final FiberObjectMapper objectMapper = new FiberObjectMapper();
+    private static final FiberObjectMapper objectMapper = FiberObjectMapper.shared();
 
     /**
      * Convertit un objet en chaîne JSON.
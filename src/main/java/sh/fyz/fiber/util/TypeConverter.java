@@ -1,7 +1,15 @@
 package sh.fyz.fiber.util;
 
+import java.util.function.Function;
+
 public final class TypeConverter {
 
+    private static final Function<String, Object> IDENTITY = value -> value;
+    private static final Function<String, Object> TO_INTEGER = value -> value == null ? null : Integer.parseInt(value);
+    private static final Function<String, Object> TO_LONG = value -> value == null ? null : Long.parseLong(value);
+    private static final Function<String, Object> TO_DOUBLE = value -> value == null ? null : Double.parseDouble(value);
+    private static final Function<String, Object> TO_BOOLEAN = value -> value == null ? null : Boolean.parseBoolean(value);
+
     private TypeConverter() {}
 
     public static Object convert(String value, Class<?> type) {
@@ -23,4 +31,30 @@ public final class TypeConverter {
             throw new IllegalArgumentException("Unsupported type: " + type);
         }
     }
+
+    /**
+     * Resolve the conversion for {@code type} once, e.g. when binding an endpoint
+     * parameter. The returned function behaves exactly like {@link #convert(String, Class)},
+     * including returning {@code null} for a {@code null} input and throwing
+     * {@link IllegalArgumentException} for unsupported types (lazily, on a non-null value).
+     */
+    public static Function<String, Object> converterFor(Class<?> type) {
+        if (type == String.class) {
+            return IDENTITY;
+        } else if (type == Integer.class || type == int.class) {
+            return TO_INTEGER;
+        } else if (type == Long.class || type == long.class) {
+            return TO_LONG;
+        } else if (type == Double.class || type == double.class) {
+            return TO_DOUBLE;
+        } else if (type == Boolean.class || type == boolean.class) {
+            return TO_BOOLEAN;
+        }
+        return value -> {
+            if (value == null) {
+                return null;
+            }
+            throw new IllegalArgumentException("Unsupported type: " + type);
+        };
+    }
 }
@@ -84,4 +84,47 @@ public class ValidationRegistry {
         }
         return ValidationResult.valid();
     }
+
+    /**
+     * Precompiled {@link #validateParameter} for one parameter: the validators matching
+     * its annotations are looked up once, so validating is a loop over a small array.
+     */
+    public static final class ParameterValidation {
+        private static final ParameterValidation NONE = new ParameterValidation(new Validator<?>[0], new Annotation[0]);
+
+        private final Validator<?>[] validators;
+        private final Annotation[] annotations;
+
+        private ParameterValidation(Validator<?>[] validators, Annotation[] annotations) {
+            this.validators = validators;
+            this.annotations = annotations;
+        }
+
+        @SuppressWarnings("unchecked")
+        public ValidationResult validate(Object value) {
+            for (int i = 0; i < validators.length; i++) {
+                ValidationResult result = ((Validator<Object>) validators[i]).validate(value, annotations[i]);
+                if (!result.isValid()) {
+                    return result;
+                }
+            }
+            return ValidationResult.valid();
+        }
+    }
+
+    public static ParameterValidation forParameter(Parameter parameter) {
+        List<Validator<?>> found = new ArrayList<>();
+        List<Annotation> annotations = new ArrayList<>();
+        for (Annotation annotation : parameter.getAnnotations()) {
+            Validator<?> validator = validators.get(annotation.annotationType());
+            if (validator != null) {
+                found.add(validator);
+                annotations.add(annotation);
+            }
+        }
+        if (found.isEmpty()) {
+            return ParameterValidation.NONE;
+        }
+        return new ParameterValidation(found.toArray(new Validator<?>[0]), annotations.toArray(new Annotation[0]));
+    }
 }
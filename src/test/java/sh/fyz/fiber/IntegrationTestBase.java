@@ -3,6 +3,7 @@ package sh.fyz.fiber;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.TestInstance;
+import org.postgresql.ds.PGSimpleDataSource;
 import sh.fyz.architect.Architect;
 import sh.fyz.architect.persistent.DatabaseCredentials;
 import sh.fyz.architect.persistent.sql.provider.PostgreSQLAuth;
@@ -12,6 +13,7 @@ import sh.fyz.fiber.core.session.FiberSession;
 import sh.fyz.fiber.core.session.SessionService;
 import sh.fyz.fiber.test.*;
 
+import javax.sql.DataSource;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
@@ -112,6 +114,17 @@ public abstract class IntegrationTestBase {
         // Don't stop server here since it's shared across test classes
     }
 
+    /** Plain JDBC access to the suite database, for the stores that take a {@link DataSource}. */
+    protected static DataSource dataSource() {
+        PGSimpleDataSource dataSource = new PGSimpleDataSource();
+        dataSource.setServerNames(new String[]{env("DB_HOST", "localhost")});
+        dataSource.setPortNumbers(new int[]{Integer.parseInt(env("DB_PORT", "5440"))});
+        dataSource.setDatabaseName(env("DB_NAME", "freshapi"));
+        dataSource.setUser(env("DB_USER", "freshapi"));
+        dataSource.setPassword(env("DB_PASSWORD", "freshapi"));
+        return dataSource;
+    }
+
     protected String baseUrl() {
         return "http://localhost:" + PORT;
     }
@@ -0,0 +1,88 @@
+package sh.fyz.fiber;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.ds.PGSimpleDataSource;
+import sh.fyz.fiber.core.invalidation.InvalidationBus;
+import sh.fyz.fiber.core.invalidation.PostgresInvalidationBus;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PostgresInvalidationBusTest extends IntegrationTestBase {
+
+    private final List<PostgresInvalidationBus> buses = new ArrayList<>();
+
+    @AfterEach
+    void closeBuses() {
+        buses.forEach(PostgresInvalidationBus::close);
+        buses.clear();
+    }
+
+    private PostgresInvalidationBus bus(PGSimpleDataSource dataSource) throws InterruptedException {
+        PostgresInvalidationBus bus = new PostgresInvalidationBus(dataSource);
+        buses.add(bus);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!bus.isListening()) {
+            assertTrue(System.nanoTime() < deadline, "listener did not connect");
+            Thread.sleep(20);
+        }
+        return bus;
+    }
+
+    private static BlockingQueue<String> subscribe(InvalidationBus bus, String topic) {
+        BlockingQueue<String> received = new LinkedBlockingQueue<>();
+        bus.subscribe(topic, received::add);
+        return received;
+    }
+
+    @Test
+    void messagesReachOtherNodesButNotTheSender() throws Exception {
+        PostgresInvalidationBus nodeA = bus((PGSimpleDataSource) dataSource());
+        PostgresInvalidationBus nodeB = bus((PGSimpleDataSource) dataSource());
+        BlockingQueue<String> onA = subscribe(nodeA, InvalidationBus.SESSION);
+        BlockingQueue<String> onB = subscribe(nodeB, InvalidationBus.SESSION);
+        BlockingQueue<String> usersOnB = subscribe(nodeB, InvalidationBus.USER);
+
+        String fromA = "a-" + RUN_ID;
+        nodeA.publish(InvalidationBus.SESSION, fromA);
+        assertEquals(fromA, onB.poll(10, TimeUnit.SECONDS));
+        assertTrue(usersOnB.isEmpty());
+
+        // Notifications arrive in commit order: once A sees B's reply, its own would have come first.
+        String fromB = "b-" + RUN_ID;
+        nodeB.publish(InvalidationBus.SESSION, fromB);
+        assertEquals(fromB, onA.poll(10, TimeUnit.SECONDS));
+        assertTrue(onA.isEmpty());
+        assertNull(onB.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void lostListenerReconnectsAndAnnouncesAll() throws Exception {
+        String applicationName = "fiber-bus-test-" + RUN_ID;
+        PGSimpleDataSource dataSource = (PGSimpleDataSource) dataSource();
+        dataSource.setApplicationName(applicationName);
+        PostgresInvalidationBus node = bus(dataSource);
+        BlockingQueue<String> received = subscribe(node, InvalidationBus.SESSION);
+
+        try (Connection connection = dataSource().getConnection();
+             PreparedStatement kill = connection.prepareStatement(
+                     "SELECT pg_terminate_backend(pid) FROM pg_stat_activity WHERE application_name = ?")) {
+            kill.setString(1, applicationName);
+            kill.execute();
+        }
+
+        assertEquals(InvalidationBus.ALL, received.poll(15, TimeUnit.SECONDS));
+
+        PostgresInvalidationBus other = bus((PGSimpleDataSource) dataSource());
+        other.publish(InvalidationBus.SESSION, "after-" + RUN_ID);
+        assertEquals("after-" + RUN_ID, received.poll(10, TimeUnit.SECONDS));
+    }
+}
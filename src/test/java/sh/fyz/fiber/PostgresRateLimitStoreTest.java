@@ -0,0 +1,190 @@
+package sh.fyz.fiber;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import sh.fyz.fiber.core.security.annotations.RateLimit;
+import sh.fyz.fiber.core.security.ratelimit.PostgresRateLimitStore;
+import sh.fyz.fiber.core.security.ratelimit.RateLimitStore;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PostgresRateLimitStoreTest extends IntegrationTestBase {
+
+    @RateLimit(attempts = 5, timeout = 1, unit = TimeUnit.HOURS)
+    public void fixed() {}
+
+    @RateLimit(attempts = 5, timeout = 1, unit = TimeUnit.HOURS, algorithm = RateLimit.Algorithm.SLIDING_COUNTER)
+    public void counter() {}
+
+    @RateLimit(attempts = 5, timeout = 1, unit = TimeUnit.HOURS, algorithm = RateLimit.Algorithm.TOKEN_BUCKET)
+    public void bucket() {}
+
+    @RateLimit(attempts = 5, timeout = 1, unit = TimeUnit.HOURS, algorithm = RateLimit.Algorithm.GCRA)
+    public void gcra() {}
+
+    @RateLimit(attempts = 100, timeout = 1, unit = TimeUnit.HOURS, algorithm = RateLimit.Algorithm.GCRA)
+    public void busy() {}
+
+    @RateLimit(attempts = 2, timeout = 1, unit = TimeUnit.SECONDS)
+    public void perSecond() {}
+
+    private PostgresRateLimitStore storeA;
+    private PostgresRateLimitStore storeB;
+
+    @BeforeAll
+    void stores() {
+        storeA = new PostgresRateLimitStore(dataSource());
+        storeB = new PostgresRateLimitStore(dataSource());
+    }
+
+    @AfterAll
+    void closeStores() {
+        storeA.close();
+        storeB.close();
+    }
+
+    private static RateLimit limit(String name) throws Exception {
+        return PostgresRateLimitStoreTest.class.getMethod(name).getAnnotation(RateLimit.class);
+    }
+
+    private static String key(String name) {
+        return name + "-" + RUN_ID + "-" + System.nanoTime();
+    }
+
+    @Test
+    void admitsUpToTheLimitThenRejects() throws Exception {
+        RateLimit rateLimit = limit("fixed");
+        String key = key("limit");
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, storeA.tryAcquire(rateLimit, key, 1), "request " + i);
+        }
+        long wait = storeA.tryAcquire(rateLimit, key, 1);
+        assertTrue(wait > 0 && wait <= TimeUnit.HOURS.toNanos(1), "wait: " + wait);
+        assertFalse(storeA.isFailing());
+    }
+
+    @Test
+    void permitsAreTakenAllOrNothing() throws Exception {
+        for (String name : new String[]{"fixed", "counter", "bucket", "gcra"}) {
+            RateLimit rateLimit = limit(name);
+            String key = key(name);
+
+            assertEquals(0, storeA.tryAcquire(rateLimit, key, 4), name);
+            long wait = storeA.tryAcquire(rateLimit, key, 2);
+            assertTrue(wait > 0 && wait <= TimeUnit.HOURS.toNanos(2), name + " wait: " + wait);
+            assertEquals(0, storeA.tryAcquire(rateLimit, key, 1), name);
+            assertTrue(storeA.tryAcquire(rateLimit, key, 1) > 0, name);
+
+            storeA.reset(rateLimit, key);
+            assertEquals(0, storeA.tryAcquire(rateLimit, key, 5), name);
+            assertTrue(storeA.tryAcquire(rateLimit, key, 1) > 0, name);
+        }
+    }
+
+    @Test
+    void windowRollsOver() throws Exception {
+        RateLimit rateLimit = limit("perSecond");
+        String key = key("rollover");
+        // Windows are epoch-aligned: start right after a boundary so the first takes share one.
+        Thread.sleep(1000 - System.currentTimeMillis() % 1000 + 20);
+
+        assertEquals(0, storeA.tryAcquire(rateLimit, key, 2));
+        long wait = storeA.tryAcquire(rateLimit, key, 1);
+        assertTrue(wait > 0 && wait <= TimeUnit.SECONDS.toNanos(1), "wait: " + wait);
+
+        Thread.sleep(TimeUnit.NANOSECONDS.toMillis(wait) + 20);
+        assertEquals(0, storeA.tryAcquire(rateLimit, key, 1));
+    }
+
+    @Test
+    void twoStoresShareOneKey() throws Exception {
+        for (String name : new String[]{"fixed", "gcra"}) {
+            RateLimit rateLimit = limit(name);
+            String key = key("shared-" + name);
+
+            for (int i = 0; i < 3; i++) {
+                assertEquals(0, storeA.tryAcquire(rateLimit, key, 1), name);
+            }
+            assertEquals(0, storeB.tryAcquire(rateLimit, key, 2), name);
+            assertTrue(storeA.tryAcquire(rateLimit, key, 1) > 0, name);
+            assertTrue(storeB.tryAcquire(rateLimit, key, 1) > 0, name);
+
+            storeB.reset(rateLimit, key);
+            assertEquals(0, storeA.tryAcquire(rateLimit, key, 1), name);
+        }
+    }
+
+    @Test
+    void batchedNodesNeverExceedTheSharedLimit() throws Exception {
+        RateLimit rateLimit = limit("busy");
+        String key = key("batched");
+        RateLimitStore nodeA = storeA.batched(10);
+        RateLimitStore nodeB = storeB.batched(10);
+
+        int admitted = 0;
+        for (int i = 0; i < 240; i++) {
+            RateLimitStore node = i % 2 == 0 ? nodeA : nodeB;
+            if (node.tryAcquire(rateLimit, key, 1) == 0) admitted++;
+        }
+        assertEquals(100, admitted);
+    }
+
+    @Test
+    void purgeDeletesExpiredRows() throws Exception {
+        String key = "w:" + key("purge");
+        try (Connection connection = dataSource().getConnection()) {
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO fiber_rate_limits (key, expires_at) VALUES (?, 0)")) {
+                insert.setString(1, key);
+                insert.executeUpdate();
+            }
+
+            storeA.purgeExpired();
+
+            try (PreparedStatement select = connection.prepareStatement(
+                    "SELECT 1 FROM fiber_rate_limits WHERE key = ?")) {
+                select.setString(1, key);
+                try (ResultSet rs = select.executeQuery()) {
+                    assertFalse(rs.next());
+                }
+            }
+        }
+    }
+
+    @Test
+    void limitsStillApplyLocallyWhileTheDatabaseIsDown() throws Exception {
+        DataSource real = dataSource();
+        AtomicBoolean down = new AtomicBoolean();
+        DataSource flaky = Mockito.mock(DataSource.class);
+        Mockito.when(flaky.getConnection()).thenAnswer(inv -> {
+            if (down.get()) throw new SQLException("Connection refused");
+            return real.getConnection();
+        });
+
+        PostgresRateLimitStore store = new PostgresRateLimitStore(flaky);
+        try {
+            RateLimit rateLimit = limit("fixed");
+            String key = key("outage");
+            down.set(true);
+
+            for (int i = 0; i < 5; i++) {
+                assertEquals(0, store.tryAcquire(rateLimit, key, 1), "request " + i);
+            }
+            assertTrue(store.tryAcquire(rateLimit, key, 1) > 0);
+            assertTrue(store.isFailing());
+        } finally {
+            store.close();
+        }
+    }
+}
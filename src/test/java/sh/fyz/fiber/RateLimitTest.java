@@ -3,6 +3,7 @@ package sh.fyz.fiber;
 import org.junit.jupiter.api.*;
 
 import java.net.http.HttpResponse;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -60,4 +61,36 @@ public class RateLimitTest extends IntegrationTestBase {
         HttpResponse<String> resp = get("/test/rate-limited-sliding");
         assertEquals(429, resp.statusCode(), "Sliding window should block after max attempts, body: " + resp.body());
     }
+
+    @Test
+    @Order(7)
+    void testPerUserLimitKeysOnTheAuthenticatedUser() throws Exception {
+        Map<String, String> alice = login("rluser1" + RUN_ID);
+        Map<String, String> bob = login("rluser2" + RUN_ID);
+
+        for (int i = 0; i < 2; i++) {
+            assertEquals(400, get("/test/rate-limited-user", Map.of("Cookie", cookieHeader(alice))).statusCode());
+        }
+        assertEquals(429, get("/test/rate-limited-user", Map.of("Cookie", cookieHeader(alice))).statusCode());
+
+        // Same IP, different user: a separate bucket.
+        assertEquals(400, get("/test/rate-limited-user", Map.of("Cookie", cookieHeader(bob))).statusCode());
+    }
+
+    @Test
+    @Order(8)
+    void testFailedAuthenticationCountsAgainstTheIp() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            assertEquals(401, get("/test/rate-limited-user").statusCode());
+        }
+        HttpResponse<String> resp = get("/test/rate-limited-user");
+        assertEquals(429, resp.statusCode(), "Anonymous attempts should be limited, body: " + resp.body());
+    }
+
+    private Map<String, String> login(String username) throws Exception {
+        registerUser(username, username + "@test.com", "pass123", "user");
+        HttpResponse<String> loginResp = loginUser(username, "pass123");
+        assertEquals(200, loginResp.statusCode(), "Login failed: " + loginResp.body());
+        return extractCookies(loginResp);
+    }
 }
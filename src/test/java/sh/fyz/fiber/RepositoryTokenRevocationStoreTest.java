@@ -0,0 +1,113 @@
+package sh.fyz.fiber;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import sh.fyz.architect.repositories.GenericRepository;
+import sh.fyz.fiber.core.revocation.RepositoryTokenRevocationStore;
+import sh.fyz.fiber.core.revocation.RevokedToken;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RepositoryTokenRevocationStoreTest extends IntegrationTestBase {
+
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+
+    private GenericRepository<RevokedToken> repository;
+    private RepositoryTokenRevocationStore nodeA;
+    private RepositoryTokenRevocationStore nodeB;
+
+    @BeforeAll
+    void stores() {
+        repository = new GenericRepository<>(RevokedToken.class);
+        nodeA = new RepositoryTokenRevocationStore(repository);
+        nodeB = new RepositoryTokenRevocationStore(repository);
+    }
+
+    @AfterAll
+    void closeStores() {
+        nodeA.close();
+        nodeB.close();
+    }
+
+    private static String id(String name) {
+        return name + "-" + RUN_ID + "-" + System.nanoTime();
+    }
+
+    private RevokedToken row(String id, long expiresAt) {
+        RevokedToken row = new RevokedToken(id, expiresAt, expiresAt / HOUR);
+        repository.save(row);
+        return row;
+    }
+
+    @Test
+    void revocationsAreSeenByOtherNodes() {
+        String revoked = id("revoked");
+        nodeA.revoke(revoked, System.currentTimeMillis() + HOUR);
+
+        assertTrue(nodeA.isRevoked(revoked));
+        assertTrue(nodeB.isRevoked(revoked));
+        assertFalse(nodeB.isRevoked(id("unknown")));
+    }
+
+    @Test
+    void alreadyExpiredTokensAreNotStored() {
+        String expired = id("expired");
+        nodeA.revoke(expired, System.currentTimeMillis() - 1);
+
+        assertNull(repository.findById(expired));
+        assertFalse(nodeA.isRevoked(expired));
+    }
+
+    @Test
+    void firstPurgeWalksBackThroughRecentBuckets() {
+        long now = System.currentTimeMillis();
+        String hoursOld = id("hours-old");
+        String lastHour = id("last-hour");
+        String live = id("live");
+        row(hoursOld, now - 5 * HOUR);
+        row(lastHour, now - HOUR);
+        row(live, now + HOUR);
+
+        RepositoryTokenRevocationStore restarted = new RepositoryTokenRevocationStore(repository);
+        try {
+            restarted.purgeExpired();
+
+            assertNull(repository.findById(hoursOld));
+            assertNull(repository.findById(lastHour));
+            assertNotNull(repository.findById(live));
+            assertTrue(restarted.isRevoked(live));
+
+            // Later runs go bucket by bucket and leave unexpired rows alone.
+            restarted.purgeExpired();
+            assertNotNull(repository.findById(live));
+        } finally {
+            restarted.close();
+        }
+    }
+
+    @Test
+    void dataSourcePurgeDeletesExpiredRowsOfAnyAge() {
+        long now = System.currentTimeMillis();
+        String monthOld = id("month-old");
+        String justExpired = id("just-expired");
+        String live = id("live");
+        row(monthOld, now - TimeUnit.DAYS.toMillis(30));
+        row(justExpired, now - 1);
+        row(live, now + HOUR);
+
+        RepositoryTokenRevocationStore restarted = new RepositoryTokenRevocationStore(repository);
+        restarted.setDataSource(dataSource());
+        try {
+            restarted.purgeExpired();
+
+            assertNull(repository.findById(monthOld));
+            assertNull(repository.findById(justExpired));
+            assertNotNull(repository.findById(live));
+        } finally {
+            restarted.close();
+        }
+    }
+}
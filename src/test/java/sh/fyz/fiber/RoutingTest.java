@@ -103,4 +103,30 @@ public class RoutingTest extends IntegrationTestBase {
         HttpResponse<String> resp = get("/test/hello");
         assertEquals(200, resp.statusCode(), "Normalized path should work");
     }
+
+    @Test
+    @Order(12)
+    void testWrongMethodOnStaticPathReturns405() throws Exception {
+        HttpResponse<String> resp = delete("/test/hello");
+        assertEquals(405, resp.statusCode());
+        assertEquals("GET, OPTIONS", resp.headers().firstValue("Allow").orElse(null));
+    }
+
+    @Test
+    @Order(13)
+    void testWrongMethodOnDynamicPathReturns405() throws Exception {
+        HttpResponse<String> resp = put("/test/users/123", "{}");
+        assertEquals(405, resp.statusCode());
+        assertEquals("GET, OPTIONS", resp.headers().firstValue("Allow").orElse(null));
+    }
+
+    @Test
+    @Order(14)
+    void testRepeatedMissStillReturns404() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            HttpResponse<String> resp = get("/test/nonexistent/probe");
+            assertEquals(404, resp.statusCode());
+            assertTrue(resp.body().contains("\"status\":404"));
+        }
+    }
 }
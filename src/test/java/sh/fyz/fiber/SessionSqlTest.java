@@ -0,0 +1,162 @@
+package sh.fyz.fiber;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import sh.fyz.fiber.core.session.FiberSession;
+import sh.fyz.fiber.core.session.SessionService;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** The set-based statements {@code SessionService} runs once it has a {@code DataSource}. */
+public class SessionSqlTest extends IntegrationTestBase {
+
+    private DataSource dataSource;
+    private SessionService service;
+
+    @BeforeAll
+    void sqlService() {
+        dataSource = dataSource();
+        service = new SessionService(sessionRepository);
+        service.setDataSource(dataSource);
+    }
+
+    @AfterAll
+    void stopWriteBehind() {
+        service.setTouchFlushInterval(null);
+    }
+
+    private static String user(String name) {
+        return "sql-" + name + "-" + RUN_ID + "-" + System.nanoTime();
+    }
+
+    private void insert(List<FiberSession> sessions) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement insert = connection.prepareStatement(
+                     "INSERT INTO fiber_sessions (id, user_id, ip_address, user_agent, created_at, "
+                             + "last_accessed_at, expires_at, active) VALUES (?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (FiberSession session : sessions) {
+                insert.setString(1, session.getSessionId());
+                insert.setString(2, session.getUserId());
+                insert.setString(3, session.getIpAddress());
+                insert.setString(4, session.getUserAgent());
+                insert.setLong(5, session.getCreatedAt());
+                insert.setLong(6, session.getLastAccessedAt());
+                insert.setLong(7, session.getExpiresAt());
+                insert.setBoolean(8, session.isActive());
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private FiberSession session(String userId, long ttlMillis) throws SQLException {
+        FiberSession session = new FiberSession(userId, "127.0.0.1", "FiberTestClient/1.0", ttlMillis);
+        insert(List.of(session));
+        return session;
+    }
+
+    private long count(String sql, String param) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, param);
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    private long activeSessions(String userId) throws SQLException {
+        return count("SELECT COUNT(*) FROM fiber_sessions WHERE user_id = ? AND active = true", userId);
+    }
+
+    private long lastAccessedAt(String sessionId) throws SQLException {
+        return count("SELECT last_accessed_at FROM fiber_sessions WHERE id = ?", sessionId);
+    }
+
+    private void setLastAccessedAt(String sessionId, long value) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "UPDATE fiber_sessions SET last_accessed_at = ? WHERE id = ?")) {
+            statement.setLong(1, value);
+            statement.setString(2, sessionId);
+            statement.executeUpdate();
+        }
+    }
+
+    @Test
+    void cleanupDeactivatesExpiredSessionsAcrossPages() throws Exception {
+        String userId = user("expired");
+        FiberSession[] expired = new FiberSession[2_500];
+        for (int i = 0; i < expired.length; i++) {
+            expired[i] = new FiberSession(userId, "127.0.0.1", "FiberTestClient/1.0", -60_000);
+        }
+        insert(List.of(expired));
+        FiberSession valid = session(userId, 60_000);
+        assertEquals(2_501, activeSessions(userId));
+
+        service.cleanupExpired();
+
+        assertEquals(1, activeSessions(userId));
+        assertEquals(1, count("SELECT COUNT(*) FROM fiber_sessions WHERE id = ? AND active = true",
+                valid.getSessionId()));
+        // Expiry is not revocation: the sweep must not fill the revoked-session set.
+        assertFalse(service.isRecentlyRevoked(expired[0].getSessionId()));
+    }
+
+    @Test
+    void perUserInvalidationHonoursTheKeptSession() throws Exception {
+        String userId = user("others");
+        String otherUser = user("bystander");
+        FiberSession keep = session(userId, 60_000);
+        FiberSession other = session(userId, 60_000);
+        session(userId, 60_000);
+        session(otherUser, 60_000);
+
+        service.invalidateOtherSessions(userId, keep.getSessionId());
+        assertEquals(1, activeSessions(userId));
+        assertTrue(service.isRecentlyRevoked(other.getSessionId()));
+        assertFalse(service.isRecentlyRevoked(keep.getSessionId()));
+        assertEquals(1, count("SELECT COUNT(*) FROM fiber_sessions WHERE id = ? AND active = true",
+                keep.getSessionId()));
+
+        service.invalidateAllForUser(userId);
+        assertEquals(0, activeSessions(userId));
+        assertEquals(1, activeSessions(otherUser));
+    }
+
+    @Test
+    void batchedTouchesOnlyMoveActiveSessionsForward() throws Exception {
+        String userId = user("touch");
+        FiberSession behind = session(userId, 60_000);
+        FiberSession ahead = session(userId, 60_000);
+        FiberSession inactive = new FiberSession(userId, "127.0.0.1", "FiberTestClient/1.0", 60_000);
+        inactive.setActive(false);
+        insert(List.of(inactive));
+
+        long future = System.currentTimeMillis() + Duration.ofHours(1).toMillis();
+        setLastAccessedAt(behind.getSessionId(), 0);
+        setLastAccessedAt(ahead.getSessionId(), future);
+        setLastAccessedAt(inactive.getSessionId(), 0);
+
+        service.setTouchFlushInterval(Duration.ofHours(1));
+        long before = System.currentTimeMillis();
+        service.touchSession(behind.getSessionId());
+        service.touchSession(ahead.getSessionId());
+        service.touchSession(inactive.getSessionId());
+        service.flushTouches();
+
+        assertTrue(lastAccessedAt(behind.getSessionId()) >= before);
+        assertEquals(future, lastAccessedAt(ahead.getSessionId()));
+        assertEquals(0, lastAccessedAt(inactive.getSessionId()));
+    }
+}
@@ -1,6 +1,7 @@
 package sh.fyz.fiber;
 
 import org.junit.jupiter.api.*;
+import sh.fyz.fiber.handler.parameter.RequestBodyParameterHandler;
 
 import java.net.http.HttpResponse;
 
@@ -62,4 +63,27 @@ public class ValidationTest extends IntegrationTestBase {
         assertTrue(resp.body().contains("test"));
         assertFalse(resp.body().contains("\"age\""));
     }
+
+    @Test
+    @Order(8)
+    void testEmptyRequestBody() throws Exception {
+        HttpResponse<String> resp = post("/test/body", "");
+        assertEquals(400, resp.statusCode());
+    }
+
+    @Test
+    @Order(9)
+    void testOversizedRequestBody() throws Exception {
+        server.setMaxJsonBodySize(64);
+        try {
+            String body = "{\"username\":\"" + "x".repeat(100) + "\",\"email\":\"valid@test.com\"}";
+            HttpResponse<String> resp = post("/test/body", body);
+            assertEquals(413, resp.statusCode());
+
+            HttpResponse<String> small = post("/test/body", "{\"username\":\"v\",\"email\":\"v@t.io\"}");
+            assertEquals(200, small.statusCode());
+        } finally {
+            server.setMaxJsonBodySize(RequestBodyParameterHandler.DEFAULT_MAX_BODY_SIZE);
+        }
+    }
 }
@@ -145,6 +145,13 @@ public class TestController {
         return ResponseEntity.badRequest(Map.of("status", "fail"));
     }
 
+    @RequestMapping(value = "/rate-limited-user", method = RequestMapping.Method.GET)
+    @AuthType({AuthScheme.COOKIE})
+    @RateLimit(attempts = 2, timeout = 1, unit = TimeUnit.MINUTES, perUser = true)
+    public ResponseEntity<Map<String, Object>> rateLimitedPerUser(@AuthenticatedUser UserAuth user) {
+        return ResponseEntity.badRequest(Map.of("userId", user.getId()));
+    }
+
     @RequestMapping(value = "/no-csrf", method = RequestMapping.Method.POST)
     @NoCSRF
     public Map<String, String> noCsrf() {
@@ -0,0 +1,106 @@
+package sh.fyz.fiber.unit;
+
+import org.junit.jupiter.api.Test;
+import sh.fyz.fiber.annotations.request.LoadPriority;
+import sh.fyz.fiber.core.overload.AdaptiveConcurrencyLimiter;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long WINDOW = TimeUnit.MILLISECONDS.toNanos(200);
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(20);
+
+    /** Saturate the limiter, then complete everything at {@code end} after {@code latency}. */
+    private static void window(AdaptiveConcurrencyLimiter limiter, long end, long latency) {
+        int admitted = 0;
+        while (admitted < 2000 && limiter.tryAcquire(LoadPriority.Level.CRITICAL)) {
+            admitted++;
+        }
+        for (int i = 0; i < admitted; i++) {
+            limiter.release(end - latency, end);
+        }
+    }
+
+    @Test
+    void lowerPrioritiesAreShedFirst() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire(LoadPriority.Level.LOW));
+        }
+        assertFalse(limiter.tryAcquire(LoadPriority.Level.LOW));
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.tryAcquire(LoadPriority.Level.NORMAL));
+        }
+        assertFalse(limiter.tryAcquire(LoadPriority.Level.NORMAL));
+        assertTrue(limiter.tryAcquire(LoadPriority.Level.HIGH));
+        assertFalse(limiter.tryAcquire(LoadPriority.Level.HIGH));
+        assertTrue(limiter.tryAcquire(LoadPriority.Level.CRITICAL));
+        assertFalse(limiter.tryAcquire(LoadPriority.Level.CRITICAL));
+        assertEquals(10, limiter.getInFlight());
+
+        limiter.release(System.nanoTime());
+        assertEquals(9, limiter.getInFlight());
+        assertTrue(limiter.tryAcquire(LoadPriority.Level.CRITICAL));
+    }
+
+    @Test
+    void limitFollowsLatency() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(100, 10, 1000);
+        long t = System.nanoTime();
+
+        for (int i = 1; i <= 20; i++) {
+            window(limiter, t + i * WINDOW, FAST);
+        }
+        int healthy = limiter.getLimit();
+        assertTrue(healthy > 100, "limit should grow while latency is stable: " + healthy);
+
+        for (int i = 21; i <= 40; i++) {
+            window(limiter, t + i * WINDOW, SLOW);
+        }
+        int degraded = limiter.getLimit();
+        assertTrue(degraded < healthy / 2, "limit should shrink when latency rises: " + degraded);
+        assertTrue(degraded >= 10);
+
+        for (int i = 41; i <= 60; i++) {
+            window(limiter, t + i * WINDOW, FAST);
+        }
+        assertTrue(limiter.getLimit() > degraded, "limit should recover with latency");
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void slowdownShrinksTheLimitAtMostHalfPerWindow() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(100, 10, 1000);
+        long t = System.nanoTime();
+
+        for (int i = 1; i <= 20; i++) {
+            window(limiter, t + i * WINDOW, FAST);
+        }
+        int largestCut = 0;
+        for (int i = 21; i <= 25; i++) {
+            int before = limiter.getLimit();
+            window(limiter, t + i * WINDOW, SLOW);
+            int after = limiter.getLimit();
+            assertTrue(after >= before / 2, "by at most half: " + before + " -> " + after);
+            largestCut = Math.max(largestCut, before - after);
+        }
+        assertTrue(largestCut > 100 / 4, "a slow window should cut the limit at once: " + largestCut);
+    }
+
+    @Test
+    void idleServerDoesNotGrowTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(100, 10, 1000);
+        long t = System.nanoTime();
+
+        for (int i = 1; i <= 20; i++) {
+            assertTrue(limiter.tryAcquire(LoadPriority.Level.NORMAL));
+            limiter.release(t + i * WINDOW - FAST, t + i * WINDOW);
+        }
+        assertEquals(100, limiter.getLimit());
+    }
+}
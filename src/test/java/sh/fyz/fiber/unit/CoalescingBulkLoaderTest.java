@@ -0,0 +1,86 @@
+package sh.fyz.fiber.unit;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+import sh.fyz.fiber.core.authentication.CoalescingBulkLoader;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoalescingBulkLoaderTest {
+
+    private final List<Set<Integer>> calls = new CopyOnWriteArrayList<>();
+
+    private Map<Integer, String> load(Set<Integer> ids) {
+        calls.add(Set.copyOf(ids));
+        Map<Integer, String> found = new HashMap<>();
+        for (Integer id : ids) {
+            if (id >= 0) {
+                found.put(id, "user-" + id);
+            }
+        }
+        return found;
+    }
+
+    private AsyncLoadingCache<Integer, String> cache(int maxBatchSize, Duration maxDelay) {
+        return Caffeine.newBuilder().buildAsync(new CoalescingBulkLoader<>(this::load, maxBatchSize,
+                maxDelay, Executors.newVirtualThreadPerTaskExecutor()));
+    }
+
+    @Test
+    void concurrentMissesShareOneBulkLoad() {
+        AsyncLoadingCache<Integer, String> cache = cache(100, Duration.ofMillis(200));
+
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            futures.add(cache.get(i));
+        }
+        futures.add(cache.get(-1));
+
+        for (int i = 0; i < 50; i++) {
+            assertEquals("user-" + i, futures.get(i).join());
+        }
+        assertNull(futures.get(50).join());
+        assertEquals(1, calls.size());
+        assertEquals(51, calls.get(0).size());
+    }
+
+    @Test
+    void fullBatchesAreLoadedWithoutWaiting() {
+        AsyncLoadingCache<Integer, String> cache = cache(10, Duration.ofSeconds(30));
+
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            futures.add(cache.get(i));
+        }
+
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        assertEquals(2, calls.size());
+    }
+
+    @Test
+    void failuresReachEveryCallerOfTheBatch() {
+        CoalescingBulkLoader<Integer, String> loader = new CoalescingBulkLoader<>(ids -> {
+            throw new IllegalStateException("db down");
+        }, 10, Duration.ofMillis(20), Executors.newVirtualThreadPerTaskExecutor());
+        AsyncLoadingCache<Integer, String> cache = Caffeine.newBuilder().buildAsync(loader);
+
+        CompletableFuture<String> a = cache.get(1);
+        CompletableFuture<String> b = cache.get(2);
+
+        CompletionException e = assertThrows(CompletionException.class, a::join);
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+        assertThrows(CompletionException.class, b::join);
+    }
+}
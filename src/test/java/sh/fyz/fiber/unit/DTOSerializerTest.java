@@ -0,0 +1,77 @@
+package sh.fyz.fiber.unit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import sh.fyz.fiber.annotations.dto.IgnoreDTO;
+import sh.fyz.fiber.core.dto.DTOConvertible;
+import sh.fyz.fiber.util.FiberObjectMapper;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DTOSerializerTest {
+
+    private static final FiberObjectMapper MAPPER = new FiberObjectMapper();
+
+    public static class Address extends DTOConvertible {
+        private String city = "Lyon";
+        @IgnoreDTO private String internal = "hidden";
+    }
+
+    public static class Person extends DTOConvertible {
+        private String name = "ada";
+        private String nickname;
+        private int age = 36;
+        @IgnoreDTO private String password = "secret";
+        private Address address = new Address();
+        private List<Address> previous = List.of(new Address(), new Address());
+        private Address[] others = {new Address()};
+        private Map<String, Object> extra = Map.of("home", new Address(), "count", 2);
+        private String upper;
+
+        @Override
+        public void transform() {
+            upper = name.toUpperCase();
+        }
+    }
+
+    public static class Custom extends DTOConvertible {
+        private String ignoredByOverride = "x";
+
+        @Override
+        public Map<String, Object> asDTO() {
+            return Map.of("custom", true);
+        }
+    }
+
+    @Test
+    void matchesAsDtoOutput() throws Exception {
+        Person person = new Person();
+        JsonNode direct = MAPPER.readTree(MAPPER.writeValueAsBytes(person));
+        JsonNode viaMap = MAPPER.valueToTree(person.asDTO());
+
+        assertEquals(viaMap, direct);
+        assertEquals("ADA", direct.get("upper").asText());
+        assertFalse(direct.has("password"));
+        assertFalse(direct.has("nickname"));
+        assertFalse(direct.get("address").has("internal"));
+        assertEquals("Lyon", direct.get("extra").get("home").get("city").asText());
+    }
+
+    @Test
+    void nestedInsideCollectionsAndMaps() throws Exception {
+        JsonNode tree = MAPPER.readTree(MAPPER.writeValueAsBytes(
+                Map.of("people", List.of(new Person()), "address", new Address())));
+
+        assertFalse(tree.get("people").get(0).has("password"));
+        assertEquals("Lyon", tree.get("address").get("city").asText());
+        assertFalse(tree.get("address").has("internal"));
+    }
+
+    @Test
+    void overriddenAsDtoIsRespected() throws Exception {
+        assertEquals("{\"custom\":true}", MAPPER.writeValueAsString(new Custom()));
+    }
+}
@@ -0,0 +1,85 @@
+package sh.fyz.fiber.unit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import sh.fyz.fiber.annotations.request.StreamingResponse;
+import sh.fyz.fiber.annotations.security.Permission;
+import sh.fyz.fiber.annotations.security.RequireRole;
+import sh.fyz.fiber.core.EndpointDescriptor;
+import sh.fyz.fiber.core.security.annotations.RateLimit;
+import sh.fyz.fiber.core.security.exceptions.RateLimitExceededException;
+import sh.fyz.fiber.core.security.interceptors.RateLimitInterceptor;
+
+import java.lang.reflect.Method;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EndpointDescriptorTest {
+
+    @RateLimit(attempts = 1, timeout = 60, unit = TimeUnit.SECONDS, slidingWindow = false)
+    @RequireRole({"admin", "admin", "staff"})
+    @StreamingResponse
+    public static class AnnotatedController {
+        public void inherited() {}
+
+        @RateLimit(attempts = 5, timeout = 1, unit = TimeUnit.MINUTES, key = "custom")
+        @Permission({"users.read"})
+        @StreamingResponse(false)
+        public void overridden() {}
+    }
+
+    public static class PlainController {
+        public void plain() {}
+    }
+
+    @AfterEach
+    void reset() {
+        RateLimitInterceptor.clearAll();
+    }
+
+    @Test
+    void classLevelAnnotationsApplyWhenMethodHasNone() throws Exception {
+        EndpointDescriptor d = EndpointDescriptor.of(AnnotatedController.class.getMethod("inherited"));
+
+        assertEquals(1, d.getRateLimit().attempts());
+        assertEquals(AnnotatedController.class.getName() + ":inherited", d.getRateLimitBucket());
+        assertEquals(Set.of("admin", "staff"), d.getRequiredRoles());
+        assertNull(d.getRequiredPermissions());
+        assertTrue(d.isStreaming(false));
+    }
+
+    @Test
+    void methodLevelAnnotationsWin() throws Exception {
+        EndpointDescriptor d = EndpointDescriptor.of(AnnotatedController.class.getMethod("overridden"));
+
+        assertEquals(5, d.getRateLimit().attempts());
+        assertEquals("custom", d.getRateLimitBucket());
+        assertEquals(Set.of("users.read"), d.getRequiredPermissions());
+        assertFalse(d.isStreaming(true));
+    }
+
+    @Test
+    void unannotatedEndpointHasNoMetadata() throws Exception {
+        EndpointDescriptor d = EndpointDescriptor.of(PlainController.class.getMethod("plain"));
+
+        assertNull(d.getRateLimit());
+        assertNull(d.getAuditLog());
+        assertNull(d.getRequiredRoles());
+        assertNull(d.getRequiredPermissions());
+        assertFalse(d.isNoCors());
+        assertFalse(d.isNoCsrf());
+        assertFalse(d.isStreaming(false));
+        assertTrue(d.isStreaming(true));
+    }
+
+    @Test
+    void classLevelRateLimitIsEnforced() throws Exception {
+        Method m = AnnotatedController.class.getMethod("inherited");
+
+        RateLimitInterceptor.checkRateLimit("ip:1.2.3.4", m);
+        assertThrows(RateLimitExceededException.class,
+                () -> RateLimitInterceptor.checkRateLimit("ip:1.2.3.4", m));
+    }
+}
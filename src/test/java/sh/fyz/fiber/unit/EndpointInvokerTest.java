@@ -0,0 +1,70 @@
+package sh.fyz.fiber.unit;
+
+import org.junit.jupiter.api.Test;
+import sh.fyz.fiber.handler.EndpointInvoker;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EndpointInvokerTest {
+
+    public static class Controller {
+        public String none() { return "none"; }
+        public String three(String a, int b, Integer c) { return a + b + c; }
+        public long six(int a, int b, int c, int d, int e, long f) { return a + b + c + d + e + f; }
+        public String seven(int a, int b, int c, int d, int e, int f, int g) { return String.valueOf(a + b + c + d + e + f + g); }
+        public void nothing() {}
+        public String fail() { throw new IllegalStateException("boom"); }
+    }
+
+    private static Method method(String name) {
+        for (Method m : Controller.class.getDeclaredMethods()) {
+            if (m.getName().equals(name)) return m;
+        }
+        throw new IllegalArgumentException(name);
+    }
+
+    @Test
+    void smallNonVoidMethodsAreCompiledToLambdas() throws Exception {
+        Controller controller = new Controller();
+
+        EndpointInvoker none = EndpointInvoker.compile(controller, method("none"));
+        assertEquals(EndpointInvoker.Kind.LAMBDA, none.kind());
+        assertEquals("none", none.invoke(new Object[0]));
+
+        EndpointInvoker three = EndpointInvoker.compile(controller, method("three"));
+        assertEquals(EndpointInvoker.Kind.LAMBDA, three.kind());
+        assertEquals("x12", three.invoke(new Object[]{"x", 1, 2}));
+
+        EndpointInvoker six = EndpointInvoker.compile(controller, method("six"));
+        assertEquals(EndpointInvoker.Kind.LAMBDA, six.kind());
+        assertEquals(21L, six.invoke(new Object[]{1, 2, 3, 4, 5, 6L}));
+    }
+
+    @Test
+    void wideAndVoidMethodsUseMethodHandles() throws Exception {
+        Controller controller = new Controller();
+
+        EndpointInvoker seven = EndpointInvoker.compile(controller, method("seven"));
+        assertEquals(EndpointInvoker.Kind.METHOD_HANDLE, seven.kind());
+        assertEquals("7", seven.invoke(new Object[]{1, 1, 1, 1, 1, 1, 1}));
+
+        EndpointInvoker nothing = EndpointInvoker.compile(controller, method("nothing"));
+        assertEquals(EndpointInvoker.Kind.METHOD_HANDLE, nothing.kind());
+        assertNull(nothing.invoke(new Object[0]));
+    }
+
+    @Test
+    void controllerExceptionsAreWrappedLikeReflection() {
+        Controller controller = new Controller();
+        for (EndpointInvoker invoker : new EndpointInvoker[]{
+                EndpointInvoker.compile(controller, method("fail")),
+                EndpointInvoker.reflective(controller, method("fail"))}) {
+            InvocationTargetException e = assertThrows(InvocationTargetException.class,
+                    () -> invoker.invoke(new Object[0]));
+            assertInstanceOf(IllegalStateException.class, e.getCause());
+        }
+    }
+}
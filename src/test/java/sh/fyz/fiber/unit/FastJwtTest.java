@@ -0,0 +1,66 @@
+package sh.fyz.fiber.unit;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.Test;
+import sh.fyz.fiber.core.FastJwt;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FastJwtTest {
+
+    private static final SecretKey KEY = Keys.hmacShaKeyFor(
+            "unit-test-secret-key-0123456789-abcdefghijklmnop".getBytes(StandardCharsets.UTF_8));
+    private static final FastJwt JWT = new FastJwt(KEY.getEncoded());
+
+    @Test
+    void roundTripAndJjwtInterop() {
+        long now = System.currentTimeMillis();
+        String token = JWT.encode(42L, "10.0.0.1", "Agent \"é\"", "access", "s-1", now, 60_000);
+
+        FastJwt.Token decoded = JWT.decode(token);
+        assertNotNull(decoded);
+        assertEquals(42, ((Number) decoded.id()).intValue());
+        assertEquals("Agent \"é\"", decoded.userAgent());
+        assertEquals("access", decoded.type());
+        assertEquals("s-1", decoded.sessionId());
+        assertEquals((now + 60_000) / 1000 * 1000, decoded.expiresAtMillis());
+        assertFalse(decoded.isExpired(now));
+
+        Claims claims = Jwts.parser().verifyWith(KEY).build().parseSignedClaims(token).getPayload();
+        assertEquals("10.0.0.1", claims.get("ip"));
+        assertEquals("s-1", claims.get("sessionId"));
+        assertEquals(claims.getExpiration(), decoded.toClaims().getExpiration());
+    }
+
+    @Test
+    void tamperedOrForeignKeyTokensAreRejected() {
+        String token = JWT.encode("alice", null, null, "refresh", "s-2", System.currentTimeMillis(), 60_000);
+        int sig = token.lastIndexOf('.') + 1;
+        String tampered = token.substring(0, sig) + (token.charAt(sig) == 'A' ? 'B' : 'A') + token.substring(sig + 1);
+        assertThrows(SignatureException.class, () -> JWT.decode(tampered));
+
+        FastJwt other = new FastJwt("another-secret-key-0123456789-abcdefghijklmnopq".getBytes(StandardCharsets.UTF_8));
+        assertThrows(SignatureException.class, () -> other.decode(token));
+    }
+
+    @Test
+    void otherShapesAreLeftToJjwt() {
+        long now = System.currentTimeMillis();
+        String extraClaim = Jwts.builder()
+                .claims(Map.of("id", 1, "role", "admin"))
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + 60_000))
+                .signWith(KEY)
+                .compact();
+        assertNull(JWT.decode(extraClaim));
+        assertNull(JWT.decode("not-a-jwt"));
+    }
+}
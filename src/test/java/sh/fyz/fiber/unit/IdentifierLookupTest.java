@@ -0,0 +1,162 @@
+package sh.fyz.fiber.unit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import sh.fyz.architect.repositories.GenericRepository;
+import sh.fyz.fiber.annotations.auth.IdentifierField;
+import sh.fyz.fiber.annotations.auth.PasswordField;
+import sh.fyz.fiber.core.authentication.AuthCookieConfig;
+import sh.fyz.fiber.core.authentication.AuthenticationService;
+import sh.fyz.fiber.core.authentication.entities.UserAuth;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class IdentifierLookupTest {
+
+    public static class Account implements UserAuth {
+        private long id;
+        @IdentifierField
+        private String username;
+        @IdentifierField
+        private String email;
+        @PasswordField
+        private String password;
+
+        Account(long id, String username, String email) {
+            this.id = id;
+            this.username = username;
+            this.email = email;
+        }
+
+        @Override public Object getId() { return id; }
+        @Override public String getRole() { return "user"; }
+    }
+
+    @SuppressWarnings("unchecked")
+    private final GenericRepository<Account> repository = (GenericRepository<Account>) mock(GenericRepository.class);
+    /** Rows by "field=value", as the equality queries see them. */
+    private final Map<String, Account> rows = new ConcurrentHashMap<>();
+    private final Map<Object, Account> byId = new ConcurrentHashMap<>();
+    /** Field of every {@code where(field, identifier)} issued. */
+    private final List<String> queries = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void repository() {
+        when(repository.getEntityClass()).thenReturn(Account.class);
+        when(repository.findById(any())).thenAnswer(inv -> byId.get(inv.getArgument(0)));
+        when(repository.query()).thenAnswer(inv -> query());
+    }
+
+    /** A query chain over {@link #rows}, whatever type Architect's builder has. */
+    private Object query() throws Exception {
+        String[] condition = new String[2];
+        Answer<Object> chain = new Answer<>() {
+            @Override
+            public Object answer(InvocationOnMock inv) throws Throwable {
+                Method method = inv.getMethod();
+                switch (method.getName()) {
+                    case "where" -> {
+                        condition[0] = inv.getArgument(0);
+                        condition[1] = String.valueOf(inv.getArguments()[inv.getArguments().length - 1]);
+                        queries.add(condition[0]);
+                    }
+                    case "findFirst" -> {
+                        return rows.get(condition[0] + "=" + condition[1]);
+                    }
+                    default -> {
+                        return RETURNS_DEFAULTS.answer(inv);
+                    }
+                }
+                return method.getReturnType().isInstance(inv.getMock())
+                        ? inv.getMock() : mock(method.getReturnType(), this);
+            }
+        };
+        return mock(GenericRepository.class.getMethod("query").getReturnType(), chain);
+    }
+
+    private void store(Account account) {
+        byId.put(account.getId(), account);
+        rows.values().removeIf(row -> row == account);
+        rows.put("username=" + account.username, account);
+        rows.put("email=" + account.email, account);
+    }
+
+    private AuthenticationService<Account> service(boolean index) {
+        return new AuthenticationService<>(repository, "/auth", new AuthCookieConfig()) {
+            @Override
+            protected Cache<String, Object> buildIdentifierIndex() {
+                return index ? Caffeine.newBuilder().maximumSize(100).build() : null;
+            }
+        };
+    }
+
+    @Test
+    void missQueriesEachIdentifierFieldAndStopsAtTheFirstMatch() {
+        AuthenticationService<Account> service = service(false);
+
+        assertNull(service.findUserByIdentifer("nobody"));
+        assertEquals(2, queries.size());
+        assertEquals(List.of("email", "username"), queries.stream().sorted().toList());
+
+        // Both fields match: the second query is never issued.
+        Account same = new Account(1, "same", "same");
+        store(same);
+        queries.clear();
+        assertSame(same, service.findUserByIdentifer("same"));
+        assertEquals(1, queries.size());
+    }
+
+    @Test
+    void staleIndexEntryFallsThroughToTheQuery() {
+        AuthenticationService<Account> service = service(true);
+        Account alice = new Account(1, "alice", "alice@example.com");
+        store(alice);
+
+        assertSame(alice, service.findUserByIdentifer("alice"));
+        int afterFirst = queries.size();
+        assertSame(alice, service.findUserByIdentifer("alice@example.com"));
+        assertEquals(afterFirst, queries.size(), "indexed identifiers go through the user cache");
+
+        // alice renames herself and another account takes the old name.
+        alice.username = "alicia";
+        store(alice);
+        Account newcomer = new Account(2, "alice", "newcomer@example.com");
+        store(newcomer);
+
+        assertSame(newcomer, service.findUserByIdentifer("alice"));
+        assertTrue(queries.size() > afterFirst, "a stale entry must fall back to the query");
+        int afterRename = queries.size();
+        assertSame(newcomer, service.findUserByIdentifer("alice"));
+        assertEquals(afterRename, queries.size(), "the entry now points at the new owner");
+    }
+
+    @Test
+    void evictUserDropsItsIndexEntries() {
+        AuthenticationService<Account> service = service(true);
+        Account alice = new Account(1, "alice", "alice@example.com");
+        store(alice);
+
+        assertSame(alice, service.findUserByIdentifer("alice"));
+        assertSame(alice, service.getUserById(1L));
+        int indexed = queries.size();
+        assertSame(alice, service.findUserByIdentifer("alice@example.com"));
+        assertEquals(indexed, queries.size());
+
+        service.evictUser(1L);
+
+        assertSame(alice, service.findUserByIdentifer("alice@example.com"));
+        assertTrue(queries.size() > indexed, "evicted entries must be queried again");
+    }
+}
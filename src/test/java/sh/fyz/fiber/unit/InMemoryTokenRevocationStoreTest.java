@@ -0,0 +1,52 @@
+package sh.fyz.fiber.unit;
+
+import org.junit.jupiter.api.Test;
+import sh.fyz.fiber.core.revocation.InMemoryTokenRevocationStore;
+import sh.fyz.fiber.core.revocation.TokenRevocationStore;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryTokenRevocationStoreTest {
+
+    @Test
+    void revokedUntilExpiry() {
+        InMemoryTokenRevocationStore store = new InMemoryTokenRevocationStore();
+        long now = System.currentTimeMillis();
+
+        store.revoke("a", now + 60_000);
+        store.revoke("expired", now - 1);
+
+        assertTrue(store.isRevoked("a"));
+        assertFalse(store.isRevoked("b"));
+        assertFalse(store.isRevoked("expired"));
+        assertEquals(1, store.size());
+
+        store.clear();
+        assertFalse(store.isRevoked("a"));
+    }
+
+    @Test
+    void expiredBucketsArePruned() throws Exception {
+        InMemoryTokenRevocationStore store = new InMemoryTokenRevocationStore(Duration.ofMillis(50));
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < 100; i++) {
+            store.revoke("short-" + i, now + 200);
+        }
+        store.revoke("long", now + 60_000);
+        assertEquals(101, store.size());
+
+        Thread.sleep(400);
+        assertTrue(store.isRevoked("long"));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void digestIsCompactAndStable() {
+        String token = "header.payload.signature";
+        assertEquals(22, TokenRevocationStore.digest(token).length());
+        assertEquals(TokenRevocationStore.digest(token), TokenRevocationStore.digest(token));
+        assertNotEquals(TokenRevocationStore.digest(token), TokenRevocationStore.digest(token + "x"));
+    }
+}
@@ -0,0 +1,131 @@
+package sh.fyz.fiber.unit;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import sh.fyz.architect.repositories.GenericRepository;
+import sh.fyz.fiber.core.authentication.AuthCookieConfig;
+import sh.fyz.fiber.core.authentication.AuthenticationService;
+import sh.fyz.fiber.core.authentication.entities.UserAuth;
+import sh.fyz.fiber.core.invalidation.InvalidationBus;
+import sh.fyz.fiber.core.invalidation.LocalInvalidationBus;
+import sh.fyz.fiber.core.session.FiberSession;
+import sh.fyz.fiber.core.session.SessionService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class InvalidationBusTest {
+
+    @Test
+    void localBusDeliversToEverySubscriberOfTheTopic() {
+        LocalInvalidationBus bus = new LocalInvalidationBus();
+        List<String> sessions = new ArrayList<>();
+        List<String> users = new ArrayList<>();
+        bus.subscribe(InvalidationBus.SESSION, sessions::add);
+        bus.subscribe(InvalidationBus.SESSION, key -> { throw new IllegalStateException("ignored"); });
+        bus.subscribe(InvalidationBus.USER, users::add);
+
+        bus.publish(InvalidationBus.SESSION, "s-1");
+        bus.publish(InvalidationBus.USER, InvalidationBus.ALL);
+
+        assertEquals(List.of("s-1"), sessions);
+        assertEquals(List.of(InvalidationBus.ALL), users);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void sessionRevokedOnOneNodeIsDroppedFromTheOthersCache() {
+        FiberSession active = new FiberSession(1, "127.0.0.1", "ua", 60_000);
+        FiberSession revoked = new FiberSession(1, "127.0.0.1", "ua", 60_000);
+        revoked.setActive(false);
+
+        GenericRepository<FiberSession> repoA = Mockito.mock(GenericRepository.class);
+        when(repoA.findById(any())).thenReturn(active, revoked);
+        GenericRepository<FiberSession> repoB = Mockito.mock(GenericRepository.class);
+
+        SessionService nodeA = new SessionService(repoA, 60_000);
+        SessionService nodeB = new SessionService(repoB, 60_000);
+        LocalInvalidationBus bus = new LocalInvalidationBus();
+        nodeA.setInvalidationBus(bus);
+        nodeB.setInvalidationBus(bus);
+
+        String id = active.getSessionId();
+        assertNotNull(nodeA.getSession(id));
+        assertNotNull(nodeA.getSession(id), "served from node A's cache");
+
+        nodeB.invalidate(id);
+
+        assertNull(nodeA.getSession(id));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void revocationsReachStatelessValidationOnEveryNode() {
+        SessionService nodeA = new SessionService(Mockito.mock(GenericRepository.class), 60_000);
+        SessionService nodeB = new SessionService(Mockito.mock(GenericRepository.class), 60_000);
+        LocalInvalidationBus bus = new LocalInvalidationBus();
+        nodeA.setInvalidationBus(bus);
+        nodeB.setInvalidationBus(bus);
+        nodeA.setStatelessValidation(true);
+
+        assertFalse(nodeA.isRecentlyRevoked("s-42"));
+        nodeB.invalidate("s-42");
+        assertTrue(nodeA.isRecentlyRevoked("s-42"));
+        assertTrue(nodeB.isRecentlyRevoked("s-42"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void userEvictionsFindCacheKeysOfAnyIdType() {
+        GenericRepository<UserAuth> repoB = Mockito.mock(GenericRepository.class);
+        when(repoB.findById(any())).thenAnswer(inv -> Mockito.mock(UserAuth.class));
+        AuthenticationService<UserAuth> nodeA = new AuthenticationService<>(
+                Mockito.mock(GenericRepository.class), "/auth", new AuthCookieConfig()) {};
+        AuthenticationService<UserAuth> nodeB = new AuthenticationService<>(repoB, "/auth", new AuthCookieConfig()) {};
+        LocalInvalidationBus bus = new LocalInvalidationBus();
+        nodeA.setInvalidationBus(bus);
+        nodeB.setInvalidationBus(bus);
+
+        UUID uuid = UUID.randomUUID();
+        for (Object id : new Object[]{42L, 7, uuid, "alice"}) {
+            nodeB.getUserById(id);
+            nodeB.getUserById(id);
+            verify(repoB, times(1)).findById(id);
+        }
+
+        // Published as strings, matched back to Long, Integer, UUID and String keys.
+        nodeA.evictUser(42);
+        nodeA.evictUser("7");
+        nodeA.evictUser(uuid);
+        nodeA.evictUser("alice");
+
+        for (Object id : new Object[]{42L, 7, uuid, "alice"}) {
+            nodeB.getUserById(id);
+            verify(repoB, times(2)).findById(id);
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void statelessValidationWaitsForARevocationHistory() {
+        SessionService node = new SessionService(Mockito.mock(GenericRepository.class), 60_000);
+        LocalInvalidationBus bus = new LocalInvalidationBus();
+        node.setInvalidationBus(bus);
+
+        assertFalse(node.isStatelessValidationActive());
+        node.setStatelessValidation(true);
+        assertTrue(node.isStatelessValidation());
+        // Freshly enabled (as after a restart): tokens issued before are checked statefully.
+        assertFalse(node.isStatelessValidationActive());
+
+        bus.publish(InvalidationBus.SESSION, InvalidationBus.ALL);
+        assertFalse(node.isStatelessValidationActive());
+    }
+}
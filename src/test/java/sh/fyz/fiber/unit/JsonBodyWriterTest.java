@@ -0,0 +1,81 @@
+package sh.fyz.fiber.unit;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import sh.fyz.fiber.util.JsonBodyWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonBodyWriterTest {
+
+    static class CapturingStream extends ServletOutputStream {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        boolean closed;
+
+        @Override public void write(int b) { bytes.write(b); }
+        @Override public void close() { closed = true; }
+        @Override public boolean isReady() { return true; }
+        @Override public void setWriteListener(WriteListener listener) {}
+
+        String text() { return bytes.toString(StandardCharsets.UTF_8); }
+    }
+
+    private static HttpServletResponse response(CapturingStream out) throws Exception {
+        HttpServletResponse resp = Mockito.mock(HttpServletResponse.class);
+        Mockito.when(resp.getOutputStream()).thenReturn(out);
+        return resp;
+    }
+
+    private static Object largeBody() {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            rows.add(Map.of("id", i, "name", "user-" + i));
+        }
+        return rows;
+    }
+
+    @Test
+    void bufferedSetsContentLength() throws Exception {
+        CapturingStream out = new CapturingStream();
+        HttpServletResponse resp = response(out);
+
+        JsonBodyWriter.write(resp, Map.of("ok", true), false);
+
+        assertEquals("{\"ok\":true}", out.text());
+        Mockito.verify(resp).setContentLength(out.bytes.size());
+    }
+
+    @Test
+    void streamingWritesSameJsonWithoutContentLengthOrClosing() throws Exception {
+        Object body = largeBody();
+        CapturingStream buffered = new CapturingStream();
+        JsonBodyWriter.write(response(buffered), body, false);
+
+        CapturingStream streamed = new CapturingStream();
+        HttpServletResponse resp = response(streamed);
+        JsonBodyWriter.write(resp, body, true);
+
+        assertEquals(buffered.text(), streamed.text());
+        Mockito.verify(resp, Mockito.never()).setContentLength(Mockito.anyInt());
+        assertFalse(streamed.closed, "the container owns the output stream");
+    }
+
+    @Test
+    void streamingFailureBeforeCommitResetsBuffer() throws Exception {
+        CapturingStream out = new CapturingStream();
+        HttpServletResponse resp = response(out);
+        Object unserializable = Map.of("stream", new Object());
+
+        assertThrows(Exception.class, () -> JsonBodyWriter.write(resp, unserializable, true));
+        Mockito.verify(resp).resetBuffer();
+    }
+}
@@ -0,0 +1,79 @@
+package sh.fyz.fiber.unit;
+
+import org.junit.jupiter.api.Test;
+import sh.fyz.fiber.core.ResponseEntity;
+import sh.fyz.fiber.util.JsonCodec;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonCodecTest {
+
+    public static class Item {
+        public String name;
+    }
+
+    public static class SpecialItem extends Item {
+        public int level = 3;
+    }
+
+    public static final class Point {
+        public int x = 1;
+        public int y = 2;
+    }
+
+    public void create(List<Item> items) {}
+
+    public ResponseEntity<List<Item>> list() { return null; }
+
+    public Item one() { return null; }
+
+    public Point point() { return null; }
+
+    private static java.lang.reflect.Method method(String name) throws Exception {
+        for (java.lang.reflect.Method m : JsonCodecTest.class.getMethods()) {
+            if (m.getName().equals(name)) return m;
+        }
+        throw new NoSuchMethodException(name);
+    }
+
+    @Test
+    void readerKeepsGenericElementType() throws Exception {
+        JsonCodec codec = JsonCodec.forType(method("create").getParameters()[0].getParameterizedType());
+        List<Item> items = codec.reader().readValue("[{\"name\":\"a\"},{\"name\":\"b\"}]");
+
+        assertEquals(2, items.size());
+        assertInstanceOf(Item.class, items.get(0));
+        assertEquals("b", items.get(1).name);
+    }
+
+    @Test
+    void responseEntityBodyTypeIsUnwrapped() throws Exception {
+        JsonCodec codec = JsonCodec.forResponse(method("list"));
+        SpecialItem item = new SpecialItem();
+        item.name = "a";
+
+        String json = codec.writerFor(List.of(item), false).writeValueAsString(List.of(item));
+        assertEquals("[{\"name\":\"a\",\"level\":3}]", json);
+    }
+
+    @Test
+    void nonFinalDeclaredTypeSerializesRuntimeType() throws Exception {
+        JsonCodec codec = JsonCodec.forResponse(method("one"));
+        SpecialItem item = new SpecialItem();
+
+        String json = codec.writerFor(item, false).writeValueAsString(item);
+        assertTrue(json.contains("\"level\":3"));
+    }
+
+    @Test
+    void mismatchedValueFallsBackToRuntimeType() throws Exception {
+        JsonCodec codec = JsonCodec.forResponse(method("point"));
+        assertEquals("{\"x\":1,\"y\":2}", codec.writerFor(new Point(), false).writeValueAsString(new Point()));
+
+        Map<String, Object> wrapped = Map.of("message", "nope");
+        assertEquals("{\"message\":\"nope\"}", codec.writerFor(wrapped, true).writeValueAsString(wrapped));
+    }
+}
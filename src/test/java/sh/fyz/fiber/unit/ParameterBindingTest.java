@@ -0,0 +1,79 @@
+package sh.fyz.fiber.unit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import sh.fyz.fiber.annotations.params.Param;
+import sh.fyz.fiber.annotations.params.PathVariable;
+import sh.fyz.fiber.core.PathVariables;
+import sh.fyz.fiber.handler.ParameterResolver;
+import sh.fyz.fiber.handler.parameter.ParameterHandlerRegistry;
+import sh.fyz.fiber.validation.Min;
+import sh.fyz.fiber.validation.ValidationInitializer;
+
+import java.lang.reflect.Method;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParameterBindingTest {
+
+    public void endpoint(@PathVariable("id") long id,
+                         @Param("age") @Min(0) int age,
+                         @Param(value = "nick", required = false) String nick,
+                         HttpServletResponse response) {}
+
+    @BeforeAll
+    static void registries() throws Exception {
+        Method m = ParameterBindingTest.class.getMethod("endpoint", long.class, int.class, String.class, HttpServletResponse.class);
+        if (ParameterHandlerRegistry.findHandler(m.getParameters()[0]) == null) {
+            ValidationInitializer.initialize();
+            ParameterHandlerRegistry.initialize();
+        }
+    }
+
+    private static ParameterResolver.BindingPlan plan() throws Exception {
+        return ParameterResolver.plan(ParameterBindingTest.class.getMethod("endpoint",
+                long.class, int.class, String.class, HttpServletResponse.class));
+    }
+
+    private static HttpServletRequest request(String age, String nick) {
+        HttpServletRequest req = Mockito.mock(HttpServletRequest.class);
+        Mockito.when(req.getParameter("age")).thenReturn(age);
+        Mockito.when(req.getParameter("nick")).thenReturn(nick);
+        Mockito.when(req.getRequestURI()).thenReturn("/users/42");
+        return req;
+    }
+
+    private static PathVariables id(String value) {
+        return new PathVariables(new String[]{"id"}, new String[]{value});
+    }
+
+    @Test
+    void planResolvesEverySlot() throws Exception {
+        HttpServletResponse resp = Mockito.mock(HttpServletResponse.class);
+        Object[] args = ParameterResolver.resolve(plan(), request("30", null), resp, id("42"), null);
+
+        assertEquals(4, args.length);
+        assertEquals(42L, args[0]);
+        assertEquals(30, args[1]);
+        assertNull(args[2]);
+        assertSame(resp, args[3]);
+    }
+
+    @Test
+    void validationAndConversionErrorsAreBadRequests() throws Exception {
+        HttpServletResponse resp = Mockito.mock(HttpServletResponse.class);
+        ParameterResolver.BindingPlan plan = plan();
+
+        ParameterResolver.ResolveException negative = assertThrows(ParameterResolver.ResolveException.class,
+                () -> ParameterResolver.resolve(plan, request("-5", null), resp, id("42"), null));
+        assertEquals(400, negative.getStatusCode());
+
+        ParameterResolver.ResolveException missing = assertThrows(ParameterResolver.ResolveException.class,
+                () -> ParameterResolver.resolve(plan, request(null, null), resp, id("42"), null));
+        assertEquals(400, missing.getStatusCode());
+        assertTrue(missing.getMessage().contains("age"));
+    }
+}
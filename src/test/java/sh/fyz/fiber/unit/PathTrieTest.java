@@ -2,6 +2,7 @@ package sh.fyz.fiber.unit;
 
 import org.junit.jupiter.api.Test;
 import sh.fyz.fiber.core.PathTrie;
+import sh.fyz.fiber.core.RouteTable;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -62,4 +63,54 @@ class PathTrieTest {
         trie.add("/a", "GET", "v2");
         assertEquals("v2", trie.find("/a", "GET"));
     }
+
+    @Test
+    void paramSegmentsAreCapturedInOrder() {
+        PathTrie<String> trie = new PathTrie<>();
+        trie.add("/users/{id}/posts/{postId}", "GET", "handler");
+        trie.add("/users/{id}/posts/latest", "GET", "latest");
+
+        String[] captures = new String[trie.getMaxParams()];
+        assertEquals("handler", trie.find("/users/7/posts/99", "GET", captures));
+        assertArrayEquals(new String[]{"7", "99"}, captures);
+
+        captures = new String[trie.getMaxParams()];
+        assertEquals("latest", trie.find("/users/7/posts/latest", "GET", captures));
+        assertEquals("7", captures[0]);
+    }
+
+    @Test
+    void offsetLookupReportsCaptureBounds() {
+        PathTrie<String> trie = new PathTrie<>();
+        trie.add("/orgs/{org}/repos/{repo}", "GET", "handler");
+
+        String path = "/orgs/fyz/repos/fiber/";
+        int[] offsets = new int[trie.getMaxParams() * 2];
+        assertEquals("handler", trie.find(path, RouteTable.methodIndex("GET"), offsets));
+        assertEquals("fyz", path.substring(offsets[0], offsets[1]));
+        assertEquals("fiber", path.substring(offsets[2], offsets[3]));
+        assertNull(trie.find(path, RouteTable.methodIndex("TRACE"), offsets));
+    }
+
+    @Test
+    void emptySegmentDoesNotMatchParam() {
+        PathTrie<String> trie = new PathTrie<>();
+        trie.add("/users/{id}/profile", "GET", "handler");
+        assertNull(trie.find("/users//profile", "GET"));
+    }
+
+    @Test
+    void allowedMethodsCoverEveryMatchingRoute() {
+        PathTrie<String> trie = new PathTrie<>();
+        trie.add("/users/{id}", "GET", "get");
+        trie.add("/users/{id}", "DELETE", "delete");
+        trie.add("/users/*", "POST", "wildcard");
+
+        int get = 1 << RouteTable.methodIndex("GET");
+        int delete = 1 << RouteTable.methodIndex("DELETE");
+        int post = 1 << RouteTable.methodIndex("POST");
+        assertEquals(get | delete | post, trie.allowedMethods("/users/42"));
+        assertEquals(post, trie.allowedMethods("/users/42/avatar"));
+        assertEquals(0, trie.allowedMethods("/groups/42"));
+    }
 }
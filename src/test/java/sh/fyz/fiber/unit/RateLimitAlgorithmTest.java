@@ -0,0 +1,111 @@
+package sh.fyz.fiber.unit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import sh.fyz.fiber.core.security.annotations.RateLimit;
+import sh.fyz.fiber.core.security.exceptions.RateLimitExceededException;
+import sh.fyz.fiber.core.security.interceptors.RateLimitInterceptor;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitAlgorithmTest {
+
+    @RateLimit(attempts = 3, timeout = 1, unit = TimeUnit.HOURS, algorithm = RateLimit.Algorithm.TOKEN_BUCKET)
+    public void bucket() {}
+
+    @RateLimit(attempts = 3, timeout = 1, unit = TimeUnit.HOURS, algorithm = RateLimit.Algorithm.GCRA)
+    public void gcra() {}
+
+    @RateLimit(attempts = 3, timeout = 1, unit = TimeUnit.HOURS, algorithm = RateLimit.Algorithm.SLIDING_COUNTER)
+    public void counter() {}
+
+    @RateLimit(attempts = 60, timeout = 1, unit = TimeUnit.HOURS, burst = 2, algorithm = RateLimit.Algorithm.GCRA)
+    public void smallBurst() {}
+
+    @RateLimit(attempts = 20, timeout = 1, unit = TimeUnit.SECONDS, algorithm = RateLimit.Algorithm.TOKEN_BUCKET)
+    public void fastRefill() {}
+
+    @AfterEach
+    void reset() {
+        RateLimitInterceptor.clearAll();
+    }
+
+    private static Method method(String name) throws Exception {
+        return RateLimitAlgorithmTest.class.getMethod(name);
+    }
+
+    @Test
+    void lockFreeAlgorithmsAdmitTheFullQuotaThenReject() throws Exception {
+        for (String name : new String[]{"bucket", "gcra", "counter"}) {
+            Method m = method(name);
+            for (int i = 0; i < 3; i++) {
+                RateLimitInterceptor.checkRateLimit("alice", m);
+            }
+            RateLimitExceededException e = assertThrows(RateLimitExceededException.class,
+                    () -> RateLimitInterceptor.checkRateLimit("alice", m), name);
+            // The bucket and GCRA get a token back after 20 minutes; the counter has to wait
+            // for the rest of its fixed hour, then 20 minutes more for the old count to fade.
+            long max = name.equals("counter") ? 3600 + 1200 : 1200;
+            assertTrue(e.getRetryAfterSeconds() > 1000 && e.getRetryAfterSeconds() <= max, name);
+
+            // Other keys are unaffected, and a reset restores the burst.
+            RateLimitInterceptor.checkRateLimit("bob", m);
+            RateLimitInterceptor.resetRateLimit("alice", m);
+            RateLimitInterceptor.checkRateLimit("alice", m);
+        }
+    }
+
+    @Test
+    void burstCapsRequestsBelowTheWindowQuota() throws Exception {
+        Method m = method("smallBurst");
+        RateLimitInterceptor.checkRateLimit("alice", m);
+        RateLimitInterceptor.checkRateLimit("alice", m);
+        assertThrows(RateLimitExceededException.class, () -> RateLimitInterceptor.checkRateLimit("alice", m));
+    }
+
+    @Test
+    void tokensRefillOverTime() throws Exception {
+        Method m = method("fastRefill");
+        for (int i = 0; i < 20; i++) {
+            RateLimitInterceptor.checkRateLimit("alice", m);
+        }
+        assertThrows(RateLimitExceededException.class, () -> RateLimitInterceptor.checkRateLimit("alice", m));
+
+        Thread.sleep(120);
+        RateLimitInterceptor.checkRateLimit("alice", m);
+    }
+
+    @Test
+    void concurrentCallersNeverExceedTheLimit() throws Exception {
+        for (String name : new String[]{"bucket", "gcra", "counter"}) {
+            Method m = method(name);
+            AtomicInteger admitted = new AtomicInteger();
+            CountDownLatch start = new CountDownLatch(1);
+            ExecutorService pool = Executors.newFixedThreadPool(16);
+            try {
+                for (int i = 0; i < 200; i++) {
+                    pool.execute(() -> {
+                        try {
+                            start.await();
+                            RateLimitInterceptor.checkRateLimit("shared", m);
+                            admitted.incrementAndGet();
+                        } catch (RateLimitExceededException | InterruptedException ignored) {
+                        }
+                    });
+                }
+                start.countDown();
+            } finally {
+                pool.shutdown();
+                assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+            }
+            assertEquals(3, admitted.get(), name);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package sh.fyz.fiber.unit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import sh.fyz.fiber.core.EndpointDescriptor;
+import sh.fyz.fiber.core.ResponseEntity;
+import sh.fyz.fiber.core.authentication.entities.UserAuth;
+import sh.fyz.fiber.core.security.annotations.RateLimit;
+import sh.fyz.fiber.core.security.interceptors.RateLimitInterceptor;
+import sh.fyz.fiber.core.security.processors.RateLimitProcessor;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitStagesTest {
+
+    @RateLimit(attempts = 1, timeout = 1, unit = TimeUnit.MINUTES)
+    public void byIp() {}
+
+    @RateLimit(attempts = 1, timeout = 1, unit = TimeUnit.MINUTES, perUser = true)
+    public void byUser() {}
+
+    @AfterEach
+    void reset() {
+        RateLimitInterceptor.clearAll();
+    }
+
+    private static EndpointDescriptor endpoint(String name) throws Exception {
+        return EndpointDescriptor.of(RateLimitStagesTest.class.getMethod(name));
+    }
+
+    private static HttpServletRequest request() {
+        HttpServletRequest req = Mockito.mock(HttpServletRequest.class);
+        Mockito.when(req.getRemoteAddr()).thenReturn("198.51.100.7");
+        return req;
+    }
+
+    private static UserAuth user(Object id) {
+        UserAuth user = Mockito.mock(UserAuth.class);
+        Mockito.when(user.getId()).thenReturn(id);
+        return user;
+    }
+
+    @Test
+    void ipLimitsAreEnforcedBeforeAuthenticationOnly() throws Exception {
+        EndpointDescriptor endpoint = endpoint("byIp");
+        HttpServletRequest req = request();
+
+        assertNull(RateLimitProcessor.preAuth(endpoint, req));
+        ResponseEntity<?> rejected = RateLimitProcessor.preAuth(endpoint, req);
+        assertNotNull(rejected);
+        assertEquals(429, rejected.getStatus());
+
+        // The post-auth stage leaves IP limits alone.
+        assertNull(RateLimitProcessor.postAuth(endpoint, user(1L), req));
+    }
+
+    @Test
+    void perUserLimitsKeyOnThePrincipalAfterAuthentication() throws Exception {
+        EndpointDescriptor endpoint = endpoint("byUser");
+        HttpServletRequest req = request();
+
+        assertNull(RateLimitProcessor.preAuth(endpoint, req));
+        assertNull(RateLimitProcessor.preAuth(endpoint, req));
+
+        assertNull(RateLimitProcessor.postAuth(endpoint, user(1L), req));
+        assertNotNull(RateLimitProcessor.postAuth(endpoint, user(1L), req));
+        // Another user behind the same IP, and the IP itself, have their own buckets.
+        assertNull(RateLimitProcessor.postAuth(endpoint, user(2L), req));
+        assertNull(RateLimitProcessor.postAuth(endpoint, null, req));
+        assertNotNull(RateLimitProcessor.postAuth(endpoint, null, req));
+    }
+
+    @Test
+    void successResetsTheUsersBucket() throws Exception {
+        EndpointDescriptor endpoint = endpoint("byUser");
+        HttpServletRequest req = request();
+        Mockito.when(req.getAttribute("userId")).thenReturn(1L);
+
+        assertNull(RateLimitProcessor.postAuth(endpoint, user(1L), req));
+        RateLimitProcessor.onSuccess(endpoint, null, req);
+        assertNull(RateLimitProcessor.postAuth(endpoint, user(1L), req));
+    }
+}
@@ -0,0 +1,141 @@
+package sh.fyz.fiber.unit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import sh.fyz.fiber.core.security.annotations.RateLimit;
+import sh.fyz.fiber.core.security.exceptions.RateLimitExceededException;
+import sh.fyz.fiber.core.security.interceptors.RateLimitInterceptor;
+import sh.fyz.fiber.core.security.ratelimit.BatchingRateLimitStore;
+import sh.fyz.fiber.core.security.ratelimit.InMemoryRateLimitStore;
+import sh.fyz.fiber.core.security.ratelimit.RateLimitStore;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitStoreTest {
+
+    @RateLimit(attempts = 5, timeout = 1, unit = TimeUnit.HOURS)
+    public void fixed() {}
+
+    @RateLimit(attempts = 5, timeout = 1, unit = TimeUnit.HOURS, slidingWindow = true)
+    public void log() {}
+
+    @RateLimit(attempts = 5, timeout = 1, unit = TimeUnit.HOURS, algorithm = RateLimit.Algorithm.SLIDING_COUNTER)
+    public void counter() {}
+
+    @RateLimit(attempts = 5, timeout = 1, unit = TimeUnit.HOURS, algorithm = RateLimit.Algorithm.TOKEN_BUCKET)
+    public void bucket() {}
+
+    @RateLimit(attempts = 5, timeout = 1, unit = TimeUnit.HOURS, algorithm = RateLimit.Algorithm.GCRA)
+    public void gcra() {}
+
+    @RateLimit(attempts = 100, timeout = 1, unit = TimeUnit.HOURS, algorithm = RateLimit.Algorithm.GCRA)
+    public void busy() {}
+
+    /** Stands in for a shared store: counts round-trips to the in-memory implementation. */
+    static class CountingStore extends InMemoryRateLimitStore {
+        final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public long tryAcquire(RateLimit rateLimit, String key, int permits) {
+            calls.incrementAndGet();
+            return super.tryAcquire(rateLimit, key, permits);
+        }
+    }
+
+    @AfterEach
+    void reset() {
+        RateLimitInterceptor.setStore(null);
+    }
+
+    private static RateLimit limit(String name) throws Exception {
+        return RateLimitStoreTest.class.getMethod(name).getAnnotation(RateLimit.class);
+    }
+
+    @Test
+    void permitsAreTakenAllOrNothing() throws Exception {
+        for (String name : new String[]{"fixed", "log", "counter", "bucket", "gcra"}) {
+            RateLimit rateLimit = limit(name);
+            RateLimitStore store = new InMemoryRateLimitStore();
+
+            assertEquals(0, store.tryAcquire(rateLimit, "k", 4), name);
+            assertTrue(store.tryAcquire(rateLimit, "k", 2) > 0, name);
+            assertEquals(0, store.tryAcquire(rateLimit, "k", 1), name);
+            assertTrue(store.tryAcquire(rateLimit, "k", 1) > 0, name);
+
+            store.reset(rateLimit, "k");
+            assertEquals(0, store.tryAcquire(rateLimit, "k", 5), name);
+        }
+    }
+
+    @Test
+    void slidingCounterWaitCoversEveryRequestedPermit() throws Exception {
+        RateLimit rateLimit = limit("counter");
+        RateLimitStore store = new InMemoryRateLimitStore();
+        long hour = TimeUnit.HOURS.toNanos(1);
+
+        // Empty previous window: 2 more only fit once a quarter of these 4 has slid out of the next one.
+        assertEquals(0, store.tryAcquire(rateLimit, "k", 4));
+        long wait = store.tryAcquire(rateLimit, "k", 2);
+        assertTrue(wait >= hour / 4 && wait <= hour + hour / 4, "wait: " + wait);
+
+        long longer = store.tryAcquire(rateLimit, "k", 5);
+        assertTrue(longer > wait && longer <= 2 * hour, "wait: " + longer);
+    }
+
+    @Test
+    void interceptorUsesTheSelectedStore() throws Exception {
+        CountingStore store = new CountingStore();
+        RateLimitInterceptor.setStore(store);
+        Method m = RateLimitStoreTest.class.getMethod("fixed");
+
+        for (int i = 0; i < 5; i++) {
+            RateLimitInterceptor.checkRateLimit("alice", m);
+        }
+        assertThrows(RateLimitExceededException.class, () -> RateLimitInterceptor.checkRateLimit("alice", m));
+        assertEquals(6, store.calls.get());
+        assertSame(store, RateLimitInterceptor.getStore());
+
+        RateLimitInterceptor.setStore(null);
+        assertInstanceOf(InMemoryRateLimitStore.class, RateLimitInterceptor.getStore());
+        assertNotSame(store, RateLimitInterceptor.getStore());
+    }
+
+    @Test
+    void batchingSavesRoundTripsWithoutExceedingTheLimit() throws Exception {
+        CountingStore shared = new CountingStore();
+        RateLimit rateLimit = limit("busy");
+        // Two nodes sharing one store.
+        RateLimitStore nodeA = new BatchingRateLimitStore(shared, 10);
+        RateLimitStore nodeB = new BatchingRateLimitStore(shared, 10);
+
+        int admitted = 0;
+        for (int i = 0; i < 40; i++) {
+            if (nodeA.tryAcquire(rateLimit, "k", 1) == 0) admitted++;
+        }
+        assertEquals(40, admitted);
+        assertEquals(4, shared.calls.get());
+
+        for (int i = 0; i < 200; i++) {
+            RateLimitStore node = i % 2 == 0 ? nodeA : nodeB;
+            if (node.tryAcquire(rateLimit, "k", 1) == 0) admitted++;
+        }
+        assertEquals(100, admitted);
+    }
+
+    @Test
+    void batchFallsBackToSinglePermitsNearTheLimit() throws Exception {
+        CountingStore shared = new CountingStore();
+        RateLimit rateLimit = limit("gcra");
+        RateLimitStore node = new BatchingRateLimitStore(shared, 4);
+
+        shared.tryAcquire(rateLimit, "k", 3);
+        // Only two permits are left: the batch of four is refused, single permits still pass.
+        assertEquals(0, node.tryAcquire(rateLimit, "k", 1));
+        assertEquals(0, node.tryAcquire(rateLimit, "k", 1));
+        assertTrue(node.tryAcquire(rateLimit, "k", 1) > 0);
+    }
+}
@@ -0,0 +1,60 @@
+package sh.fyz.fiber.unit;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import sh.fyz.architect.repositories.GenericRepository;
+import sh.fyz.fiber.core.session.FiberSession;
+import sh.fyz.fiber.core.session.SessionService;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SessionTouchTest {
+
+    @SuppressWarnings("unchecked")
+    private static GenericRepository<FiberSession> repository(FiberSession session) {
+        GenericRepository<FiberSession> repo = Mockito.mock(GenericRepository.class);
+        when(repo.findById(session.getSessionId())).thenReturn(session);
+        return repo;
+    }
+
+    @Test
+    void synchronousTouchWritesEveryTime() {
+        FiberSession session = new FiberSession(1, "127.0.0.1", "ua", 60_000);
+        GenericRepository<FiberSession> repo = repository(session);
+        SessionService service = new SessionService(repo, 60_000);
+
+        service.touchSession(session.getSessionId());
+        service.touchSession(session.getSessionId());
+
+        verify(repo, times(2)).save(session);
+    }
+
+    @Test
+    void writeBehindCoalescesTouchesUntilFlush() throws Exception {
+        FiberSession session = new FiberSession(1, "127.0.0.1", "ua", 60_000);
+        long created = session.getLastAccessedAt();
+        GenericRepository<FiberSession> repo = repository(session);
+        SessionService service = new SessionService(repo, 60_000);
+        service.setTouchFlushInterval(Duration.ofHours(1));
+        assertTrue(service.isWriteBehindTouches());
+
+        Thread.sleep(5);
+        for (int i = 0; i < 10; i++) {
+            service.touchSession(session.getSessionId());
+        }
+        verify(repo, never()).save(any());
+
+        service.flushTouches();
+        verify(repo, times(1)).save(session);
+        assertTrue(session.getLastAccessedAt() > created);
+
+        service.flushTouches();
+        verify(repo, times(1)).save(session);
+
+        service.setTouchFlushInterval(null);
+        assertFalse(service.isWriteBehindTouches());
+    }
+}
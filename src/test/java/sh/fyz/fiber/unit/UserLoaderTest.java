@@ -0,0 +1,82 @@
+package sh.fyz.fiber.unit;
+
+import org.junit.jupiter.api.Test;
+import sh.fyz.architect.repositories.GenericRepository;
+import sh.fyz.fiber.core.authentication.AuthCookieConfig;
+import sh.fyz.fiber.core.authentication.AuthenticationService;
+import sh.fyz.fiber.core.authentication.entities.UserAuth;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class UserLoaderTest {
+
+    @SuppressWarnings("unchecked")
+    private final GenericRepository<UserAuth> repository = (GenericRepository<UserAuth>) mock(GenericRepository.class);
+
+    private static UserAuth user(Object id) {
+        UserAuth user = mock(UserAuth.class);
+        when(user.getId()).thenReturn(id);
+        return user;
+    }
+
+    private List<CompletableFuture<UserAuth>> loadConcurrently(AuthenticationService<UserAuth> service, int count) {
+        var executor = Executors.newVirtualThreadPerTaskExecutor();
+        List<CompletableFuture<UserAuth>> futures = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            long id = i;
+            futures.add(CompletableFuture.supplyAsync(() -> service.getUserById(id), executor));
+        }
+        return futures;
+    }
+
+    @Test
+    void missesRunConcurrentlyWithoutABulkQuery() {
+        // Every findById waits for the other four: serial loads would never get past the barrier.
+        CyclicBarrier allLoading = new CyclicBarrier(5);
+        when(repository.findById(any())).thenAnswer(inv -> {
+            allLoading.await(5, TimeUnit.SECONDS);
+            return user(inv.getArgument(0));
+        });
+        AuthenticationService<UserAuth> service = new AuthenticationService<>(repository, "/auth", new AuthCookieConfig()) {};
+
+        for (CompletableFuture<UserAuth> future : loadConcurrently(service, 5)) {
+            assertNotNull(future.join());
+        }
+        verify(repository, times(5)).findById(any());
+    }
+
+    @Test
+    void missesAreBatchedOnceFindUsersByIdsIsOverridden() {
+        List<Set<Object>> calls = new CopyOnWriteArrayList<>();
+        AuthenticationService<UserAuth> service = new AuthenticationService<>(repository, "/auth", new AuthCookieConfig()) {
+            @Override
+            protected Map<Object, UserAuth> findUsersByIds(Set<Object> ids) {
+                calls.add(Set.copyOf(ids));
+                Map<Object, UserAuth> users = new HashMap<>();
+                ids.forEach(id -> users.put(id, user(id)));
+                return users;
+            }
+        };
+
+        for (CompletableFuture<UserAuth> future : loadConcurrently(service, 100)) {
+            assertNotNull(future.join());
+        }
+        int loaded = calls.stream().mapToInt(Set::size).sum();
+        assertEquals(100, loaded);
+        assertTrue(calls.size() < 100, "misses should share bulk calls: " + calls.size());
+        verify(repository, never()).findById(any());
+    }
+}
@@ -0,0 +1,86 @@
+package sh.fyz.fiber.unit;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+import sh.fyz.fiber.core.VerifiedTokenCache;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerifiedTokenCacheTest {
+
+    private static Claims claims(String sessionId, long expiresInMillis) {
+        return Jwts.claims()
+                .add("id", 1)
+                .add("ip", "10.0.0.1")
+                .add("userAgent", "UA")
+                .add("type", "access")
+                .add("sessionId", sessionId)
+                .expiration(new Date(System.currentTimeMillis() + expiresInMillis))
+                .build();
+    }
+
+    @Test
+    void verifiedTokenIsServedFromCache() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(100);
+        Claims claims = claims("s1", 60_000);
+
+        assertNull(cache.get("token-a"));
+        VerifiedTokenCache.Entry put = cache.put("token-a", claims);
+
+        VerifiedTokenCache.Entry hit = cache.get("token-a");
+        assertNotNull(hit);
+        assertSame(claims, hit.claims());
+        assertEquals("10.0.0.1", hit.ip());
+        assertEquals("UA", hit.userAgent());
+        assertEquals(put.expiresAtMillis(), hit.expiresAtMillis());
+        assertNull(cache.get("token-b"));
+    }
+
+    @Test
+    void expiredTokensAreNotCached() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(100);
+        VerifiedTokenCache.Entry entry = cache.put("token-a", claims("s1", -1_000));
+
+        assertTrue(entry.isExpired(System.currentTimeMillis()));
+        assertNull(cache.get("token-a"));
+    }
+
+    @Test
+    void revokingSessionDropsItsTokens() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(100);
+        cache.put("token-a", claims("s1", 60_000));
+        cache.put("token-b", claims("s1", 60_000));
+        cache.put("token-c", claims("s2", 60_000));
+
+        cache.invalidateSession("s1");
+
+        assertNull(cache.get("token-a"));
+        assertNull(cache.get("token-b"));
+        assertNotNull(cache.get("token-c"));
+    }
+
+    @Test
+    void sessionIndexFollowsTheCache() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(100);
+        cache.put("token-a", claims("s1", 60_000));
+        cache.invalidateSession("s1");
+        cache.invalidateSession("s1");
+
+        // Verified again after the revocation: indexed again, dropped again.
+        cache.put("token-a", claims("s1", 60_000));
+        cache.put("token-d", claims(null, 60_000));
+        assertNotNull(cache.get("token-a"));
+        cache.invalidateSession("s1");
+        assertNull(cache.get("token-a"));
+        assertNotNull(cache.get("token-d"));
+
+        cache.put("token-b", claims("s2", 60_000));
+        cache.invalidateAll();
+        cache.put("token-b", claims("s2", 60_000));
+        cache.invalidateSession("s2");
+        assertNull(cache.get("token-b"));
+    }
+}